@@ -0,0 +1,43 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.CharacterFactory;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CharacterFactory.getCharacter 적중 경로 처리량
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacterFactoryBenchmark {
+    private CharacterFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = new CharacterFactory(new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+        for (int i = 0; i < Texts.SAMPLE.length(); i++) {
+            factory.getCharacter(Texts.SAMPLE.charAt(i));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void getCharacter(Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(factory.getCharacter(cursor.next()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void getCharacterContended(Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(factory.getCharacter(cursor.next()));
+    }
+}
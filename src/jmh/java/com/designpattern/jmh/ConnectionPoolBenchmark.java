@@ -0,0 +1,56 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.DatabaseConnection;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionPool 빌리기 + 반납 왕복 처리량
+ * 풀이 비어 있어 연결을 못 받은 경우도 한 번의 시도로 셈 (blackhole에 null 전달)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private ConnectionPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ConnectionPool();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void acquireRelease(Blackhole blackhole) {
+        DatabaseConnection connection = pool.getConnection();
+        blackhole.consume(connection);
+        if (connection != null) {
+            pool.returnConnection(connection);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void acquireReleaseContended(Blackhole blackhole) {
+        acquireRelease(blackhole);
+    }
+
+    // 풀 크기보다 훨씬 많은 스레드 (1 → 64 확장성은 ConnectionPoolScalingBenchmark 참고)
+    @Benchmark
+    @Threads(64)
+    public void acquireReleaseOversubscribed(Blackhole blackhole) {
+        acquireRelease(blackhole);
+    }
+}
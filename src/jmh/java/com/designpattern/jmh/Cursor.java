@@ -0,0 +1,22 @@
+package com.designpattern.jmh;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 스레드마다 샘플 텍스트를 순서대로 돌며 문자 하나씩 제공
+ */
+@State(Scope.Thread)
+public class Cursor {
+    private int index;
+
+    public char next() {
+        char ch = Texts.SAMPLE.charAt(index);
+        index = (index + 1 == Texts.SAMPLE.length()) ? 0 : index + 1;
+        return ch;
+    }
+
+    public int position() {
+        return index;
+    }
+}
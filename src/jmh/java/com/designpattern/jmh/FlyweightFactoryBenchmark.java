@@ -0,0 +1,66 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.FlyweightFactory;
+import com.designpattern.flyweight.practical.FlyweightProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlyweightFactory.getFlyweight 적중 경로 처리량 (문자열 키 / 복합 키)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlyweightFactoryBenchmark {
+    private static final String[] FONTS = {"Arial", "Times"};
+    private static final String[] COLORS = {"red", "black"};
+
+    private FlyweightFactory factory;
+    private String[] stringKeys;
+
+    @Setup
+    public void setUp() {
+        factory = new FlyweightFactory(new FlyweightProperties(), new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+        stringKeys = new String[Texts.SAMPLE.length()];
+        for (int i = 0; i < Texts.SAMPLE.length(); i++) {
+            char ch = Texts.SAMPLE.charAt(i);
+            stringKeys[i] = ch + "-" + FONTS[i & 1] + "-14-" + COLORS[i & 1];
+            factory.getFlyweight(stringKeys[i]);
+            factory.getFlyweight(ch, FONTS[i & 1], 14, COLORS[i & 1]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void stringKey(Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(factory.getFlyweight(stringKeys[cursor.position()]));
+        cursor.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stringKeyContended(Cursor cursor, Blackhole blackhole) {
+        stringKey(cursor, blackhole);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void compositeKey(Cursor cursor, Blackhole blackhole) {
+        int i = cursor.position();
+        blackhole.consume(factory.getFlyweight(cursor.next(), FONTS[i & 1], 14, COLORS[i & 1]));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void compositeKeyContended(Cursor cursor, Blackhole blackhole) {
+        compositeKey(cursor, blackhole);
+    }
+}
@@ -0,0 +1,70 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.CharacterFactory;
+import com.designpattern.flyweight.Document;
+import com.designpattern.flyweight.DocumentRepository;
+import com.designpattern.flyweight.DocumentService;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DocumentService.renderDocument 문서 크기별 처리량
+ * 저장소는 메모리의 문서 하나를 돌려주는 프록시로 대체 (DB 시간 제외, 렌더링 경로만 측정)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderDocumentBenchmark {
+    private static final Long DOCUMENT_ID = 1L;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private DocumentService service;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        Document document = new Document();
+        document.setId(DOCUMENT_ID);
+        document.setTitle("benchmark-" + size);
+        document.setContent(Texts.document(size));
+
+        DocumentRepository repository = (DocumentRepository) Proxy.newProxyInstance(
+            DocumentRepository.class.getClassLoader(), new Class<?>[] {DocumentRepository.class},
+            (proxy, method, args) -> method.getName().equals("findById") ? Optional.of(document) : null);
+
+        service = new DocumentService();
+        inject(service, "documentRepository", repository);
+        inject(service, "characterFactory", new CharacterFactory(new FlyweightCacheRegistry(new SimpleMeterRegistry())));
+        service.renderDocument(DOCUMENT_ID);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<String> renderDocument() {
+        return service.renderDocument(DOCUMENT_ID);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> renderDocumentContended() {
+        return service.renderDocument(DOCUMENT_ID);
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
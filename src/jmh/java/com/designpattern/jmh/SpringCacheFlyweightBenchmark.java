@@ -0,0 +1,86 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.CompositeKeyGenerator;
+import com.designpattern.flyweight.practical.FlyweightCacheManager;
+import com.designpattern.flyweight.practical.SpringCacheFlyweight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Cacheable 프록시를 거친 SpringCacheFlyweight.createFontStyle 적중 경로 처리량
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpringCacheFlyweightBenchmark {
+    private static final String[] FONTS = {"Arial", "Times", "Courier", "Verdana"};
+    private static final String[] COLORS = {"black", "red", "blue", "green"};
+
+    private AnnotationConfigApplicationContext context;
+    private SpringCacheFlyweight flyweight;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(CacheConfig.class);
+        flyweight = context.getBean(SpringCacheFlyweight.class);
+        for (int i = 0; i < 16; i++) {
+            flyweight.createFontStyle(FONTS[i & 3], 12, COLORS[i >> 2]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void createFontStyle(Cursor cursor, Blackhole blackhole) {
+        int i = cursor.position() & 15;
+        cursor.next();
+        blackhole.consume(flyweight.createFontStyle(FONTS[i & 3], 12, COLORS[i >> 2]));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void createFontStyleContended(Cursor cursor, Blackhole blackhole) {
+        createFontStyle(cursor, blackhole);
+    }
+
+    // 애플리케이션과 같은 캐시 매니저 + 키 생성기 구성
+    @Configuration
+    @EnableCaching
+    static class CacheConfig {
+        @Bean
+        public CacheManager cacheManager() {
+            return new FlyweightCacheManager(Map.of("flyweights", new FlyweightCacheSpec()),
+                new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+        }
+
+        @Bean
+        public KeyGenerator compositeKeyGenerator() {
+            return new CompositeKeyGenerator();
+        }
+
+        @Bean
+        public SpringCacheFlyweight springCacheFlyweight() {
+            return new SpringCacheFlyweight();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.designpattern.jmh;
+
+import com.designpattern.flyweight.corpus.CorpusGenerator;
+import com.designpattern.flyweight.corpus.CorpusSpec;
+
+/**
+ * 벤치마크 공용 입력 - 고정 seed의 다국어 합성 코퍼스
+ * (ASCII/한글/한자/이모지가 Zipf 빈도로 섞여 있어 실제와 비슷한 키 개수가 나옴)
+ */
+final class Texts {
+    private static final long SEED = 42;
+
+    static final String SAMPLE = document(16_384);
+
+    private Texts() {
+    }
+
+    /**
+     * 정확히 length 글자인 문서 본문 (같은 length면 항상 같은 내용)
+     */
+    static String document(int length) {
+        CorpusSpec spec = new CorpusSpec().fixedLength(length);
+        spec.setSeed(SEED);
+        return new CorpusGenerator(spec).content(0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.designpattern.loadtest;
+
+import com.designpattern.SampleApplication;
+import com.designpattern.flyweight.DocumentRepository;
+import com.designpattern.flyweight.corpus.CorpusGenerator;
+import com.designpattern.flyweight.corpus.CorpusSpec;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 애플리케이션을 임의 포트로 띄우고 localhost에서 open-loop 부하를 거는 테스트
+ *
+ * 실행: ./gradlew loadTest [-Ploadtest.scenarios=render,query] [-Ploadtest.render.rates=50,100,200]
+ *       [-Ploadtest.query.rates=2,4,8] [-Ploadtest.duration=20s] [-Ploadtest.warmup=5s] [-Ploadtest.documents=200]
+ * 보고서: build/reports/loadtest/{시각}/summary.txt (+ 요청률별 .hgrm)
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        List<String> scenarios = Arrays.asList(property("loadtest.scenarios", "render,query").split(","));
+        Duration duration = Duration.parse("PT" + property("loadtest.duration", "20s"));
+        Duration warmup = Duration.parse("PT" + property("loadtest.warmup", "5s"));
+        int documents = Integer.parseInt(property("loadtest.documents", "200"));
+        long seed = Long.parseLong(property("loadtest.seed", "42"));
+        Path reportRoot = Paths.get(property("loadtest.reportDir", "build/reports/loadtest"));
+
+        ConfigurableApplicationContext context = SpringApplication.run(SampleApplication.class,
+            "--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+            "--flyweight.snapshot.enabled=false");
+        ExecutorService callbacks = Executors.newCachedThreadPool();
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Long> ids = seed(context.getBean(DocumentRepository.class), documents, seed);
+            HttpClient client = HttpClient.newBuilder().executor(callbacks).build();
+            OpenLoopDriver driver = new OpenLoopDriver(client, Duration.ofSeconds(30));
+            LoadTestReport report = new LoadTestReport(reportRoot);
+            System.out.println(report.header());
+
+            for (String name : scenarios) {
+                Scenario scenario = Scenario.of(name.trim(), base, ids);
+                double[] rates = Arrays.stream(property("loadtest." + scenario.name + ".rates", scenario.defaultRates).split(","))
+                    .mapToDouble(Double::parseDouble).toArray();
+                // 워밍업: 첫 요청률로 JIT/캐시를 데운 뒤 결과는 버림
+                driver.run(rates[0], warmup, scenario.requests, scenario.failed, seed);
+                for (double rate : rates) {
+                    report.add(scenario.name, driver.run(rate, duration, scenario.requests, scenario.failed, seed));
+                }
+            }
+            System.out.println("📄 보고서: " + report.write().toAbsolutePath());
+        } finally {
+            callbacks.shutdownNow();
+            context.close();
+        }
+    }
+
+    // 렌더링 대상 문서: 고정 seed의 다국어 합성 코퍼스
+    private static List<Long> seed(DocumentRepository repository, int count, long seed) {
+        CorpusSpec spec = new CorpusSpec();
+        spec.setSeed(seed);
+        spec.setDocuments(count);
+        return new CorpusGenerator(spec).loadInto(repository);
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    // 부하 대상 요청 정의
+    static class Scenario {
+        final String name;
+        final String defaultRates;
+        final Function<Random, HttpRequest.Builder> requests;
+        final Predicate<HttpResponse<String>> failed;
+
+        private Scenario(String name, String defaultRates, Function<Random, HttpRequest.Builder> requests,
+                         Predicate<HttpResponse<String>> failed) {
+            this.name = name;
+            this.defaultRates = defaultRates;
+            this.requests = requests;
+            this.failed = failed;
+        }
+
+        static Scenario of(String name, String base, List<Long> ids) {
+            switch (name) {
+                case "render":
+                    return new Scenario(name, "50,100,200",
+                        random -> HttpRequest.newBuilder(URI.create(base + "/documents/" + ids.get(random.nextInt(ids.size())) + "/render")),
+                        response -> false);
+                case "query":
+                    // 쿼리 하나가 0.5~1.5초 연결을 붙잡으므로 요청률을 낮게 시작
+                    return new Scenario(name, "2,4,8",
+                        random -> HttpRequest.newBuilder(URI.create(base + "/database/query"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                "query=" + URLEncoder.encode("SELECT * FROM documents WHERE id = " + random.nextInt(1000), StandardCharsets.UTF_8))),
+                        response -> response.body().startsWith("❌"));
+                default:
+                    throw new IllegalArgumentException("알 수 없는 시나리오: " + name);
+            }
+        }
+    }
+}
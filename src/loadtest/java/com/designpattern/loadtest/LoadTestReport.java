@@ -0,0 +1,70 @@
+package com.designpattern.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트 결과 보고서
+ * - summary.txt: 시나리오/요청률별 처리량과 p50 ~ p99.99 (보정 후, 괄호 안은 보정 전)
+ * - {시나리오}-{요청률}.hgrm: HdrHistogram 백분위 분포 (HistogramLogAnalyzer 등으로 그래프화)
+ */
+class LoadTestReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final List<String> lines = new ArrayList<>();
+    private final Path directory;
+
+    LoadTestReport(Path reportRoot) {
+        this.directory = reportRoot.resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        lines.add(String.format("%-8s %8s %10s %7s %22s %22s %22s %22s %22s %10s",
+            "scenario", "target", "achieved", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms"));
+    }
+
+    void add(String scenario, OpenLoopDriver.Result result) throws IOException {
+        StringBuilder line = new StringBuilder(String.format("%-8s %8.1f %10.1f %7d",
+            scenario, result.targetRate, result.throughput(), result.errors));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %9.2f (%9.2f)",
+                millis(result.corrected.getValueAtPercentile(percentile)),
+                millis(result.uncorrected.getValueAtPercentile(percentile))));
+        }
+        line.append(String.format(" %10.2f", millis(result.corrected.getMaxValue())));
+        lines.add(line.toString());
+        System.out.println(line);
+
+        Files.createDirectories(directory);
+        writeDistribution(directory.resolve(scenario + "-" + (long) result.targetRate + ".hgrm"), result.corrected);
+        writeDistribution(directory.resolve(scenario + "-" + (long) result.targetRate + "-uncorrected.hgrm"), result.uncorrected);
+    }
+
+    Path write() throws IOException {
+        Files.createDirectories(directory);
+        Path summary = directory.resolve("summary.txt");
+        Files.write(summary, lines, StandardCharsets.UTF_8);
+        return summary;
+    }
+
+    String header() {
+        return lines.get(0);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0); // ns → ms
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
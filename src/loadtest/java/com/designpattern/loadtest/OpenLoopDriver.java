@@ -0,0 +1,102 @@
+package com.designpattern.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 고정 요청률(open-loop) 부하 생성기
+ *
+ * 요청 i는 시작 시각 + i × 간격에 "보내져야 했던" 것으로 보고,
+ * 응답 지연을 실제 전송 시각이 아닌 이 예정 시각부터 잼
+ * → 서버가 느려져 전송이 밀려도 밀린 시간이 지연에 포함됨 (coordinated omission 보정)
+ * 비교를 위해 실제 전송 시각 기준 지연(보정 전)도 따로 기록
+ */
+class OpenLoopDriver {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    OpenLoopDriver(HttpClient client, Duration requestTimeout) {
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * ratePerSecond로 duration 동안 요청을 보내고, 마지막 요청의 응답(또는 타임아웃)까지 기다림
+     */
+    Result run(double ratePerSecond, Duration duration, Function<Random, HttpRequest.Builder> requests,
+               Predicate<HttpResponse<String>> failed, long seed) {
+        Recorder corrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Random random = new Random(seed);
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long total = (long) (ratePerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[(int) total];
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + i * interval;
+            long delay;
+            while ((delay = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            HttpRequest request = requests.apply(random).timeout(requestTimeout).build();
+            long sent = System.nanoTime();
+            inFlight[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    corrected.recordValue(Math.min(now - intended, HIGHEST_TRACKABLE_NANOS));
+                    uncorrected.recordValue(Math.min(now - sent, HIGHEST_TRACKABLE_NANOS));
+                    if (error != null || response.statusCode() >= 400 || failed.test(response)) {
+                        errors.increment();
+                    }
+                    completed.increment();
+                });
+        }
+        CompletableFuture.allOf(inFlight).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+        return new Result(ratePerSecond, total, completed.sum(), errors.sum(), elapsed,
+            corrected.getIntervalHistogram(), uncorrected.getIntervalHistogram());
+    }
+
+    static class Result {
+        final double targetRate;
+        final long sent;
+        final long completed;
+        final long errors;
+        final long elapsedNanos;
+        final Histogram corrected;
+        final Histogram uncorrected;
+
+        Result(double targetRate, long sent, long completed, long errors, long elapsedNanos,
+               Histogram corrected, Histogram uncorrected) {
+            this.targetRate = targetRate;
+            this.sent = sent;
+            this.completed = completed;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.corrected = corrected;
+            this.uncorrected = uncorrected;
+        }
+
+        // 성공한 응답 기준 처리량 (마지막 응답까지의 시간으로 나눔)
+        double throughput() {
+            return (completed - errors) / (elapsedNanos / 1e9);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.designpattern.flyweight;
 
+import com.designpattern.flyweight.cache.CacheStats;
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.cache.KeyCodec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * 플라이웨이트 팩토리
  * 생성된 플라이웨이트 객체들을 캐싱하여 재사용
@@ -13,28 +15,33 @@ import java.util.Map;
 @Component
 @Slf4j
 public class CharacterFactory {
-    private final Map<Character, CharacterFlyweight> characterCache = new HashMap<>();
+    // 문자 집합은 작으므로 크기 제한 없이 보관 (재사용 여부는 cache.gets 지표로 확인)
+    private final FlyweightCache<Character, CharacterFlyweight> characterCache =
+        new FlyweightCache<>(new FlyweightCacheSpec(), (c, flyweight) -> 32); // Character(16) + ConcreteCharacter(16)
+    
+    public CharacterFactory(FlyweightCacheRegistry registry) {
+        registry.register("character-factory", characterCache, KeyCodec.CHARACTER, CharacterFactory::create);
+    }
     
     public CharacterFlyweight getCharacter(char c) {
-        CharacterFlyweight character = characterCache.get(c);
-        
-        if (character == null) {
-            character = new ConcreteCharacter(c);
-            characterCache.put(c, character);
-            log.info("Created new character flyweight for: '{}'", c);
-        } else {
-            log.info("Reused existing character flyweight for: '{}'", c);
-        }
-        
-        return character;
+        return characterCache.get(c, CharacterFactory::create);
+    }
+    
+    private static CharacterFlyweight create(Character key) {
+        log.info("Created new character flyweight for: '{}'", key);
+        return new ConcreteCharacter(key);
     }
     
     public int getCacheSize() {
         return characterCache.size();
     }
     
+    public CacheStats getStats() {
+        return characterCache.stats();
+    }
+    
     public void clearCache() {
-        characterCache.clear();
+        characterCache.invalidateAll();
         log.info("Character cache cleared");
     }
 }
@@ -1,5 +1,6 @@
 package com.designpattern.flyweight;
 
+import com.designpattern.flyweight.practical.FlyweightConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,11 +15,15 @@ public class DocumentController {
     @Autowired
     private DocumentService documentService;
     
+    @Autowired
+    private FlyweightConfig.WeightManager weightManager;
+    
     @GetMapping
     public String listDocuments(Model model) {
         List<Document> documents = documentService.getAllDocuments();
         model.addAttribute("documents", documents);
         model.addAttribute("cacheSize", documentService.getCharacterCacheSize());
+        model.addAttribute("footprints", weightManager.getFootprints());
         return "documents/list";
     }
     
@@ -42,6 +47,7 @@ public class DocumentController {
         model.addAttribute("document", document);
         model.addAttribute("renderedCharacters", renderedCharacters);
         model.addAttribute("cacheSize", documentService.getCharacterCacheSize());
+        model.addAttribute("footprint", weightManager.getFootprint("character-factory"));
         return "documents/render";
     }
     
@@ -0,0 +1,112 @@
+package com.designpattern.flyweight.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 플라이웨이트 캐시의 키 집합 스냅샷 (재시작 후 미리 채우기용)
+ *
+ * 파일 형식 (DataOutput, big-endian):
+ *   int   MAGIC ("FWSN")
+ *   short VERSION
+ *   int   엔트리 수
+ *   [byte 추정 빈도 0~15][키 (KeyCodec)] × 엔트리 수  ← 빈도 높은 순
+ *
+ * 값은 저장하지 않음: 키만 있으면 팩토리가 같은 플라이웨이트를 다시 만들 수 있음
+ */
+public final class CacheSnapshot<K> {
+    private static final int MAGIC = 0x4657534E;
+    private static final short VERSION = 1;
+    private static final int MAX_ENTRIES = 1 << 24;
+
+    private final List<K> keys;
+    private final byte[] frequencies;
+
+    private CacheSnapshot(List<K> keys, byte[] frequencies) {
+        this.keys = keys;
+        this.frequencies = frequencies;
+    }
+
+    /**
+     * 현재 캐시의 키를 빈도 높은 순으로 정렬해 스냅샷 생성
+     */
+    public static <K> CacheSnapshot<K> capture(FlyweightCache<K, ?> cache) {
+        List<Map.Entry<K, Integer>> entries = new ArrayList<>(cache.frequencies().entrySet());
+        entries.sort(Map.Entry.<K, Integer>comparingByValue(Comparator.reverseOrder()));
+        List<K> keys = new ArrayList<>(entries.size());
+        byte[] frequencies = new byte[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys.add(entries.get(i).getKey());
+            frequencies[i] = entries.get(i).getValue().byteValue();
+        }
+        return new CacheSnapshot<>(keys, frequencies);
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 교체하므로 쓰는 도중 종료되어도 이전 스냅샷은 온전히 남음
+     */
+    public void writeTo(Path file, KeyCodec<K> codec) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    out.writeByte(frequencies[i]);
+                    codec.write(out, keys.get(i));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static <K> CacheSnapshot<K> readFrom(Path file, KeyCodec<K> codec) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("스냅샷 파일이 아닙니다: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("지원하지 않는 스냅샷 버전입니다: " + version);
+            }
+            int count = in.readInt();
+            if (count < 0 || count > MAX_ENTRIES) {
+                throw new IOException("잘못된 엔트리 수: " + count);
+            }
+            List<K> keys = new ArrayList<>(Math.min(count, 1 << 16));
+            byte[] frequencies = new byte[count];
+            for (int i = 0; i < count; i++) {
+                frequencies[i] = in.readByte();
+                keys.add(codec.read(in));
+            }
+            return new CacheSnapshot<>(keys, frequencies);
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public K getKey(int index) {
+        return keys.get(index);
+    }
+
+    public int getFrequency(int index) {
+        return frequencies[index];
+    }
+}
@@ -0,0 +1,72 @@
+package com.designpattern.flyweight.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 캐시 통계 카운터
+ * 조회 경로에서 매번 갱신되므로 스레드별로 분산되는 LongAdder를 사용
+ * (AtomicLong 하나를 모든 스레드가 두드리면 측정 자체가 병목이 됨)
+ */
+public class CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder retainedBytes = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordLoad(long nanos) {
+        loads.increment();
+        totalLoadNanos.add(nanos);
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public void addRetainedBytes(long bytes) {
+        retainedBytes.add(bytes);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long requestCount() {
+        return hitCount() + missCount();
+    }
+
+    public double hitRate() {
+        long requests = requestCount();
+        return (requests == 0) ? 1.0 : (double) hitCount() / requests;
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long totalLoadNanos() {
+        return totalLoadNanos.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // 캐시에 들어있는 엔트리들이 붙잡고 있는 추정 힙 크기
+    public long retainedBytes() {
+        return retainedBytes.sum();
+    }
+}
@@ -0,0 +1,109 @@
+package com.designpattern.flyweight.cache;
+
+import java.util.Objects;
+
+/**
+ * 여러 요소로 이루어진 플라이웨이트 키
+ *
+ * "A-Arial-14-red" 처럼 요소를 문자열로 이어 붙이지 않고
+ * 원시값 요소 2개(char, int 등)와 참조 요소 2개(enum, String 등)를 그대로 보관
+ * - 해시는 생성 시 한 번 섞어서 저장 (String/enum의 hashCode는 이미 캐시되어 있음)
+ * - 조회는 스레드마다 재사용하는 Probe에 요소를 채워서 수행하므로
+ *   캐시 적중 시에는 키 객체를 전혀 만들지 않음
+ */
+public class CompositeKey {
+    private static final ThreadLocal<Probe> PROBES = ThreadLocal.withInitial(Probe::new);
+
+    // Probe만 값을 바꾸며, of()/toKey()로 만든 키는 저장 후 절대 바뀌지 않음
+    long p0;
+    long p1;
+    Object r0;
+    Object r1;
+    int hash;
+
+    CompositeKey() {
+    }
+
+    private CompositeKey(long p0, long p1, Object r0, Object r1, int hash) {
+        this.p0 = p0;
+        this.p1 = p1;
+        this.r0 = r0;
+        this.r1 = r1;
+        this.hash = hash;
+    }
+
+    /**
+     * 저장용 키 생성
+     */
+    public static CompositeKey of(long p0, long p1, Object r0, Object r1) {
+        return new CompositeKey(p0, p1, r0, r1, mix(p0, p1, r0, r1));
+    }
+
+    /**
+     * 현재 스레드의 조회용 키에 요소를 채워서 반환
+     * 반환된 Probe는 다음 probe() 호출 때 덮어써지므로 맵에 저장하면 안 됨 (저장할 때는 toKey())
+     */
+    public static Probe probe(long p0, long p1, Object r0, Object r1) {
+        Probe probe = PROBES.get();
+        probe.p0 = p0;
+        probe.p1 = p1;
+        probe.r0 = r0;
+        probe.r1 = r1;
+        probe.hash = mix(p0, p1, r0, r1);
+        return probe;
+    }
+
+    public long getLong(int index) {
+        return (index == 0) ? p0 : p1;
+    }
+
+    public Object getRef(int index) {
+        return (index == 0) ? r0 : r1;
+    }
+
+    @Override
+    public final int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompositeKey)) {
+            return false;
+        }
+        CompositeKey other = (CompositeKey) o;
+        return hash == other.hash && p0 == other.p0 && p1 == other.p1
+            && Objects.equals(r0, other.r0) && Objects.equals(r1, other.r1);
+    }
+
+    @Override
+    public String toString() {
+        return p0 + "-" + p1 + "-" + r0 + "-" + r1;
+    }
+
+    private static int mix(long p0, long p1, Object r0, Object r1) {
+        long h = p0 * 0x9E3779B97F4A7C15L;
+        h = (h ^ p1) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ Objects.hashCode(r0)) * 0x165667B19E3779F9L;
+        h = (h ^ Objects.hashCode(r1)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * 스레드 로컬 조회용 키
+     */
+    public static final class Probe extends CompositeKey {
+        private Probe() {
+        }
+
+        /**
+         * 캐시 미스 시 저장할 불변 키로 복사
+         */
+        public CompositeKey toKey() {
+            return new CompositeKey(p0, p1, r0, r1, hash);
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package com.designpattern.flyweight.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 크기 제한과 참조 방식을 설정할 수 있는 플라이웨이트 저장소
+ *
+ * 1. maximumSize > 0 이면 W-TinyLFU 정책으로 엔트리 수를 제한
+ *    - Window(전체의 1%, LRU): 새로 들어온 키가 빈도를 쌓을 시간을 줌
+ *    - Main(나머지, Segmented LRU): probation → protected 로 승격
+ *    - Window에서 밀려난 후보는 Main의 희생자보다 자주 쓰였을 때만 승인
+ *      → 한 번 쓰고 마는 스캔성 키가 인기 키를 밀어내지 못함
+ * 2. WEAK/SOFT 모드에서는 아무도 참조하지 않는 플라이웨이트를 GC가 회수
+ *    expireAfterAccess를 설정하면 그 시간 동안 쓰이지 않은 엔트리는 만료
+ * 3. 조회(hit)는 ConcurrentHashMap에서 락 없이 처리하고,
+ *    정책 갱신은 손실 허용 버퍼에 모았다가 tryLock으로 한꺼번에 반영
+ * 4. 적중/미스/생성 시간/제거/추정 유지 바이트를 CacheStats에 기록
+ */
+public final class FlyweightCache<K, V> {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int DRAIN_MASK = 31; // 대략 32번 조회마다 한 번 정책 반영
+    private static final int HIT_SAMPLE_MASK = 15; // 정책이 없는 캐시는 대략 16번 조회마다 한 번 적중 수를 셈
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+    // ConcurrentHashMap.Node(32) + FlyweightCache.Node(40) 대략치
+    private static final long ENTRY_OVERHEAD = 72;
+
+    // Node.queue 값
+    private static final byte NEW = 0;
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+    private static final byte RETIRED = -1;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ValueStrength valueStrength;
+    private final ReferenceQueue<V> referenceQueue;
+    private final boolean policyEnabled;
+    private final boolean bounded;
+    private final long expireAfterAccessNanos;
+    private final long accessTimeTolerance;
+    private final Weigher<? super K, ? super V> weigher;
+    private final CacheStats stats = new CacheStats();
+
+    // ===== 아래 필드들은 evictionLock 안에서만 접근 =====
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedQueue = new AccessOrderDeque<>();
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+    private long windowSize;
+    private long probationSize;
+    private long protectedSize;
+
+    // 조회 기록 버퍼 (덮어써지면 그 기록은 버림)
+    private final AtomicReferenceArray<Node<K, V>> readBuffer;
+
+    public FlyweightCache(FlyweightCacheSpec spec) {
+        this(spec, Weigher.none());
+    }
+
+    public FlyweightCache(FlyweightCacheSpec spec, Weigher<? super K, ? super V> weigher) {
+        this.weigher = weigher;
+        this.valueStrength = spec.getValueStrength();
+        this.referenceQueue = (valueStrength == ValueStrength.STRONG) ? null : new ReferenceQueue<>();
+        this.bounded = spec.isBounded();
+        this.expireAfterAccessNanos = spec.isExpiring() ? spec.getExpireAfterAccess().toNanos() : 0;
+        // 접근 시각은 이 간격보다 오래됐을 때만 갱신 (인기 키에 대한 매 조회 쓰기를 피함)
+        this.accessTimeTolerance = Math.min(TimeUnit.SECONDS.toNanos(1), expireAfterAccessNanos / 10);
+        this.policyEnabled = bounded || expireAfterAccessNanos > 0;
+
+        // 크기 제한 없이 만료만 쓰는 경우에는 모든 엔트리를 Window 하나에 접근 순서로 보관
+        long maximumSize = spec.getMaximumSize();
+        this.windowMaximum = bounded ? Math.max(1, (long) (maximumSize * WINDOW_RATIO)) : Long.MAX_VALUE;
+        this.mainMaximum = bounded ? maximumSize - windowMaximum : 0;
+        this.protectedMaximum = (long) (mainMaximum * PROTECTED_RATIO);
+        this.sketch = policyEnabled ? new FrequencySketch(bounded ? maximumSize : 1024) : null;
+        this.readBuffer = policyEnabled ? new AtomicReferenceArray<>(READ_BUFFER_SIZE) : null;
+    }
+
+    /**
+     * 캐시된 값을 반환 (없거나 GC로 회수되었으면 null)
+     */
+    public V getIfPresent(Object key) {
+        Node<K, V> node = data.get(key);
+        V value = (node == null) ? null : node.getValue();
+        if (value != null && expireAfterAccessNanos > 0 && !touch(node)) {
+            value = null;
+        }
+        if (value == null) {
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        afterRead(node);
+        return value;
+    }
+
+    /**
+     * 캐시된 값을 반환하고, 없으면 loader로 생성해서 저장
+     * 같은 키에 대한 동시 생성은 ConcurrentHashMap.compute로 한 번만 일어남
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        return (value != null) ? value : load(key, loader);
+    }
+
+    /**
+     * 조회용 임시 키(CompositeKey.Probe 등)로 찾고, 없을 때만 keyFactory로 저장용 키를 만들어 생성
+     * 적중 시 키 객체를 만들지 않으려면 keyFactory/loader 모두 아무것도 캡처하지 않는 람다여야 함
+     */
+    public <P> V get(P probe, Function<? super P, ? extends K> keyFactory, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(probe);
+        return (value != null) ? value : load(keyFactory.apply(probe), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V load(K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            // WEAK/SOFT 모드에서는 맵에 약한 참조만 남으므로 호출자에게 돌려줄 때까지 강하게 잡아둠
+            Object[] created = new Object[2]; // [0] 새 값, [1] 회수되어 교체된 노드
+            Node<K, V> node = data.compute(key, (k, existing) -> {
+                if (existing != null && existing.getValue() != null && !hasExpired(existing, System.nanoTime())) {
+                    return existing;
+                }
+                long start = System.nanoTime();
+                V value = loader.apply(k);
+                stats.recordLoad(System.nanoTime() - start);
+                if (value == null) {
+                    return existing;
+                }
+                if (existing != null) {
+                    // GC로 회수되었거나 만료된 엔트리를 새 값으로 교체
+                    stats.recordEviction();
+                    stats.addRetainedBytes(-existing.weight);
+                }
+                created[0] = value;
+                created[1] = existing;
+                return newNode(k, value);
+            });
+            if (created[0] != null) {
+                afterWrite(node, (Node<K, V>) created[1]);
+                return (V) created[0];
+            }
+            if (node == null) {
+                return null;
+            }
+            V value = node.getValue();
+            if (value != null) {
+                afterRead(node);
+                return value;
+            }
+            // compute 직후 GC가 값을 회수한 드문 경우: 다시 생성
+        }
+    }
+
+    /**
+     * 스냅샷에서 읽은 키를 미리 채움 (적중/미스/생성 통계를 남기지 않음)
+     * 살아 있는 엔트리가 이미 있으면 그대로 두고, loader가 null을 돌려주면 저장하지 않음
+     */
+    @SuppressWarnings("unchecked")
+    public void preload(K key, Function<? super K, ? extends V> loader) {
+        Object[] created = new Object[2]; // [0] 새 값 (WEAK/SOFT에서 afterWrite까지 붙잡아 둠), [1] 교체된 노드
+        Node<K, V> node = data.compute(key, (k, existing) -> {
+            if (existing != null && existing.getValue() != null && !hasExpired(existing, System.nanoTime())) {
+                return existing;
+            }
+            V value = loader.apply(k);
+            if (value == null) {
+                return existing;
+            }
+            if (existing != null) {
+                stats.recordEviction();
+                stats.addRetainedBytes(-existing.weight);
+            }
+            created[0] = value;
+            created[1] = existing;
+            return newNode(k, value);
+        });
+        if (created[0] != null) {
+            afterWrite(node, (Node<K, V>) created[1]);
+        }
+    }
+
+    /**
+     * 값을 직접 저장 (같은 키의 기존 값은 교체)
+     */
+    public void put(K key, V value) {
+        Node<K, V> added = newNode(key, value);
+        Node<K, V> replaced = data.put(key, added);
+        if (replaced != null) {
+            stats.addRetainedBytes(-replaced.weight);
+        }
+        afterWrite(added, replaced);
+    }
+
+    private Node<K, V> newNode(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, valueStrength, referenceQueue);
+        node.weight = ENTRY_OVERHEAD + weigher.weigh(key, value);
+        if (expireAfterAccessNanos > 0) {
+            node.accessTime = System.nanoTime();
+        }
+        stats.addRetainedBytes(node.weight);
+        return node;
+    }
+
+    public void invalidate(Object key) {
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return;
+        }
+        stats.addRetainedBytes(-node.weight);
+        if (needsMaintenance()) {
+            evictionLock.lock();
+            try {
+                retire(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                if (data.remove(node.key, node)) {
+                    stats.addRetainedBytes(-node.weight);
+                }
+            }
+            if (policyEnabled) {
+                retireAll(window);
+                retireAll(probation);
+                retireAll(protectedQueue);
+                windowSize = probationSize = protectedSize = 0;
+                for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                    readBuffer.lazySet(i, null);
+                }
+            }
+            drainReferenceQueue();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * GC로 회수된 엔트리 정리와 밀린 정책 갱신을 즉시 수행
+     */
+    public void cleanUp() {
+        if (!needsMaintenance()) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 현재 엔트리 수 (GC로 회수되었지만 아직 정리되지 않은 엔트리 포함)
+     */
+    public int size() {
+        return data.size();
+    }
+
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(data.keySet());
+    }
+
+    /**
+     * 키별 추정 접근 빈도 (0 ~ 15, 스냅샷 저장용)
+     * 정책이 켜진 캐시(크기 제한 또는 만료 설정)는 FrequencySketch 값,
+     * 그 외에는 표본으로 센 적중 수를 로그 눈금으로 줄인 값 (1 → 1, 2~3 → 2, 4~7 → 3 ...)
+     */
+    public Map<K, Integer> frequencies() {
+        Map<K, Integer> frequencies = new HashMap<>();
+        if (!policyEnabled) {
+            data.forEach((key, node) ->
+                frequencies.put(key, Math.min(15, 32 - Integer.numberOfLeadingZeros(node.sampledHits))));
+            return frequencies;
+        }
+        evictionLock.lock();
+        try {
+            data.keySet().forEach(key -> frequencies.put(key, sketch.frequency(key)));
+        } finally {
+            evictionLock.unlock();
+        }
+        return frequencies;
+    }
+
+    /**
+     * 크기 추정용 표본: 살아 있는 엔트리를 최대 limit개 (통계와 정책에는 영향 없음)
+     */
+    public Map<K, V> sample(int limit) {
+        Map<K, V> sample = new HashMap<>();
+        for (Node<K, V> node : data.values()) {
+            if (sample.size() >= limit) {
+                break;
+            }
+            V value = node.getValue();
+            if (value != null) {
+                sample.put(node.key, value);
+            }
+        }
+        return sample;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public ValueStrength getValueStrength() {
+        return valueStrength;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
+    // ===== 정책 유지 =====
+
+    private boolean needsMaintenance() {
+        return policyEnabled || referenceQueue != null;
+    }
+
+    /**
+     * 만료되지 않았으면 접근 시각을 갱신하고 true
+     */
+    private boolean touch(Node<K, V> node) {
+        long now = System.nanoTime();
+        long elapsed = now - node.accessTime;
+        if (elapsed >= expireAfterAccessNanos) {
+            return false;
+        }
+        if (elapsed > accessTimeTolerance) {
+            node.accessTime = now;
+        }
+        return true;
+    }
+
+    private boolean hasExpired(Node<K, V> node, long now) {
+        return expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos;
+    }
+
+    private void afterRead(Node<K, V> node) {
+        int random = ThreadLocalRandom.current().nextInt();
+        if (!policyEnabled) {
+            // 스케치가 없으므로 스냅샷 순서를 위해 노드에 직접 셈 (표본 추출 + 경쟁 시 유실 허용)
+            if ((random & HIT_SAMPLE_MASK) == 0 && node.sampledHits < Integer.MAX_VALUE) {
+                node.sampledHits++;
+            }
+            return;
+        }
+        readBuffer.lazySet(random & READ_BUFFER_MASK, node);
+        if ((random >>> 16 & DRAIN_MASK) == 0 && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node<K, V> node, Node<K, V> replaced) {
+        if (!needsMaintenance()) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            if (replaced != null) {
+                retire(replaced);
+            }
+            maintenance();
+            // 그 사이 invalidate 되었다면 정책에 넣지 않음
+            if (policyEnabled && node.queue == NEW && data.get(node.key) == node) {
+                sketch.increment(node.key);
+                node.queue = WINDOW;
+                window.addLast(node);
+                windowSize++;
+                evictFromWindow();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void maintenance() {
+        drainReferenceQueue();
+        if (policyEnabled) {
+            drainReadBuffer();
+            expireEntries();
+        }
+    }
+
+    // 각 영역의 앞쪽(가장 오래 접근하지 않은 쪽)부터 만료된 엔트리 제거
+    private void expireEntries() {
+        if (expireAfterAccessNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (AccessOrderDeque<K, V> deque : List.of(window, probation, protectedQueue)) {
+            Node<K, V> node;
+            while ((node = deque.peekFirst()) != null && hasExpired(node, now)) {
+                evict(node);
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            Node<K, V> node = readBuffer.get(i);
+            if (node != null && readBuffer.compareAndSet(i, node, null)) {
+                onAccess(node);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainReferenceQueue() {
+        if (referenceQueue == null) {
+            return;
+        }
+        Reference<? extends V> ref;
+        while ((ref = referenceQueue.poll()) != null) {
+            Node<K, V> node = ((ValueReference<K, V>) ref).node();
+            if (data.remove(node.key, node)) {
+                stats.recordEviction();
+                stats.addRetainedBytes(-node.weight);
+            }
+            retire(node);
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> {
+                sketch.increment(node.key);
+                window.moveToBack(node);
+            }
+            case PROBATION -> {
+                sketch.increment(node.key);
+                // 두 번째 접근: protected 영역으로 승격
+                probation.remove(node);
+                probationSize--;
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                protectedSize++;
+                demoteFromProtected();
+            }
+            case PROTECTED -> {
+                sketch.increment(node.key);
+                protectedQueue.moveToBack(node);
+            }
+            default -> {
+                // 아직 정책에 들어가지 않았거나 이미 제거된 노드
+            }
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedSize > protectedMaximum) {
+            Node<K, V> demoted = protectedQueue.pollFirst();
+            protectedSize--;
+            demoted.queue = PROBATION;
+            probation.addLast(demoted);
+            probationSize++;
+        }
+    }
+
+    /**
+     * Window에서 밀려난 후보를 Main에 넣을지 TinyLFU로 결정
+     */
+    private void evictFromWindow() {
+        while (windowSize > windowMaximum) {
+            Node<K, V> candidate = window.pollFirst();
+            windowSize--;
+
+            if (probationSize + protectedSize < mainMaximum) {
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                probationSize++;
+                continue;
+            }
+
+            Node<K, V> victim = (probation.peekFirst() != null) ? probation.peekFirst() : protectedQueue.peekFirst();
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                probationSize++;
+            } else {
+                // 동률이면 기존 엔트리를 유지 (스캔 저항성)
+                candidate.queue = RETIRED;
+                removeEvicted(candidate);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        node.queue = RETIRED;
+        removeEvicted(node);
+    }
+
+    private void removeEvicted(Node<K, V> node) {
+        if (data.remove(node.key, node)) {
+            stats.recordEviction();
+            stats.addRetainedBytes(-node.weight);
+        }
+    }
+
+    private void retire(Node<K, V> node) {
+        if (policyEnabled) {
+            unlink(node);
+        }
+        node.queue = RETIRED;
+    }
+
+    private void retireAll(AccessOrderDeque<K, V> deque) {
+        Node<K, V> node;
+        while ((node = deque.pollFirst()) != null) {
+            node.queue = RETIRED;
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> {
+                window.remove(node);
+                windowSize--;
+            }
+            case PROBATION -> {
+                probation.remove(node);
+                probationSize--;
+            }
+            case PROTECTED -> {
+                protectedQueue.remove(node);
+                protectedSize--;
+            }
+            default -> {
+                // 정책에 연결되지 않은 노드
+            }
+        }
+    }
+
+    // ===== 내부 자료구조 =====
+
+    static final class Node<K, V> {
+        final K key;
+        private final Object value; // STRONG이면 V, 아니면 ValueReference
+
+        // evictionLock으로 보호
+        Node<K, V> prev;
+        Node<K, V> next;
+        byte queue = NEW;
+
+        // 생성 시 한 번 계산한 추정 바이트 (제거될 때 같은 값을 빼기 위해 보관)
+        long weight;
+
+        // expireAfterAccess 사용 시 마지막 접근 시각 (System.nanoTime)
+        volatile long accessTime;
+
+        // 정책이 없는 캐시에서만 사용: 표본으로 센 적중 수 (동기화 없이 갱신, 대략치)
+        int sampledHits;
+
+        Node(K key, V value, ValueStrength strength, ReferenceQueue<V> queue) {
+            this.key = key;
+            this.value = switch (strength) {
+                case STRONG -> value;
+                case WEAK -> new WeakValueReference<>(this, value, queue);
+                case SOFT -> new SoftValueReference<>(this, value, queue);
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        V getValue() {
+            return (value instanceof ValueReference) ? ((Reference<V>) value).get() : (V) value;
+        }
+    }
+
+    interface ValueReference<K, V> {
+        Node<K, V> node();
+    }
+
+    static final class WeakValueReference<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+        private final Node<K, V> node;
+
+        WeakValueReference(Node<K, V> node, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.node = node;
+        }
+
+        @Override
+        public Node<K, V> node() {
+            return node;
+        }
+    }
+
+    static final class SoftValueReference<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+        private final Node<K, V> node;
+
+        SoftValueReference(Node<K, V> node, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.node = node;
+        }
+
+        @Override
+        public Node<K, V> node() {
+            return node;
+        }
+    }
+
+    /**
+     * 노드에 prev/next를 직접 두는 이중 연결 리스트 (접근 순서 = 앞이 가장 오래됨)
+     */
+    static final class AccessOrderDeque<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+    }
+}
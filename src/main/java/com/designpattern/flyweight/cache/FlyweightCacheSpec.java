@@ -0,0 +1,40 @@
+package com.designpattern.flyweight.cache;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 플라이웨이트 저장소 정책 설정
+ * application.yml에서 바로 바인딩할 수 있도록 기본값을 가진 단순 객체로 둠
+ */
+@Data
+public class FlyweightCacheSpec {
+    // 최대 엔트리 수 (0 이하이면 무제한)
+    private long maximumSize = 0;
+
+    // 값 참조 방식
+    private ValueStrength valueStrength = ValueStrength.STRONG;
+
+    // 마지막 접근 후 이 시간이 지나면 만료 (null이면 만료 없음)
+    private Duration expireAfterAccess;
+
+    /**
+     * 같은 정책에 최대 엔트리 수만 바꾼 사본 (설정 하나를 여러 저장소가 나눠 쓸 때)
+     */
+    public FlyweightCacheSpec withMaximumSize(long maximumSize) {
+        FlyweightCacheSpec copy = new FlyweightCacheSpec();
+        copy.setMaximumSize(maximumSize);
+        copy.setValueStrength(valueStrength);
+        copy.setExpireAfterAccess(expireAfterAccess);
+        return copy;
+    }
+
+    public boolean isBounded() {
+        return maximumSize > 0;
+    }
+
+    public boolean isExpiring() {
+        return expireAfterAccess != null && !expireAfterAccess.isZero() && !expireAfterAccess.isNegative();
+    }
+}
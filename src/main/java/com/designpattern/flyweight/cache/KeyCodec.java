@@ -0,0 +1,74 @@
+package com.designpattern.flyweight.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 스냅샷 파일에 키를 쓰고 읽는 방법
+ */
+public interface KeyCodec<K> {
+
+    void write(DataOutput out, K key) throws IOException;
+
+    K read(DataInput in) throws IOException;
+
+    KeyCodec<String> STRING = new KeyCodec<>() {
+        @Override
+        public void write(DataOutput out, String key) throws IOException {
+            out.writeUTF(key);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    KeyCodec<Character> CHARACTER = new KeyCodec<>() {
+        @Override
+        public void write(DataOutput out, Character key) throws IOException {
+            out.writeChar(key);
+        }
+
+        @Override
+        public Character read(DataInput in) throws IOException {
+            return in.readChar();
+        }
+    };
+
+    /**
+     * 참조 요소가 String 또는 null인 CompositeKey (폰트, 색상 등)
+     */
+    KeyCodec<CompositeKey> COMPOSITE = new KeyCodec<>() {
+        @Override
+        public void write(DataOutput out, CompositeKey key) throws IOException {
+            out.writeLong(key.getLong(0));
+            out.writeLong(key.getLong(1));
+            writeRef(out, key.getRef(0));
+            writeRef(out, key.getRef(1));
+        }
+
+        @Override
+        public CompositeKey read(DataInput in) throws IOException {
+            long p0 = in.readLong();
+            long p1 = in.readLong();
+            return CompositeKey.of(p0, p1, readRef(in), readRef(in));
+        }
+
+        private void writeRef(DataOutput out, Object ref) throws IOException {
+            if (ref == null) {
+                out.writeBoolean(false);
+            } else if (ref instanceof String value) {
+                out.writeBoolean(true);
+                out.writeUTF(value);
+            } else {
+                throw new IllegalArgumentException("String이 아닌 참조 요소는 저장할 수 없습니다: " + ref.getClass());
+            }
+        }
+
+        private String readRef(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    };
+}
@@ -0,0 +1,10 @@
+package com.designpattern.flyweight.cache;
+
+/**
+ * 캐시가 플라이웨이트 값을 참조하는 방식
+ */
+public enum ValueStrength {
+    STRONG, // 일반 참조: 제거되기 전까지 계속 유지
+    WEAK,   // 약한 참조: 아무도 사용하지 않으면 다음 GC에서 회수
+    SOFT    // 소프트 참조: 메모리가 부족해질 때 회수
+}
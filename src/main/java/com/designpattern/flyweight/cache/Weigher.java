@@ -0,0 +1,14 @@
+package com.designpattern.flyweight.cache;
+
+/**
+ * 엔트리 하나가 힙에 유지하는 키/값의 대략적인 바이트 수 추정
+ * (맵 노드 자체의 오버헤드는 FlyweightCache가 별도로 더함)
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+    long weigh(K key, V value);
+
+    static <K, V> Weigher<K, V> none() {
+        return (key, value) -> 0;
+    }
+}
@@ -0,0 +1,164 @@
+package com.designpattern.flyweight.corpus;
+
+import com.designpattern.flyweight.Document;
+import com.designpattern.flyweight.DocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 벤치마크/부하 테스트용 다국어 합성 문서 생성기
+ *
+ * - 문서는 여러 구간(run)으로 이루어지고, 구간마다 scriptMix 비중으로 문자 체계를 고름
+ * - 구간 안의 문자는 체계별 알파벳 순위에 Zipf 분포를 적용해 뽑음
+ *   → 실제 텍스트처럼 소수 문자가 대부분을 차지하고 긴 꼬리가 있음 (캐시 키 분포 재현)
+ * - 문서 i는 (seed, i)만으로 결정되므로 순서와 관계없이 재현 가능
+ */
+@Slf4j
+public class CorpusGenerator {
+    private static final int MEAN_RUN_LENGTH = 40;
+    private static final int BATCH_SIZE = 500;
+
+    private final CorpusSpec spec;
+    private final Map<Script, ZipfAlphabet> alphabets = new EnumMap<>(Script.class);
+    private final Script[] scripts;
+    private final double[] scriptCumulative;
+
+    public CorpusGenerator(CorpusSpec spec) {
+        this.spec = spec;
+        List<Script> selected = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        spec.getScriptMix().forEach((script, weight) -> {
+            if (weight > 0) {
+                selected.add(script);
+                weights.add(weight);
+                alphabets.put(script, new ZipfAlphabet(script.alphabet(spec.getSeed()), spec.getZipfExponent()));
+            }
+        });
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("scriptMix에 비중이 0보다 큰 문자 체계가 없습니다");
+        }
+        this.scripts = selected.toArray(new Script[0]);
+        this.scriptCumulative = new double[scripts.length];
+        double sum = 0;
+        for (int i = 0; i < scripts.length; i++) {
+            sum += weights.get(i);
+            scriptCumulative[i] = sum;
+        }
+    }
+
+    /**
+     * i번째 문서 본문
+     */
+    public String content(int index) {
+        Random random = new Random(mix(spec.getSeed() + mix(index)));
+        int length = sampleLength(random);
+        StringBuilder content = new StringBuilder(length + 2);
+        while (content.length() < length) {
+            Script script = pickScript(random);
+            ZipfAlphabet alphabet = alphabets.get(script);
+            int runEnd = Math.min(length, content.length() + 1 + geometric(random, MEAN_RUN_LENGTH));
+            int wordLeft = geometric(random, 5);
+            while (content.length() < runEnd) {
+                if (script.isSpaced() && wordLeft-- == 0) {
+                    content.append(' ');
+                    wordLeft = geometric(random, 5);
+                    continue;
+                }
+                content.appendCodePoint(alphabet.sample(random));
+            }
+            if (script.isSpaced() && content.length() < length) {
+                content.append(' ');
+            }
+        }
+        // 정확히 length자로 맞춤. 서로게이트 쌍 가운데서 잘리면 앞쪽 반을 버리고 공백(BMP 문자 하나)으로 채움
+        if (content.length() > length) {
+            if (Character.isLowSurrogate(content.charAt(length))) {
+                content.setLength(length - 1);
+                content.append(' ');
+            } else {
+                content.setLength(length);
+            }
+        }
+        return content.toString();
+    }
+
+    public Document document(int index) {
+        Document document = new Document();
+        document.setTitle("corpus-" + spec.getSeed() + "-" + index);
+        document.setContent(content(index));
+        return document;
+    }
+
+    /**
+     * spec.documents개 문서를 BATCH_SIZE씩 saveAll로 저장하고 id 목록 반환
+     */
+    public List<Long> loadInto(DocumentRepository repository) {
+        List<Long> ids = new ArrayList<>(spec.getDocuments());
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < spec.getDocuments(); i++) {
+            batch.add(document(i));
+            if (batch.size() == BATCH_SIZE || i == spec.getDocuments() - 1) {
+                repository.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch.clear();
+            }
+        }
+        log.info("📚 코퍼스 적재 완료: {}개 문서 (seed: {})", ids.size(), spec.getSeed());
+        return ids;
+    }
+
+    private int sampleLength(Random random) {
+        double length = spec.getMedianLength() * Math.exp(spec.getLengthSigma() * random.nextGaussian());
+        return (int) Math.max(spec.getMinLength(), Math.min(spec.getMaxLength(), Math.round(length)));
+    }
+
+    private Script pickScript(Random random) {
+        double target = random.nextDouble() * scriptCumulative[scriptCumulative.length - 1];
+        for (int i = 0; i < scripts.length; i++) {
+            if (target < scriptCumulative[i]) {
+                return scripts[i];
+            }
+        }
+        return scripts[scripts.length - 1];
+    }
+
+    // 가까운 seed로 만든 Random은 첫 값들이 비슷하므로 문서 번호를 섞어서 씀 (MurmurHash3 fmix64)
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    // 평균 mean인 기하 분포 (1 이상)
+    private static int geometric(Random random, int mean) {
+        return 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1.0 / mean));
+    }
+
+    /**
+     * 순위별 누적 확률 1/rank^s 로 코드 포인트를 뽑는 표
+     */
+    static final class ZipfAlphabet {
+        private final int[] codePoints;
+        private final double[] cumulative;
+
+        ZipfAlphabet(int[] codePoints, double exponent) {
+            this.codePoints = codePoints;
+            this.cumulative = new double[codePoints.length];
+            double sum = 0;
+            for (int rank = 0; rank < codePoints.length; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            return codePoints[(index < 0) ? -index - 1 : index];
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.designpattern.flyweight.corpus;
+
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 합성 코퍼스 설정
+ * 같은 설정(특히 seed)이면 항상 같은 문서들이 만들어짐
+ */
+@Data
+public class CorpusSpec {
+    private long seed = 42;
+
+    private int documents = 100;
+
+    // 문서 길이(char 수)는 중앙값 medianLength의 로그정규 분포를 [minLength, maxLength]로 자름
+    private int minLength = 100;
+    private int medianLength = 1_000;
+    private int maxLength = 10_000; // Document.content 컬럼 길이
+    private double lengthSigma = 0.8;
+
+    // 문자 빈도의 Zipf 지수 (클수록 소수 문자에 집중)
+    private double zipfExponent = 1.0;
+
+    // 문자 체계별 비중 (구간 단위로 선택)
+    private Map<Script, Double> scriptMix = defaultMix();
+
+    private static Map<Script, Double> defaultMix() {
+        Map<Script, Double> mix = new EnumMap<>(Script.class);
+        mix.put(Script.ASCII, 0.55);
+        mix.put(Script.HANGUL, 0.30);
+        mix.put(Script.CJK, 0.10);
+        mix.put(Script.EMOJI, 0.05);
+        return mix;
+    }
+
+    /**
+     * 모든 문서를 정확히 length 글자로 (벤치마크에서 크기별 측정용)
+     */
+    public CorpusSpec fixedLength(int length) {
+        this.minLength = length;
+        this.medianLength = length;
+        this.maxLength = length;
+        return this;
+    }
+}
@@ -0,0 +1,59 @@
+package com.designpattern.flyweight.corpus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 코퍼스에 섞을 문자 체계
+ * 각 체계의 알파벳은 자주 쓰이는 문자부터 순위대로 정렬되어 있고
+ * CorpusGenerator가 이 순위에 Zipf 분포를 적용해 문자를 뽑음
+ */
+public enum Script {
+    // 영어 문자 빈도 순 + 대문자 + 숫자/문장부호
+    ASCII(true, "etaoinshrdlcumwfgypbvkjxqzETAOINSHRDLCUMWFGYPBVKJXQZ0123456789.,'\"!?;:-()", 0, 0),
+    // 자주 쓰이는 음절 다음에 나머지 완성형 음절 11,172자
+    HANGUL(true, "이다는에의하가고지서을를로기도어사한리아나자그수시대해있인요것정게니주", 0xAC00, 0xD7A3),
+    // 자주 쓰이는 한자 다음에 CJK 통합 한자 나머지
+    CJK(false, "的一是不了人我在有他这中大来上国个到说们为子和你地出道也时年得就那要下以生会自着去之过家学对可", 0x4E00, 0x9FFF),
+    // 보조 평면 문자 (Java 문자열에서는 서로게이트 쌍 2개 char)
+    EMOJI(true, "😀😂❤👍🙏😊🔥🎉✨😍", 0x1F600, 0x1F64F);
+
+    private final boolean spaced;
+    private final String common;
+    private final int rangeStart;
+    private final int rangeEnd;
+
+    Script(boolean spaced, String common, int rangeStart, int rangeEnd) {
+        this.spaced = spaced;
+        this.common = common;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    // 단어 사이를 공백으로 구분하는지 (CJK는 붙여 씀)
+    public boolean isSpaced() {
+        return spaced;
+    }
+
+    /**
+     * 순위 순서의 코드 포인트 목록
+     * 자주 쓰이는 문자 뒤의 나머지는 seed로 섞어서 코드 포인트 순서가 빈도에 드러나지 않게 함
+     */
+    int[] alphabet(long seed) {
+        Set<Integer> ordered = new LinkedHashSet<>();
+        common.codePoints().forEach(ordered::add);
+        List<Integer> rest = new ArrayList<>();
+        for (int cp = rangeStart; rangeEnd > 0 && cp <= rangeEnd; cp++) {
+            if (!ordered.contains(cp)) {
+                rest.add(cp);
+            }
+        }
+        Collections.shuffle(rest, new Random(seed ^ ordinal()));
+        ordered.addAll(rest);
+        return ordered.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
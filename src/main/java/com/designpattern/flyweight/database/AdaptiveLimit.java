@@ -0,0 +1,138 @@
+package com.designpattern.flyweight.database;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 관찰한 지연에 따라 동시 실행 수를 조절하는 제한기 (AIMD)
+ *
+ * - 끝난 쿼리가 목표 지연 안에 성공했고 제한을 절반 이상 쓰고 있었으면 제한을 1/limit만큼 늘림
+ *   (제한만큼 끝날 때마다 대략 1씩 = 덧셈 증가)
+ * - 목표 지연을 넘겼거나 실패했으면 제한을 backoff 비율로 줄임 (곱셈 감소)
+ * - 제한은 [1, maxLimit] 안에서만 움직임. maxLimit은 벌크헤드 몫
+ *
+ * 제한을 넘는 요청은 queueSize까지 먼저 온 순서로 기다리고, 그 이상이거나 maxWait 안에 자리가 나지 않으면
+ * 풀에 닿기 전에 거절(shed)
+ */
+final class AdaptiveLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final int queueSize;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    // ===== 아래 필드들은 lock 안에서만 변경 =====
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int queued;
+
+    AdaptiveLimit(String name, int maxLimit, long targetNanos, int queueSize) {
+        this.name = name;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.targetNanos = targetNanos;
+        this.queueSize = queueSize;
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * 자리를 얻으면 true. 대기열이 가득 찼거나 maxWaitNanos 안에 자리가 나지 않으면 false
+     */
+    boolean acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            // 기다리는 요청이 있으면 새로 온 요청이 앞지르지 않음
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                accepted.increment();
+                return true;
+            }
+            if (queued >= queueSize) {
+                rejected.increment();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                accepted.increment();
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long latencyNanos, boolean success) {
+        latency.record(latencyNanos);
+        lock.lock();
+        try {
+            int wasInFlight = inFlight;
+            inFlight = wasInFlight - 1;
+            if (!success || latencyNanos > targetNanos) {
+                limit = Math.max(1.0, limit * BACKOFF_RATIO);
+            } else if (wasInFlight * 2 >= limit) {
+                // 제한을 다 쓰지 않는 동안에는 늘리지 않음 (부하가 없을 때 제한이 끝없이 부풀지 않게)
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            if (inFlight < (int) limit) {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getLimit() {
+        return limit;
+    }
+
+    int getMaxLimit() {
+        return maxLimit;
+    }
+
+    int getInFlight() {
+        return inFlight;
+    }
+
+    int getQueued() {
+        return queued;
+    }
+
+    long acceptedCount() {
+        return accepted.sum();
+    }
+
+    long rejectedCount() {
+        return rejected.sum();
+    }
+
+    LatencyHistogram latencyHistogram() {
+        return latency;
+    }
+
+    String summary() {
+        return String.format("%s %.1f/%d (실행 %d, 대기 %d, 거절 %d, 목표 %dms)",
+            name, limit, maxLimit, inFlight, queued, rejectedCount(), TimeUnit.NANOSECONDS.toMillis(targetNanos));
+    }
+}
@@ -0,0 +1,249 @@
+package com.designpattern.flyweight.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_IN_USE;
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_NOT_IN_USE;
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_RESERVED;
+
+/**
+ * 락 없이 연결을 빌리고 돌려받는 가방 (concurrent bag)
+ *
+ * 빌리기 순서
+ * 1. 이 스레드가 최근에 반납한 연결 목록 (다른 스레드와 경쟁이 거의 없음)
+ * 2. 공유 목록을 훑으며 STATE_NOT_IN_USE → STATE_IN_USE CAS
+ * 3. 대기 시간이 있으면 handoff 큐에서 다른 스레드가 반납하는 연결을 직접 넘겨받음
+ *
+ * 반납되는 연결은 항상 먼저 STATE_NOT_IN_USE로 풀어 둔 뒤, 대기자가 보이면
+ * STATE_NOT_IN_USE → STATE_RESERVED CAS로 묶어 공정(FIFO) SynchronousQueue로
+ * 가장 오래 기다린 스레드에게 넘김. 묶는 CAS에 실패했으면 훑던 스레드가 이미 가져간 것
+ * 대기자 수에는 아직 poll에 들어가지 않은 스레드도 섞여 있으므로 반납하는 쪽은 잠깐만 양보하며 넘겨 보고,
+ * 받는 스레드가 없으면 다시 풀어 두고 돌아감 (반납 경로가 바쁘게 돌지 않음)
+ * 대신 기다리는 스레드는 HANDOFF_RECHECK_NANOS마다 깨어 공유 목록을 다시 훑으므로,
+ * 그렇게 풀어 둔 연결을 놓친 채 대기 시간을 다 쓰는 일(lost wakeup)은 없음
+ *
+ * 연결의 소유권은 상태 CAS 하나로만 결정되므로 스레드 목록에 남은 연결을
+ * 다른 스레드가 공유 목록에서 가져가도 안전함 (CAS에 실패한 쪽이 건너뜀)
+ */
+final class ConnectionBag {
+    // 스레드별 목록이 한없이 커지지 않도록 제한
+    private static final int MAX_THREAD_LOCAL = 16;
+    // 반납하는 스레드가 넘겨받을 대기자를 기다리며 양보하는 최대 횟수
+    private static final int HANDOFF_SPINS = 64;
+    // 기다리는 스레드가 공유 목록을 다시 훑는 주기
+    private static final long HANDOFF_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final CopyOnWriteArrayList<DatabaseConnection> shared = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<DatabaseConnection, Entry> members = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<DatabaseConnection>> recent = ThreadLocal.withInitial(() -> new ArrayList<>(MAX_THREAD_LOCAL));
+    private final SynchronousQueue<DatabaseConnection> handoff = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+    // 빌릴 연결이 없을 때 호출 (인자: 기다리는 스레드 수). 풀이 백그라운드에서 연결을 늘림
+    private final IntConsumer onShortage;
+
+    ConnectionBag(IntConsumer onShortage) {
+        this.onShortage = onShortage;
+    }
+
+    /**
+     * 풀이 관리하는 연결별 수명 정보
+     */
+    static final class Entry {
+        private final long createdNanos = System.nanoTime();
+        private volatile long lastReturnedNanos = createdNanos;
+        // 사용 중에 수명이 다한 연결: 반납될 때 닫음
+        private volatile boolean evicted;
+        private volatile ScheduledFuture<?> retirement;
+        private final LeakDetector.Lease lease = new LeakDetector.Lease();
+
+        long getCreatedNanos() {
+            return createdNanos;
+        }
+
+        long getLastReturnedNanos() {
+            return lastReturnedNanos;
+        }
+
+        boolean isEvicted() {
+            return evicted;
+        }
+
+        void markEvicted() {
+            evicted = true;
+        }
+
+        void setRetirement(ScheduledFuture<?> retirement) {
+            this.retirement = retirement;
+        }
+
+        LeakDetector.Lease getLease() {
+            return lease;
+        }
+    }
+
+    /**
+     * 새 연결(STATE_NOT_IN_USE)을 넣음. 기다리는 스레드가 있으면 그 스레드에게 바로 넘김
+     */
+    Entry add(DatabaseConnection connection) {
+        Entry entry = new Entry();
+        members.put(connection, entry);
+        shared.add(connection);
+        offerToWaiters(connection);
+        return entry;
+    }
+
+    /**
+     * 가방에서 뺌. 호출하는 쪽이 먼저 상태를 STATE_REMOVED로 선점해야 함
+     * (스레드 목록에 남아 있어도 CAS가 실패하므로 다시 빌려지지 않음)
+     */
+    void remove(DatabaseConnection connection) {
+        Entry entry = members.remove(connection);
+        shared.remove(connection);
+        if (entry != null && entry.retirement != null) {
+            entry.retirement.cancel(false);
+        }
+    }
+
+    /**
+     * 연결을 선점해서 돌려줌. timeout 안에 못 받으면 null
+     */
+    DatabaseConnection borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        // 1. 스레드 목록: 최근 반납한 것부터
+        List<DatabaseConnection> list = recent.get();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            DatabaseConnection connection = list.remove(i);
+            if (connection.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                return connection;
+            }
+        }
+
+        long remaining = unit.toNanos(timeout);
+        if (remaining <= 0) {
+            DatabaseConnection connection = scanShared();
+            if (connection == null) {
+                onShortage.accept(1);
+            }
+            return connection;
+        }
+
+        int waiting = waiters.incrementAndGet();
+        try {
+            // 2. 공유 목록 (훑는 동안 반납된 연결을 놓치지 않도록 대기자로 먼저 등록)
+            DatabaseConnection connection = scanShared();
+            if (connection != null) {
+                return connection;
+            }
+            onShortage.accept(waiting);
+
+            // 3. 반납되거나 새로 만들어지는 연결을 기다림 (RESERVED 상태로 넘어오므로 소유권이 그대로 이어짐)
+            //    조금씩 기다리며 공유 목록을 다시 훑음: 넘겨줄 대기자를 못 찾고 풀어 둔 연결을 여기서 가져감
+            //    넘겨받은 직후 풀이 닫혀 상태가 바뀌었으면 남은 시간 동안 다시 기다림
+            long deadline = System.nanoTime() + remaining;
+            do {
+                connection = handoff.poll(Math.min(remaining, HANDOFF_RECHECK_NANOS), TimeUnit.NANOSECONDS);
+                if (connection == null) {
+                    connection = scanShared();
+                    if (connection != null) {
+                        return connection;
+                    }
+                } else if (connection.compareAndSetState(STATE_RESERVED, STATE_IN_USE)) {
+                    return connection;
+                }
+                remaining = deadline - System.nanoTime();
+            } while (remaining > 0);
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private DatabaseConnection scanShared() {
+        for (DatabaseConnection connection : shared) {
+            if (connection.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 연결을 반납. 이미 반납된 연결이면 false
+     */
+    boolean requite(DatabaseConnection connection, Entry entry, long now) {
+        entry.lastReturnedNanos = now;
+
+        // 대기자 유무와 상관없이 먼저 풀어 둠 (이후에 등록한 대기자는 공유 목록을 훑다가 찾음)
+        if (!connection.compareAndSetState(STATE_IN_USE, STATE_NOT_IN_USE)) {
+            return false;
+        }
+        if (!offerToWaiters(connection)) {
+            keepRecent(connection);
+        }
+        return true;
+    }
+
+    /**
+     * 풀려 있는 연결을 대기자에게 넘김. 넘겼거나 다른 스레드가 먼저 가져갔으면 true
+     * 넘기지 못했으면 다시 풀어 두고 false (묶여 있는 동안 공유 목록을 훑고 지나간 대기자는
+     * 다음 재확인 때 이 연결을 찾음)
+     */
+    private boolean offerToWaiters(DatabaseConnection connection) {
+        if (waiters.get() == 0) {
+            return false;
+        }
+        if (!connection.compareAndSetState(STATE_NOT_IN_USE, STATE_RESERVED)) {
+            return true;
+        }
+        if (handOff(connection)) {
+            return true;
+        }
+        connection.compareAndSetState(STATE_RESERVED, STATE_NOT_IN_USE);
+        return false;
+    }
+
+    /**
+     * RESERVED 상태의 연결을 가장 오래 기다린 스레드에게 넘김. 받는 스레드가 없으면 false
+     * (대기자로 등록만 하고 아직 poll 전일 수 있으므로 HANDOFF_SPINS번까지만 양보하며 재시도)
+     */
+    private boolean handOff(DatabaseConnection connection) {
+        for (int i = 0; i < HANDOFF_SPINS && waiters.get() > 0; i++) {
+            if (handoff.offer(connection)) {
+                return true;
+            }
+            Thread.yield();
+        }
+        return false;
+    }
+
+    private void keepRecent(DatabaseConnection connection) {
+        List<DatabaseConnection> list = recent.get();
+        if (list.size() < MAX_THREAD_LOCAL) {
+            list.add(connection);
+        }
+    }
+
+    // 이 가방의 연결이 아니면 null
+    Entry entry(DatabaseConnection connection) {
+        return members.get(connection);
+    }
+
+    List<DatabaseConnection> values() {
+        return shared;
+    }
+
+    int size() {
+        return shared.size();
+    }
+
+    int getWaiters() {
+        return waiters.get();
+    }
+}
@@ -1,94 +1,366 @@
 package com.designpattern.flyweight.database;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_IN_USE;
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_NOT_IN_USE;
+import static com.designpattern.flyweight.database.DatabaseConnection.STATE_REMOVED;
 
 /**
  * 연결 풀 (플라이웨이트 팩토리)
  * 데이터베이스 연결을 미리 생성하고 재사용
+ *
+ * 빌리기/반납은 ConnectionBag 위에서 락 없이 처리
+ * (스레드별 최근 연결 → 공유 목록 CAS → 대기자 handoff)
+ *
+ * 크기는 minimum-idle ~ maximum-pool-size 사이에서 부하를 따라감
+ * - 빌릴 연결이 없으면 백그라운드 스레드가 새 연결을 만들어 기다리는 스레드에게 넘김
+ *   (연결 생성 비용을 요청 스레드가 치르지 않음)
+ * - idle-timeout 동안 쓰이지 않은 연결은 minimum-idle까지 정리
+ * - max-lifetime이 지난 연결은 은퇴시키고 다시 채움 (연결마다 만료 시각을 조금씩 흩뜨림)
+ *
+ * warmup-async면 생성자에서 연결을 만들지 않고 warmUp()이 minimum-idle개를 병렬로 만듦
+ * 만드는 중인 연결은 pendingAdds로 세므로 그 사이 온 요청은 더 만들지 않고 그 연결을 넘겨받음
  */
 @Component
+@EnableConfigurationProperties(ConnectionPoolProperties.class)
 @Slf4j
 public class ConnectionPool {
-    private final List<DatabaseConnection> pool = new ArrayList<>();
-    private final Lock lock = new ReentrantLock();
-    private final int maxPoolSize = 5;
-    private final String defaultHost = "localhost";
-    private final int defaultPort = 3306;
+    private final ConnectionPoolProperties properties;
+    private final ConnectionBag bag = new ConnectionBag(this::fillPool);
+    private final PoolStats stats = new PoolStats();
+    private final LeakDetector leakDetector;
+    private final long connectionTimeoutNanos;
+    // 백그라운드에서 만들고 있는 연결 수
+    private final AtomicInteger pendingAdds = new AtomicInteger();
+    // 사용 중인 연결 수: 빌리고 반납할 때 갱신 (지표를 읽을 때마다 가방을 훑지 않도록)
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    // 연결 생성, 유휴 정리, 수명 만료를 처리하는 단일 스레드
+    private final ScheduledExecutorService housekeeper;
     
-    // 초기 풀 생성
+    // 초기 풀 생성 (기본 설정)
     public ConnectionPool() {
-        initializePool();
+        this(new ConnectionPoolProperties());
+    }
+    
+    @Autowired
+    public ConnectionPool(ConnectionPoolProperties properties) {
+        this.properties = properties;
+        this.connectionTimeoutNanos = properties.getConnectionTimeout().toNanos();
+        this.leakDetector = new LeakDetector(properties.getLeakDetectionThreshold(), stats);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!properties.isWarmupAsync()) {
+            initializePool();
+        }
+        long period = properties.getHousekeepingPeriod().toMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+        if (leakDetector.isEnabled()) {
+            long checkPeriod = leakDetector.checkPeriodMillis();
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS);
+        }
     }
     
     private void initializePool() {
-        log.info("🏊‍♀️ 연결 풀 초기화 시작 (최대 크기: {})", maxPoolSize);
-        for (int i = 0; i < maxPoolSize; i++) {
-            DatabaseConnection connection = new MySQLConnection(defaultHost, defaultPort);
-            pool.add(connection);
+        log.info("🏊‍♀️ 연결 풀 초기화 시작 (최소 유휴: {}, 최대 크기: {})",
+            properties.getMinimumIdle(), properties.getMaximumPoolSize());
+        for (int i = 0; i < Math.min(properties.getMinimumIdle(), properties.getMaximumPoolSize()); i++) {
+            addConnection();
         }
         log.info("✅ 연결 풀 초기화 완료");
     }
     
-    public DatabaseConnection getConnection() {
-        lock.lock();
+    /**
+     * minimum-idle개를 executor에서 병렬로 만듦. 만들어지는 대로 기다리던 요청에게 바로 넘어감
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        int count = Math.min(properties.getMinimumIdle(), properties.getMaximumPoolSize()) - bag.size() - pendingAdds.get();
+        CompletableFuture<?>[] creations = new CompletableFuture<?>[Math.max(0, count)];
+        for (int i = 0; i < creations.length; i++) {
+            pendingAdds.incrementAndGet();
+            creations[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    addConnection();
+                } finally {
+                    pendingAdds.decrementAndGet();
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(creations);
+    }
+    
+    // 지금 풀에 있는 연결 수가 minimum-idle 이상인지 (readiness 판단용)
+    public boolean isWarm() {
+        return bag.size() >= Math.min(properties.getMinimumIdle(), properties.getMaximumPoolSize());
+    }
+    
+    public int getMinimumIdle() {
+        return properties.getMinimumIdle();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        for (DatabaseConnection connection : bag.values()) {
+            connection.disconnect();
+        }
+    }
+    
+    private void addConnection() {
+        DatabaseConnection connection = new MySQLConnection(properties.getHost(), properties.getPort());
+        ConnectionBag.Entry entry = bag.add(connection);
+        stats.recordCreated();
+        
+        long lifetime = properties.getMaxLifetime().toNanos();
+        if (lifetime > 0) {
+            // 같은 시각에 만든 연결이 한꺼번에 만료되지 않도록 최대 2.5% 앞당김
+            long jitter = ThreadLocalRandom.current().nextLong(lifetime / 40 + 1);
+            entry.setRetirement(housekeeper.schedule(() -> retire(connection, entry), lifetime - jitter, TimeUnit.NANOSECONDS));
+        }
+    }
+    
+    /**
+     * 빌릴 연결이 없을 때 요청 스레드에서 호출됨: 생성은 백그라운드로 넘기고 바로 돌아감
+     * 기다리는 스레드 수보다 많이, 최대 크기보다 많이 만들지 않음
+     */
+    private void fillPool(int waiting) {
+        int pending = pendingAdds.get();
+        if (pending < waiting
+                && bag.size() + pending < properties.getMaximumPoolSize()
+                && pendingAdds.compareAndSet(pending, pending + 1)) {
+            try {
+                housekeeper.execute(this::addInBackground);
+            } catch (RuntimeException e) {
+                // 종료 중
+                pendingAdds.decrementAndGet();
+            }
+        }
+    }
+    
+    private void addInBackground() {
         try {
-            // 사용 가능한 연결 찾기
-            for (DatabaseConnection connection : pool) {
-                if (!connection.isInUse()) {
-                    connection.setInUse(true);
-                    log.info("♻️ [플라이웨이트 재사용] 기존 연결 반환: {}", connection.getId());
-                    return connection;
+            if (bag.size() < properties.getMaximumPoolSize()) {
+                addConnection();
+                log.info("🆕 연결 추가 (현재 {}개, 대기 중인 요청 {}개)", bag.size(), bag.getWaiters());
+            }
+        } finally {
+            pendingAdds.decrementAndGet();
+        }
+    }
+    
+    /**
+     * 주기 작업: 쉬는 연결이 minimum-idle보다 많으면 idle-timeout이 지난 것을 정리하고, 모자라면 보충
+     */
+    private void housekeep() {
+        long idleTimeout = properties.getIdleTimeout().toNanos();
+        int minimumIdle = properties.getMinimumIdle();
+        if (idleTimeout > 0 && minimumIdle < properties.getMaximumPoolSize()) {
+            long now = System.nanoTime();
+            int removable = getAvailableConnections() - minimumIdle;
+            for (DatabaseConnection connection : bag.values()) {
+                if (removable <= 0) {
+                    break;
+                }
+                ConnectionBag.Entry entry = bag.entry(connection);
+                if (entry != null && now - entry.getLastReturnedNanos() > idleTimeout
+                        && connection.compareAndSetState(STATE_NOT_IN_USE, STATE_REMOVED)) {
+                    closeConnection(connection, "유휴 시간 초과");
+                    removable--;
                 }
             }
-            
+        }
+        refill();
+    }
+    
+    // 하우스키퍼 스레드에서만 호출
+    private void refill() {
+        int idle = getAvailableConnections();
+        int toAdd = Math.min(properties.getMaximumPoolSize() - bag.size(), properties.getMinimumIdle() - idle)
+            - pendingAdds.get();
+        for (int i = 0; i < toAdd; i++) {
+            addConnection();
+        }
+        if (toAdd > 0) {
+            log.info("🆕 유휴 연결 {}개 보충 (현재 {}개)", toAdd, bag.size());
+        }
+    }
+    
+    // 사용 중인 연결 중 leak-detection-threshold를 넘긴 것을 경고
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (DatabaseConnection connection : bag.values()) {
+            ConnectionBag.Entry entry = bag.entry(connection);
+            if (entry != null && connection.getState() == STATE_IN_USE) {
+                leakDetector.check(connection.getId(), entry.getLease(), now);
+            }
+        }
+    }
+    
+    // 수명이 다한 연결: 쉬고 있으면 바로 닫고, 사용 중이면 반납될 때 닫음
+    private void retire(DatabaseConnection connection, ConnectionBag.Entry entry) {
+        if (connection.compareAndSetState(STATE_NOT_IN_USE, STATE_REMOVED)) {
+            closeConnection(connection, "최대 수명 도달");
+            refill();
+        } else {
+            entry.markEvicted();
+        }
+    }
+    
+    private void closeConnection(DatabaseConnection connection, String reason) {
+        bag.remove(connection);
+        connection.disconnect();
+        stats.recordClosed();
+        log.info("🗑️ 연결 정리 ({}): {} (현재 {}개)", reason, connection.getId(), bag.size());
+    }
+    
+    /**
+     * 지금 바로 쓸 수 있는 연결. 모두 사용 중이면 기다리지 않고 null
+     */
+    public DatabaseConnection getConnection() {
+        return getConnection(0, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 설정된 시간(database.pool.connection-timeout)까지 반납을 기다림
+     */
+    public DatabaseConnection awaitConnection() {
+        return getConnection(connectionTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 모두 사용 중이면 timeout까지 기다렸다가, 먼저 기다린 스레드부터 반납된 연결을 넘겨받음
+     * 끝내 받지 못하면 null
+     */
+    public DatabaseConnection getConnection(long timeout, TimeUnit unit) {
+        // 기다리지 않는 호출은 대기 시간이 0이므로 시계는 빌린 뒤 사용 시간을 재기 위해 한 번만 읽음
+        boolean waits = timeout > 0;
+        long start = waits ? System.nanoTime() : 0L;
+        DatabaseConnection connection;
+        try {
+            connection = bag.borrow(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long now = (waits || connection != null) ? System.nanoTime() : 0L;
+        long waitNanos = waits ? now - start : 0L;
+        
+        if (connection == null) {
             // 모든 연결이 사용 중일 때
-            log.warn("⚠️ 사용 가능한 연결이 없습니다. 잠시 대기하거나 새 연결을 생성해야 합니다.");
+            stats.recordTimeout(waitNanos);
+            log.warn("⚠️ 사용 가능한 연결이 없습니다. ({}ms 대기, 대기 중인 요청 {}개)",
+                TimeUnit.NANOSECONDS.toMillis(waitNanos), bag.getWaiters());
             return null;
-        } finally {
-            lock.unlock();
         }
+        activeConnections.incrementAndGet();
+        stats.recordAcquire(waitNanos);
+        leakDetector.begin(bag.entry(connection).getLease(), now);
+        log.info("♻️ [플라이웨이트 재사용] 기존 연결 반환: {}", connection.getId());
+        return connection;
     }
     
     public void returnConnection(DatabaseConnection connection) {
-        lock.lock();
-        try {
-            if (connection != null && pool.contains(connection)) {
-                connection.setInUse(false);
-                log.info("🔄 연결 반환: {}", connection.getId());
+        ConnectionBag.Entry entry = (connection != null) ? bag.entry(connection) : null;
+        if (entry == null || connection.getState() != STATE_IN_USE) {
+            return;
+        }
+        long now = System.nanoTime();
+        leakDetector.end(connection.getId(), entry.getLease(), now);
+        if (entry.isEvicted()) {
+            if (connection.compareAndSetState(STATE_IN_USE, STATE_REMOVED)) {
+                activeConnections.decrementAndGet();
+                closeConnection(connection, "최대 수명 도달");
+                runInBackground(this::refill);
             }
-        } finally {
-            lock.unlock();
+            return;
+        }
+        if (bag.requite(connection, entry, now)) {
+            activeConnections.decrementAndGet();
+            log.info("🔄 연결 반환: {}", connection.getId());
         }
     }
     
     public int getPoolSize() {
-        return pool.size();
+        return bag.size();
+    }
+    
+    // 부하가 몰렸을 때 늘어날 수 있는 최대 크기
+    public int getMaximumPoolSize() {
+        return properties.getMaximumPoolSize();
     }
     
     public int getActiveConnections() {
-        return (int) pool.stream().mapToLong(conn -> conn.isInUse() ? 1 : 0).sum();
+        return activeConnections.get();
     }
     
     public int getAvailableConnections() {
-        return getPoolSize() - getActiveConnections();
+        return Math.max(0, getPoolSize() - getActiveConnections());
+    }
+    
+    // 반납을 기다리고 있는 스레드 수
+    public int getPendingThreads() {
+        return bag.getWaiters();
     }
     
+    public PoolStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * 모든 연결을 끊고 풀에서 뺌. 빌려 간 연결은 나중에 반납해도 무시됨
+     * 이후 요청은 백그라운드에서 새로 만든 연결을 받음 (끊긴 연결이 다시 빌려지지 않음)
+     */
     public void closeAllConnections() {
-        lock.lock();
-        try {
-            for (DatabaseConnection connection : pool) {
-                connection.disconnect();
-                connection.setInUse(false);
+        int closed = 0;
+        for (DatabaseConnection connection : bag.values()) {
+            if (claimForRemoval(connection)) {
+                closeConnection(connection, "전체 해제");
+                closed++;
             }
-            log.info("🔌 모든 연결 해제 완료");
-        } finally {
-            lock.unlock();
+        }
+        log.info("🔌 모든 연결 해제 완료 ({}개)", closed);
+        runInBackground(this::refill);
+    }
+    
+    // 상태와 상관없이 STATE_REMOVED로 선점 (다른 쪽이 먼저 치웠으면 false)
+    // RESERVED를 가로채면 넘겨받던 대기자의 CAS가 실패하므로 그 대기자는 다른 연결을 기다림
+    private boolean claimForRemoval(DatabaseConnection connection) {
+        while (true) {
+            int state = connection.getState();
+            if (state == STATE_REMOVED) {
+                return false;
+            }
+            if (connection.compareAndSetState(state, STATE_REMOVED)) {
+                if (state == STATE_IN_USE) {
+                    activeConnections.decrementAndGet();
+                }
+                return true;
+            }
+        }
+    }
+    
+    // 하우스키퍼에 맡김. 종료 중이면 건너뜀
+    private void runInBackground(Runnable task) {
+        try {
+            housekeeper.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("풀 종료 중이라 백그라운드 작업을 건너뜀");
         }
     }
 }
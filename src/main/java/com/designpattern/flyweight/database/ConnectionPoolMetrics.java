@@ -0,0 +1,121 @@
+package com.designpattern.flyweight.database;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 연결 풀 Micrometer 지표 (수집 시점에 PoolStats 합계를 읽기만 함)
+ * MeterBinder 빈이라 Spring Boot가 자동으로 등록함
+ *
+ * 대기/사용 시간 히스토그램은 구간별 누적 개수(le 태그)와 p50/p99 구간 상한으로 내보냄
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+    private final ConnectionPool connectionPool;
+    private final DetailedConnectionPool detailedConnectionPool;
+
+    public ConnectionPoolMetrics(ConnectionPool connectionPool, DetailedConnectionPool detailedConnectionPool) {
+        this.connectionPool = connectionPool;
+        this.detailedConnectionPool = detailedConnectionPool;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("pool", "connection-pool");
+        bindStats(registry, connectionPool.getStats(), tags);
+
+        FunctionCounter.builder("db.pool.connections.created", connectionPool.getStats(), PoolStats::createdCount)
+            .tags(tags)
+            .description("풀이 만든 연결 수")
+            .register(registry);
+        FunctionCounter.builder("db.pool.connections.closed", connectionPool.getStats(), PoolStats::closedCount)
+            .tags(tags)
+            .description("유휴 시간 초과나 수명 만료로 정리한 연결 수")
+            .register(registry);
+        Gauge.builder("db.pool.connections", connectionPool, ConnectionPool::getPoolSize)
+            .tags(tags)
+            .description("현재 풀 크기")
+            .register(registry);
+        Gauge.builder("db.pool.connections.active", connectionPool, ConnectionPool::getActiveConnections)
+            .tags(tags)
+            .description("사용 중인 연결 수")
+            .register(registry);
+        Gauge.builder("db.pool.connections.pending", connectionPool, ConnectionPool::getPendingThreads)
+            .tags(tags)
+            .description("연결을 기다리는 스레드 수")
+            .register(registry);
+
+        Tags detailedTags = Tags.of("pool", "detailed-pool");
+        PoolStats detailedStats = detailedConnectionPool.getStats();
+        bindStats(registry, detailedStats, detailedTags);
+        FunctionCounter.builder("db.pool.statements", detailedStats, PoolStats::statementHitCount)
+            .tags(detailedTags).tag("result", "hit")
+            .description("연결에 준비해 둔 PreparedStatement를 다시 쓴 횟수")
+            .register(registry);
+        FunctionCounter.builder("db.pool.statements", detailedStats, PoolStats::statementMissCount)
+            .tags(detailedTags).tag("result", "miss")
+            .description("PreparedStatement를 새로 준비한 횟수")
+            .register(registry);
+        FunctionCounter.builder("db.pool.validations", detailedStats, PoolStats::validationCount)
+            .tags(detailedTags)
+            .description("연결 유효성 검사(isValid 왕복) 횟수")
+            .register(registry);
+        Gauge.builder("db.pool.connections.active", detailedConnectionPool, DetailedConnectionPool::getActiveConnections)
+            .tags(detailedTags)
+            .description("사용 중인 연결 수")
+            .register(registry);
+    }
+
+    private void bindStats(MeterRegistry registry, PoolStats stats, Tags tags) {
+        FunctionTimer.builder("db.pool.acquire", stats, PoolStats::acquireCount, PoolStats::totalWaitNanos, TimeUnit.NANOSECONDS)
+            .tags(tags)
+            .description("연결을 받기까지 기다린 시간")
+            .register(registry);
+        Gauge.builder("db.pool.acquire.max", stats, s -> s.maxWaitNanos() / 1e6)
+            .tags(tags)
+            .baseUnit("milliseconds")
+            .description("가장 오래 기다린 시간")
+            .register(registry);
+        FunctionCounter.builder("db.pool.acquire.timeouts", stats, PoolStats::timeoutCount)
+            .tags(tags)
+            .description("대기 시간 안에 연결을 받지 못한 횟수")
+            .register(registry);
+        FunctionTimer.builder("db.pool.usage", stats, PoolStats::usageCount, PoolStats::totalUsageNanos, TimeUnit.NANOSECONDS)
+            .tags(tags)
+            .description("빌린 연결을 반납하기까지 쥐고 있던 시간")
+            .register(registry);
+        FunctionCounter.builder("db.pool.leaks", stats, PoolStats::leakCount)
+            .tags(tags)
+            .description("leak-detection-threshold를 넘겨 누수로 의심한 대여 수")
+            .register(registry);
+        bindHistogram(registry, "db.pool.acquire.histogram", stats.waitHistogram(), tags, "연결 대기 시간 분포");
+        bindHistogram(registry, "db.pool.usage.histogram", stats.usageHistogram(), tags, "연결 사용 시간 분포");
+    }
+
+    private void bindHistogram(MeterRegistry registry, String name, LatencyHistogram histogram, Tags tags, String description) {
+        for (long bound : LatencyHistogram.boundsMillis()) {
+            FunctionCounter.builder(name, histogram, h -> h.countAtOrBelow(bound))
+                .tags(tags).tag("le", bound + "ms")
+                .description(description + " (누적)")
+                .register(registry);
+        }
+        FunctionCounter.builder(name, histogram, LatencyHistogram::count)
+            .tags(tags).tag("le", "+Inf")
+            .description(description + " (누적)")
+            .register(registry);
+        for (double phi : new double[]{0.5, 0.99}) {
+            Gauge.builder(name + ".percentile", histogram, h -> h.percentileMillis(phi))
+                .tags(tags).tag("phi", String.valueOf(phi))
+                .baseUnit("milliseconds")
+                .description(description + " 분위가 속한 구간의 상한 (-1이면 마지막 구간 초과)")
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 연결 풀 설정 (application.yml의 database.pool.*)
+ */
+@ConfigurationProperties(prefix = "database.pool")
+@Data
+public class ConnectionPoolProperties {
+    private String host = "localhost";
+    private int port = 3306;
+    
+    // 쉬고 있는 연결을 최소 이만큼 유지 (부족하면 백그라운드에서 채움)
+    private int minimumIdle = 5;
+    
+    // true면 생성자에서 연결을 만들지 않고, 애플리케이션이 준비된 뒤 PoolWarmup이 병렬로 채움
+    // (그 전에 온 요청은 만들고 있는 연결을 기다림)
+    private boolean warmupAsync = false;
+    
+    // 부하가 몰리면 이 크기까지 늘어남
+    private int maximumPoolSize = 10;
+    
+    // 모든 연결이 사용 중일 때 반납을 기다리는 최대 시간 (0이면 기다리지 않고 바로 실패)
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+    
+    // 이 시간 동안 쓰이지 않은 연결은 minimum-idle까지 정리 (0이면 정리하지 않음)
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    
+    // 연결 최대 수명. 한꺼번에 만료되지 않도록 연결마다 최대 2.5%를 앞당김 (0이면 무제한)
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    
+    // 이 시간보다 오래 반납되지 않은 연결을 누수로 의심해 빌려 간 위치를 로그로 남김
+    // (0이면 끔. 켜면 빌릴 때마다 스택 트레이스를 만듦)
+    private Duration leakDetectionThreshold = Duration.ZERO;
+    
+    // 유휴 연결 정리와 minimum-idle 보충 주기
+    private Duration housekeepingPeriod = Duration.ofSeconds(30);
+}
@@ -4,10 +4,25 @@ package com.designpattern.flyweight.database;
  * 데이터베이스 연결 인터페이스 (플라이웨이트)
  */
 public interface DatabaseConnection {
+    // 풀이 CAS로 전이시키는 연결 상태
+    int STATE_NOT_IN_USE = 0;
+    int STATE_IN_USE = 1;
+    // 풀에서 빠져 닫히는 중 (다시 빌려지지 않음)
+    int STATE_REMOVED = -1;
+    // 반납 중인 연결을 대기자에게 넘기는 동안 (다른 스레드가 가로채지 못함)
+    int STATE_RESERVED = -2;
+
     void connect();
     void disconnect();
     void executeQuery(String query);
     boolean isInUse();
     void setInUse(boolean inUse);
     String getId();
+
+    int getState();
+
+    /**
+     * 현재 상태가 expect일 때만 update로 바꿈 (락 없이 연결을 선점/반납하는 데 사용)
+     */
+    boolean compareAndSetState(int expect, int update);
 }
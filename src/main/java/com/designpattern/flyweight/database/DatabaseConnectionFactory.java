@@ -0,0 +1,31 @@
+package com.designpattern.flyweight.database;
+
+import com.designpattern.flyweight.pool.PooledObjectFactory;
+
+/**
+ * ObjectPool로 DatabaseConnection을 관리할 때의 팩토리
+ * (ConnectionPool과 같은 연결을 범용 풀 위에서 빌려 쓰기, ObjectPoolBenchmark 참고)
+ *
+ * 빌려 간 연결은 ObjectPool이 추적하므로 연결 자체의 사용 상태(state)는 건드리지 않음
+ */
+public class DatabaseConnectionFactory implements PooledObjectFactory<DatabaseConnection> {
+    private final String host;
+    private final int port;
+    
+    public DatabaseConnectionFactory(ConnectionPoolProperties properties) {
+        this.host = properties.getHost();
+        this.port = properties.getPort();
+    }
+    
+    @Override
+    public DatabaseConnection create() {
+        DatabaseConnection connection = new MySQLConnection(host, port);
+        connection.connect();
+        return connection;
+    }
+    
+    @Override
+    public void destroy(DatabaseConnection connection) {
+        connection.disconnect();
+    }
+}
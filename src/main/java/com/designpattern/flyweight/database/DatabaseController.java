@@ -1,9 +1,12 @@
 package com.designpattern.flyweight.database;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 데이터베이스 연결 풀 관리 컨트롤러
@@ -15,18 +18,34 @@ public class DatabaseController {
     @Autowired
     private DatabaseService databaseService;
     
+    @Autowired
+    private MetricsStream metricsStream;
+    
     @GetMapping
     public String index(Model model) {
         model.addAttribute("poolSize", databaseService.getPoolSize());
         model.addAttribute("activeConnections", databaseService.getActiveConnections());
         model.addAttribute("availableConnections", databaseService.getAvailableConnections());
+        model.addAttribute("waitStats", waitStats(databaseService.getPoolStats()));
         return "database/index";
     }
     
+    /**
+     * 쿼리는 queryExecutor에서 실행되고 요청 스레드는 바로 반납됨 (Servlet 비동기 응답)
+     * 쿼리가 오래 걸려도 Tomcat 스레드를 붙잡지 않으므로 동시 요청 수는 연결 풀만 제한함
+     */
     @PostMapping("/query")
     @ResponseBody
-    public String executeQuery(@RequestParam String query) {
-        return databaseService.executeQuery(query);
+    public DeferredResult<String> executeQuery(@RequestParam String query) {
+        DeferredResult<String> result = new DeferredResult<>();
+        databaseService.executeQueryAsync(query).whenComplete((message, error) -> {
+            if (error != null) {
+                result.setErrorResult(error);
+            } else {
+                result.setResult(message);
+            }
+        });
+        return result;
     }
     
     @PostMapping("/close-all")
@@ -35,12 +54,35 @@ public class DatabaseController {
         return "redirect:/database";
     }
     
+    /**
+     * 풀/캐시 지표를 database.stream.interval마다 밀어 주는 SSE 스트림 (화면은 EventSource로 구독)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter stream() {
+        return metricsStream.subscribe();
+    }
+    
     @GetMapping("/status")
     @ResponseBody
     public String getStatus() {
-        return String.format("풀 크기: %d, 활성 연결: %d, 사용 가능 연결: %d", 
+        return String.format("풀 크기: %d, 활성 연결: %d, 사용 가능 연결: %d, %s, 평균 묶음 크기: %.1f, 결과 캐시 적중률: %.1f%%, 벌크헤드: %s", 
                 databaseService.getPoolSize(),
                 databaseService.getActiveConnections(),
-                databaseService.getAvailableConnections());
+                databaseService.getAvailableConnections(),
+                waitStats(databaseService.getPoolStats()),
+                databaseService.getAverageBatchSize(),
+                databaseService.getResultCacheHitRate() * 100,
+                databaseService.getBulkheadSummary());
+    }
+    
+    private String waitStats(PoolStats stats) {
+        return String.format("평균 대기: %.1fms, 최대 대기: %.1fms, 대기 시간 초과: %d, 대기 분포: %s, 사용 시간: %s, 누수 의심: %d",
+                stats.averageWaitMillis(),
+                stats.maxWaitNanos() / 1e6,
+                stats.timeoutCount(),
+                stats.waitHistogram().summary(),
+                stats.usageHistogram().summary(),
+                stats.leakCount());
     }
 }
@@ -1,10 +1,24 @@
 package com.designpattern.flyweight.database;
 
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * 데이터베이스 서비스
@@ -14,18 +28,250 @@ import java.util.Random;
 @Slf4j
 public class DatabaseService {
     
+    private static final String REJECTED = "❌ 처리 대기 중인 쿼리가 너무 많습니다. 잠시 후 다시 시도해주세요.";
+    
     @Autowired
     private ConnectionPool connectionPool;
     
+    @Autowired
+    @Qualifier("queryExecutor")
+    private ExecutorService queryExecutor;
+    
+    @Autowired
+    private QueryBatchProperties batchProperties;
+    
+    @Autowired
+    private QueryCacheProperties cacheProperties;
+    
+    @Autowired
+    private FlyweightCacheRegistry cacheRegistry;
+    
+    @Autowired
+    private QueryBulkheadProperties bulkheadProperties;
+    
     private final Random random = new Random();
     
+    // 짧은 시간 창 안에 들어온 같은 종류의 쿼리를 연결 하나로 묶어 실행 (database.batch.enabled=false면 null)
+    private Map<QueryClass, QueryBatcher<String, String>> batchers;
+    
+    // 읽기 쿼리 결과 캐시 (database.result-cache.enabled=false면 null)
+    private QueryResultCache resultCache;
+    
+    // 쿼리 종류별 동시 실행 제한 (database.bulkhead.enabled=false면 null)
+    private QueryBulkheads bulkheads;
+    
+    @PostConstruct
+    public void start() {
+        if (bulkheadProperties.isEnabled()) {
+            bulkheads = new QueryBulkheads(bulkheadProperties, connectionPool.getMaximumPoolSize());
+        }
+        if (batchProperties.isEnabled()) {
+            batchers = new EnumMap<>(QueryClass.class);
+            for (QueryClass queryClass : QueryClass.values()) {
+                batchers.put(queryClass, new QueryBatcher<>("query-" + queryClass.name().toLowerCase(),
+                    batchProperties.getWindow(), batchProperties.getMaxSize(),
+                    queries -> executeBatch(queryClass, queries), queryExecutor));
+            }
+        }
+        if (cacheProperties.isEnabled()) {
+            resultCache = new QueryResultCache(cacheProperties.getTtl().toNanos(), cacheProperties.getMaximumSize().toBytes());
+            cacheRegistry.register("query-results", resultCache.stats(), resultCache::size);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (batchers != null) {
+            batchers.values().forEach(QueryBatcher::close);
+        }
+    }
+    
+    /**
+     * 비동기 실행: 호출한 스레드(요청 스레드)는 바로 돌아가고,
+     * 연결 대기와 쿼리 실행은 queryExecutor의 스레드가 맡음
+     *
+     * 결과 캐시가 켜져 있으면
+     * - 저장해 둔 읽기 결과는 연결 풀을 전혀 거치지 않고 바로 돌려줌
+     * - 쓰기 쿼리가 끝나면 그 쿼리가 건드린 테이블을 읽는 결과를 지움
+     */
+    public CompletableFuture<String> executeQueryAsync(String query) {
+        if (resultCache == null) {
+            return submit(query);
+        }
+        
+        QueryResultCache.Query parsed = QueryResultCache.parse(query, List.of());
+        if (parsed.isCacheable()) {
+            String cached = resultCache.getIfPresent(parsed);
+            if (cached != null) {
+                log.info("⚡ 캐시된 결과 반환 (연결 사용 안 함): {}", query);
+                return CompletableFuture.completedFuture(cached);
+            }
+            // 실행하는 사이 같은 테이블에 쓰기가 있었으면 옛 결과가 되므로 저장하지 않음
+            long version = resultCache.version(parsed);
+            long start = System.nanoTime();
+            return submit(query).thenApply(result -> {
+                if (result.startsWith("✅")) {
+                    resultCache.put(parsed, version, result, System.nanoTime() - start);
+                }
+                return result;
+            });
+        }
+        if (parsed.isInvalidating()) {
+            return submit(query).whenComplete((result, error) -> {
+                resultCache.invalidate(parsed);
+                log.info("🧹 쓰기 쿼리로 결과 캐시 무효화: {}", parsed.getTables().isEmpty() ? "전체" : parsed.getTables());
+            });
+        }
+        return submit(query);
+    }
+    
+    /**
+     * 쿼리 종류(QueryClass)별로 보냄
+     * - 묶어 실행하기가 켜져 있으면 같은 종류끼리 묶고, 벌크헤드 자리는 쿼리마다가 아니라 묶음마다 하나
+     *   (묶음 하나가 연결 하나를 쓰므로 벌크헤드가 세는 단위와 연결 수가 일치)
+     * - 꺼져 있으면 쿼리마다 자리를 얻고 실행 (자리 얻기와 실행을 한 작업으로 보내 queryExecutor 작업 하나만 차지)
+     * 자리를 기다리는 것은 queryExecutor 스레드이므로 요청 스레드는 묶이지 않음
+     */
+    private CompletableFuture<String> submit(String query) {
+        QueryClass queryClass = QueryClass.of(query);
+        if (batchers != null) {
+            log.info("📞 사용자 요청 접수 (묶어 실행): {}", query);
+            // 묶음을 실행할 스레드를 얻지 못했으면 묶음 전체가 RejectedExecutionException으로 끝남
+            return batchers.get(queryClass).submit(query).exceptionally(error -> {
+                if (error instanceof RejectedExecutionException) {
+                    return REJECTED;
+                }
+                throw (error instanceof CompletionException) ? (CompletionException) error : new CompletionException(error);
+            });
+        }
+        if (bulkheads != null) {
+            return execute(() -> executeWithPermit(queryClass, query));
+        }
+        return execute(() -> executeQuery(query));
+    }
+    
+    private String executeWithPermit(QueryClass queryClass, String query) {
+        QueryBulkheads.Permit permit = acquire(queryClass);
+        if (permit == null) {
+            return busy(queryClass);
+        }
+        boolean succeeded = false;
+        try {
+            String result = executeQuery(query);
+            succeeded = result.startsWith("✅");
+            return result;
+        } finally {
+            permit.release(succeeded);
+        }
+    }
+    
+    private static String busy(QueryClass queryClass) {
+        return "❌ " + queryClass + " 쿼리가 몰려 처리하지 못했습니다. 잠시 후 다시 시도해주세요.";
+    }
+    
+    private QueryBulkheads.Permit acquire(QueryClass queryClass) {
+        try {
+            return bulkheads.acquire(queryClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    /**
+     * queryExecutor로 보냄. 스레드가 모두 차 있으면 줄 세우지 않고 바로 "❌" 응답
+     */
+    private CompletableFuture<String> execute(Supplier<String> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, queryExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn(REJECTED);
+            return CompletableFuture.completedFuture(REJECTED);
+        }
+    }
+    
+    /**
+     * 같은 종류의 묶음: 벌크헤드가 켜져 있으면 묶음 전체에 자리 하나를 얻고 실행
+     */
+    private List<String> executeBatch(QueryClass queryClass, List<String> queries) throws InterruptedException {
+        if (bulkheads == null) {
+            return executeBatch(queries);
+        }
+        QueryBulkheads.Permit permit = bulkheads.acquire(queryClass);
+        if (permit == null) {
+            return Collections.nCopies(queries.size(), busy(queryClass));
+        }
+        boolean succeeded = false;
+        try {
+            List<String> results = executeBatch(queries);
+            succeeded = results.get(0).startsWith("✅");
+            return results;
+        } finally {
+            permit.release(succeeded);
+        }
+    }
+    
+    /**
+     * 모인 쿼리들을 연결 하나로 연달아 실행 (빌리기/연결/왕복을 묶음마다 한 번만 함)
+     */
+    private List<String> executeBatch(List<String> queries) throws InterruptedException {
+        DatabaseConnection connection = connectionPool.awaitConnection();
+        
+        if (connection == null) {
+            String errorMsg = "❌ 대기 시간 안에 사용 가능한 연결이 없습니다. 잠시 후 다시 시도해주세요.";
+            log.error("{} (쿼리 {}개)", errorMsg, queries.size());
+            return Collections.nCopies(queries.size(), errorMsg);
+        }
+        
+        try {
+            log.info("📦 쿼리 {}개를 연결 하나로 실행: {}", queries.size(), connection.getId());
+            connection.connect();
+            List<String> results = new ArrayList<>(queries.size());
+            for (String query : queries) {
+                connection.executeQuery(query);
+                results.add("✅ 쿼리 실행 완료: " + query);
+            }
+            
+            // 묶음 전체를 한 번의 왕복으로 보낸다고 보고 지연도 한 번만 시뮬레이션
+            Thread.sleep(random.nextInt(1000) + 500);
+            return results;
+        } finally {
+            connectionPool.returnConnection(connection);
+        }
+    }
+    
+    // 쿼리 종류별 현재 동시 실행 제한 (벌크헤드가 꺼져 있으면 "꺼짐")
+    public String getBulkheadSummary() {
+        return (bulkheads != null) ? bulkheads.summary() : "꺼짐";
+    }
+    
+    // 결과 캐시 적중률 (캐시가 꺼져 있으면 0)
+    public double getResultCacheHitRate() {
+        return (resultCache != null) ? resultCache.stats().hitRate() : 0.0;
+    }
+    
+    // 묶음 하나에 평균 몇 개의 쿼리가 모였는지 (종류 합계, 묶어 실행하기가 꺼져 있으면 0)
+    public double getAverageBatchSize() {
+        if (batchers == null) {
+            return 0.0;
+        }
+        long batches = 0;
+        long queries = 0;
+        for (QueryBatcher<String, String> batcher : batchers.values()) {
+            batches += batcher.batchCount();
+            queries += batcher.queryCount();
+        }
+        return (batches == 0) ? 0.0 : (double) queries / batches;
+    }
+    
     public String executeQuery(String query) {
         log.info("📞 사용자 요청 접수: {}", query);
         
-        DatabaseConnection connection = connectionPool.getConnection();
+        // 모든 연결이 사용 중이면 설정된 시간까지 반납을 기다림 (먼저 온 요청부터)
+        DatabaseConnection connection = connectionPool.awaitConnection();
         
         if (connection == null) {
-            String errorMsg = "❌ 모든 연결이 사용 중입니다. 잠시 후 다시 시도해주세요.";
+            String errorMsg = "❌ 대기 시간 안에 사용 가능한 연결이 없습니다. 잠시 후 다시 시도해주세요.";
             log.error(errorMsg);
             return errorMsg;
         }
@@ -67,4 +313,8 @@ public class DatabaseService {
     public int getAvailableConnections() {
         return connectionPool.getAvailableConnections();
     }
+    
+    public PoolStats getPoolStats() {
+        return connectionPool.getStats();
+    }
 }
@@ -1,38 +1,132 @@
 package com.designpattern.flyweight.database;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.sql.DataSource;
+import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 실제 JDBC Connection Pool의 생명주기를 보여주는 예시
+ * 기본 설정은 함께 들어 있는 H2 메모리 DB에 연결하는 javax.sql.DataSource
+ *
+ * getConnection()은 실제 연결을 감싼 handle을 주고, handle을 close()하면 풀로 돌아옴
+ * 연결마다 SQL별 PreparedStatement 캐시가 있어 같은 쿼리를 반복하면 준비해 둔 문장을 다시 씀
+ * (HikariCP나 캐시를 끈 경우보다 빠른지는 아직 측정하지 않음: DataSourceBenchmark)
+ *
+ * 유효성 검사(isValid 왕복)는 요청 경로에서 되도록 빼냄
+ * - 빌릴 때: validation-skip-window 안에 쓰였던 연결은 검사 없이 바로 줌 (흔한 경우 큐 poll 한 번)
+ * - 반납할 때: 검사하지 않음. 상태 되돌리기가 실패하면 그때 버림
+ * - 오래 쉬고 있는 연결은 백그라운드 keepalive가 검사해 끊어진 것을 미리 버리고 최소 개수를 채움
+ *
+ * warmup-async면 생성자에서 연결을 만들지 않고 warmUp()이 최소 개수를 병렬로 만듦
+ * 그동안 빌리러 온 스레드는 연결을 더 만들지 않고 만들어지고 있는 연결을 기다림
+ * (시작 직후 몰린 요청이 한꺼번에 연결을 만드느라 DB를 두드리지 않도록)
  */
 @Component
+@EnableConfigurationProperties(DetailedPoolProperties.class)
 @Slf4j
-public class DetailedConnectionPool {
-    private final String url = "jdbc:mysql://localhost:3306/test";
-    private final String username = "user";
-    private final String password = "password";
+public class DetailedConnectionPool implements DataSource {
+    // 기다리는 스레드가 자리가 났는지 다시 확인하는 주기
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
     
-    private final int minPoolSize = 5;
-    private final int maxPoolSize = 10;
-    private final long maxWaitTime = 5000; // 5초
+    private final String url;
+    private final String username;
+    private final String password;
+    
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long maxWaitTime;
+    private final int statementCacheSize;
+    private final long validationSkipNanos;
+    private final long keepaliveNanos;
     
     // 사용 가능한 연결들을 관리하는 큐
-    private final BlockingQueue<Connection> availableConnections = new LinkedBlockingQueue<>();
-    // 사용 중인 연결들을 추적
-    private final List<Connection> usedConnections = new ArrayList<>();
+    private final BlockingQueue<PooledConnection> availableConnections = new LinkedBlockingQueue<>();
+    // 사용 중인 연결들을 추적 (연결별 대여 기록: 빌린 시각, 누수 감지 시 빌려 간 위치)
+    private final Map<PooledConnection, LeakDetector.Lease> usedConnections = new ConcurrentHashMap<>();
+    // 만들었거나 만드는 중인 연결 수 (동시에 빌려도 최대 크기를 넘지 않도록 만들기 전에 자리부터 잡음)
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    // 연결을 기다리고 있거나 빌려 간 뒤 아직 반납하지 않은 요청 수 (라우팅의 부하 지표)
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // warmUp()이 만들고 있는 연결 수 (0보다 크면 빌리는 쪽은 만들지 않고 기다림)
+    private final AtomicInteger warmingUp = new AtomicInteger();
+    
+    private final PoolStats stats = new PoolStats();
+    private final LeakDetector leakDetector;
+    // 누수 검사와 keepalive를 맡는 백그라운드 스레드 (둘 다 꺼져 있으면 null)
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
     
     public DetailedConnectionPool() {
-        initializePool();
+        this(new DetailedPoolProperties());
+    }
+    
+    @Autowired
+    public DetailedConnectionPool(DetailedPoolProperties properties) {
+        this.url = properties.getUrl();
+        this.username = properties.getUsername();
+        this.password = properties.getPassword();
+        this.minPoolSize = properties.getMinimumIdle();
+        this.maxPoolSize = properties.getMaximumPoolSize();
+        this.maxWaitTime = properties.getConnectionTimeout().toMillis();
+        this.statementCacheSize = properties.getStatementCacheSize();
+        this.validationSkipNanos = properties.getValidationSkipWindow().toNanos();
+        this.keepaliveNanos = properties.getKeepaliveTime().toNanos();
+        this.leakDetector = new LeakDetector(properties.getLeakDetectionThreshold(), stats);
+        if (!properties.isWarmupAsync()) {
+            initializePool();
+        }
+        if (leakDetector.isEnabled() || keepaliveNanos > 0) {
+            housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "detailed-pool-housekeeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (leakDetector.isEnabled()) {
+            long period = leakDetector.checkPeriodMillis();
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+        if (keepaliveNanos > 0) {
+            // keepalive-time의 절반마다 훑어 늦어도 1.5배 안에는 검사되도록
+            long period = Math.max(1_000, TimeUnit.NANOSECONDS.toMillis(keepaliveNanos) / 2);
+            housekeeper.scheduleWithFixedDelay(this::keepalive, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 쉬고 있는 연결은 바로 닫고, 사용 중인 연결은 반납될 때 닫음
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledConnection conn;
+        while ((conn = availableConnections.poll()) != null) {
+            discard(conn);
+        }
+        log.info("🛑 Connection Pool 종료 (반납되지 않은 연결: {} 개)", usedConnections.size());
     }
     
     /**
@@ -41,130 +135,291 @@ public class DetailedConnectionPool {
     private void initializePool() {
         log.info("🚀 Connection Pool 초기화 시작 (최소: {}, 최대: {})", minPoolSize, maxPoolSize);
         
-        for (int i = 0; i < minPoolSize; i++) {
+        for (int i = 0; i < minPoolSize && reserveSlot(); i++) {
             try {
-                Connection conn = createNewConnection();
+                PooledConnection conn = createNewConnection();
                 availableConnections.offer(conn);
                 log.info("✅ Connection #{} 생성 완료", i + 1);
             } catch (SQLException e) {
+                totalConnections.decrementAndGet();
                 log.error("❌ Connection 생성 실패: {}", e.getMessage());
             }
         }
         log.info("🎉 Connection Pool 초기화 완료: {} 개 연결 준비됨", availableConnections.size());
     }
     
+    /**
+     * 1단계 (비동기): 최소 연결 수만큼 executor에서 병렬로 생성
+     * 자리를 먼저 모두 잡아 두므로 그 사이 빌리러 온 스레드가 최대 크기를 넘겨 만들지 않음
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        int count = 0;
+        while (totalConnections.get() < minPoolSize && reserveSlot()) {
+            count++;
+        }
+        warmingUp.addAndGet(count);
+        CompletableFuture<?>[] creations = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            creations[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    availableConnections.offer(createNewConnection());
+                } catch (SQLException e) {
+                    totalConnections.decrementAndGet();
+                    log.error("❌ Connection 생성 실패: {}", e.getMessage());
+                } finally {
+                    warmingUp.decrementAndGet();
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(creations);
+    }
+    
+    // 살아 있는 연결(쉬는 것 + 빌려 간 것)이 최소 개수 이상인지 (readiness 판단용)
+    public boolean isWarm() {
+        return availableConnections.size() + usedConnections.size() >= minPoolSize;
+    }
+    
+    public int getMinimumIdle() {
+        return minPoolSize;
+    }
+    
     /**
      * 2단계: 연결 대여 (getConnection)
      */
+    @Override
     public Connection getConnection() throws SQLException {
         log.info("📞 Connection 요청 접수");
-        
-        // 2-1. 사용 가능한 연결이 있다면 바로 반환
-        Connection conn = availableConnections.poll();
-        
-        if (conn != null && isConnectionValid(conn)) {
-            usedConnections.add(conn);
-            log.info("♻️ [재사용] 기존 Connection 반환: {}", getConnectionId(conn));
-            return conn;
+        if (closed) {
+            throw new SQLException("Connection pool is shut down");
         }
-        
-        // 2-2. 사용 가능한 연결이 없고, 풀이 만료하지 않았다면 새로 생성
-        if (getTotalConnectionCount() < maxPoolSize) {
-            conn = createNewConnection();
-            usedConnections.add(conn);
-            log.info("🆕 [새로 생성] 새 Connection 반환: {}", getConnectionId(conn));
-            return conn;
+        outstanding.incrementAndGet();
+        try {
+            return borrow();
+        } catch (SQLException | RuntimeException e) {
+            outstanding.decrementAndGet();
+            throw e;
         }
+    }
+    
+    private Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitTime);
+        boolean waiting = false;
         
-        // 2-3. 풀이 꽉 찬 경우 대기
-        log.warn("⏳ 사용 가능한 Connection이 없습니다. 대기 중... (최대 {}ms)", maxWaitTime);
-        try {
-            conn = availableConnections.poll(maxWaitTime, TimeUnit.MILLISECONDS);
-            if (conn != null && isConnectionValid(conn)) {
-                usedConnections.add(conn);
-                log.info("⏰ [대기 후 획득] Connection 반환: {}", getConnectionId(conn));
-                return conn;
+        while (true) {
+            // 2-1. 사용 가능한 연결이 있다면 바로 반환
+            PooledConnection conn = availableConnections.poll();
+            boolean created = false;
+            
+            // 2-2. 사용 가능한 연결이 없고, 풀이 가득 차지 않았다면 새로 생성
+            //      (워밍업 중이면 만들지 않고 만들어지고 있는 연결을 기다림)
+            boolean warming = warmingUp.get() > 0;
+            if (conn == null && !warming && reserveSlot()) {
+                try {
+                    conn = createNewConnection();
+                    created = true;
+                } catch (SQLException e) {
+                    totalConnections.decrementAndGet();
+                    throw e;
+                }
+            }
+            
+            // 2-3. 풀이 꽉 찬 경우 남은 시간 동안 대기
+            if (conn == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (!waiting) {
+                    log.warn("⏳ 사용 가능한 Connection이 없습니다. 대기 중... (최대 {}ms)", TimeUnit.NANOSECONDS.toMillis(remaining));
+                    waiting = true;
+                }
+                try {
+                    // 조금씩 기다리며 다시 확인: 끊어진 연결이 버려져 자리가 났거나 워밍업의 생성이 실패했으면
+                    // 반납을 기다리지 않고 직접 만듦 (discard는 기다리는 스레드를 깨우지 않음)
+                    conn = availableConnections.poll(Math.min(remaining, RECHECK_NANOS), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (conn == null) {
+                    continue;
+                }
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            
+            // 최근에 쓰였던 연결은 살아 있다고 보고 검사 왕복을 건너뜀
+            if (created || start - conn.getLastUsedNanos() < validationSkipNanos || isConnectionValid(conn)) {
+                lend(conn, start);
+                log.info("{} Connection 반환: {}", created ? "🆕 [새로 생성]" : "♻️ [재사용]", conn.getId());
+                return conn.open(this);
+            }
+            
+            // 끊어진 연결은 버리고 다시 시도 (버린 자리만큼 새로 만들 수 있음)
+            log.warn("🚨 유효하지 않은 Connection 감지, 폐기 후 재시도: {}", conn.getId());
+            discard(conn);
         }
         
-        throw new SQLException("Connection pool exhausted!");
+        stats.recordTimeout(System.nanoTime() - start);
+        throw new SQLTransientConnectionException("Connection pool exhausted!");
+    }
+    
+    /**
+     * 풀 전체가 같은 계정을 쓰므로 계정별 연결은 지원하지 않음
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("DetailedConnectionPool uses the configured credentials");
+    }
+    
+    // 최대 크기를 넘지 않을 때만 연결 하나 만들 자리를 잡음
+    private boolean reserveSlot() {
+        while (true) {
+            int total = totalConnections.get();
+            if (total >= maxPoolSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // 사용 중 목록에 올리면서 대기 시간과 빌린 시각을 기록
+    private void lend(PooledConnection conn, long start) {
+        long now = System.nanoTime();
+        stats.recordAcquire(now - start);
+        LeakDetector.Lease lease = new LeakDetector.Lease();
+        leakDetector.begin(lease, now);
+        usedConnections.put(conn, lease);
+    }
+    
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        usedConnections.forEach((conn, lease) -> leakDetector.check(conn.getId(), lease, now));
     }
     
     /**
      * 3단계: 연결 반납 (close/return)
-     * 실제 JDBC에서는 close()가 호출되면 풀로 반환됨
+     * 실제 JDBC처럼 getConnection()으로 받은 연결의 close()를 호출하는 것과 같음
      */
     public void returnConnection(Connection conn) {
         if (conn == null) return;
         
         try {
-            // 3-1. 연결 상태 확인
-            if (!isConnectionValid(conn)) {
-                log.warn("🚨 유효하지 않은 Connection 감지, 새로 생성함");
-                // 유효하지 않은 연결은 제거하고 새로 생성
-                removeInvalidConnection(conn);
-                createAndAddNewConnection();
-                return;
-            }
-            
-            // 3-2. 연결 정리 (트랜잭션 롤백, 스테이트먼트 닫기 등)
-            resetConnectionState(conn);
-            
-            // 3-3. 사용 중 목록에서 제거
-            usedConnections.remove(conn);
+            conn.close();
+        } catch (SQLException e) {
+            log.error("❌ Connection 반환 중 오류: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * handle이 닫히면 호출됨. 같은 연결을 두 번 반납해도 한 번만 처리
+     */
+    void recycle(PooledConnection conn) {
+        // 3-1. 사용 중 목록에서 제거 (사용 시간 기록)
+        LeakDetector.Lease lease = usedConnections.remove(conn);
+        if (lease == null) {
+            return;
+        }
+        outstanding.decrementAndGet();
+        leakDetector.end(conn.getId(), lease, System.nanoTime());
+        
+        if (closed) {
+            discard(conn);
+            return;
+        }
+        
+        try {
+            // 3-2. 연결 정리 (트랜잭션 롤백, 스테이트먼트 정리 등) - 실패하면 끊어진 연결로 보고 버림
+            //      유효성 검사는 하지 않음: 방금까지 쓰던 연결이므로 다음 대여 때 검사 없이 나감
+            conn.reset();
+            conn.markUsed(System.nanoTime());
             
-            // 3-4. 사용 가능한 연결 풀로 반환
+            // 3-3. 사용 가능한 연결 풀로 반환
             availableConnections.offer(conn);
             
-            log.info("🔄 Connection 반환 완료: {}", getConnectionId(conn));
+            log.info("🔄 Connection 반환 완료: {}", conn.getId());
             
         } catch (SQLException e) {
             log.error("❌ Connection 반환 중 오류: {}", e.getMessage());
-            removeInvalidConnection(conn);
+            discard(conn);
+        }
+    }
+    
+    /**
+     * 백그라운드 keepalive: keepalive-time 넘게 쉬고 있는 연결을 큐에서 꺼내 검사
+     * 살아 있으면 돌려놓고, 끊어졌으면 버린 뒤 최소 개수까지 다시 채움
+     */
+    private void keepalive() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (PooledConnection conn : availableConnections) {
+            if (now - conn.getLastUsedNanos() < keepaliveNanos) {
+                continue;
+            }
+            // 그 사이 빌려 갔으면 건너뜀 (큐에서 꺼내는 데 성공한 쪽이 소유)
+            if (!availableConnections.remove(conn)) {
+                continue;
+            }
+            if (isConnectionValid(conn)) {
+                conn.markUsed(System.nanoTime());
+                availableConnections.offer(conn);
+            } else {
+                log.warn("💀 keepalive: 끊어진 Connection 폐기: {}", conn.getId());
+                discard(conn);
+                evicted++;
+            }
+        }
+        
+        int added = 0;
+        while (!closed && totalConnections.get() < minPoolSize && reserveSlot()) {
+            try {
+                availableConnections.offer(createNewConnection());
+                added++;
+            } catch (SQLException e) {
+                totalConnections.decrementAndGet();
+                log.error("❌ keepalive: 새 Connection 생성 실패: {}", e.getMessage());
+                break;
+            }
+        }
+        if (evicted > 0 || added > 0) {
+            log.info("💓 keepalive: {} 개 폐기, {} 개 보충 (전체 {} 개)", evicted, added, getTotalConnectionCount());
         }
     }
     
     /**
-     * Connection 생성
+     * Connection 생성 (자리는 호출하는 쪽이 reserveSlot()으로 먼저 잡음)
      */
-    private Connection createNewConnection() throws SQLException {
+    private PooledConnection createNewConnection() throws SQLException {
         Connection conn = DriverManager.getConnection(url, username, password);
         
         // 연결 설정
         conn.setAutoCommit(true);
+        stats.recordCreated();
         
-        log.info("🔨 새 Connection 생성: {}", getConnectionId(conn));
-        return conn;
+        PooledConnection pooled = new PooledConnection(conn, statementCacheSize, stats);
+        log.info("🔨 새 Connection 생성: {}", pooled.getId());
+        return pooled;
     }
     
     /**
      * Connection 유효성 검사
      */
-    private boolean isConnectionValid(Connection conn) {
+    private boolean isConnectionValid(PooledConnection conn) {
+        stats.recordValidation();
         try {
-            return conn != null && !conn.isClosed() && conn.isValid(5);
+            Connection physical = conn.getConnection();
+            return !physical.isClosed() && physical.isValid(5);
         } catch (SQLException e) {
             return false;
         }
     }
     
-    /**
-     * Connection 상태 리셋
-     */
-    private void resetConnectionState(Connection conn) throws SQLException {
-        // 1. 자동 커밋 모드 복원
-        if (!conn.getAutoCommit()) {
-            conn.rollback();
-            conn.setAutoCommit(true);
-        }
-        
-        // 2. 사용자 정의 상태 제거 (예: 세션 변수, 임시 테이블 등)
-        // conn.createStatement().execute("RESET CONNECTION");
-        
-        // 3. 캐시 정리
-        conn.clearWarnings();
+    // 실제 연결을 닫고 자리를 돌려줌 (다음 요청이 새로 만들 수 있음)
+    private void discard(PooledConnection conn) {
+        conn.close();
+        totalConnections.decrementAndGet();
+        stats.recordClosed();
     }
     
     /**
@@ -175,31 +430,67 @@ public class DetailedConnectionPool {
         log.info("  - 사용 가능: {} 개", availableConnections.size());
         log.info("  - 사용 중: {} 개", usedConnections.size());
         log.info("  - 전체: {} 개", getTotalConnectionCount());
+        log.info("  - 대기 시간: {}", stats.waitHistogram().summary());
+        log.info("  - 사용 시간: {}", stats.usageHistogram().summary());
+        log.info("  - 유효성 검사: {} 회", stats.validationCount());
+        log.info("  - Statement 캐시 적중률: {}%", String.format("%.1f", stats.statementHitRatio() * 100));
     }
     
-    private int getTotalConnectionCount() {
-        return availableConnections.size() + usedConnections.size();
+    public PoolStats getStats() {
+        return stats;
     }
     
-    private String getConnectionId(Connection conn) {
-        return conn.toString();
+    public int getTotalConnectionCount() {
+        return totalConnections.get();
     }
     
-    private void removeInvalidConnection(Connection conn) {
-        usedConnections.remove(conn);
-        try {
-            conn.close();
-        } catch (SQLException e) {
-            // 이미 닫힌 연결일 수 있음
-        }
+    public int getActiveConnections() {
+        return usedConnections.size();
     }
     
-    private void createAndAddNewConnection() {
-        try {
-            Connection newConn = createNewConnection();
-            availableConnections.offer(newConn);
-        } catch (SQLException e) {
-            log.error("❌ 새 Connection 생성 실패: {}", e.getMessage());
+    public int getOutstandingRequests() {
+        return outstanding.get();
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+    
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // 로그는 slf4j로만 남김
+    }
+    
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // 연결 대기 시간은 database.detailed.connection-timeout으로 정함
+    }
+    
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(maxWaitTime);
+    }
+    
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
         }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
     }
 }
@@ -0,0 +1,43 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * DetailedConnectionPool 설정 (application.yml의 database.detailed.*)
+ */
+@ConfigurationProperties(prefix = "database.detailed")
+@Data
+public class DetailedPoolProperties {
+    // 기본값은 함께 들어 있는 H2 메모리 DB (마지막 연결이 닫혀도 DB를 유지)
+    private String url = "jdbc:h2:mem:detailed;DB_CLOSE_DELAY=-1";
+    private String username = "sa";
+    private String password = "";
+    
+    // 시작할 때 미리 만들어 두는 연결 수
+    private int minimumIdle = 5;
+    
+    // true면 생성자에서 연결을 만들지 않고, 애플리케이션이 준비된 뒤 PoolWarmup이 병렬로 채움
+    // (그 전에 온 요청은 만들고 있는 연결을 기다림)
+    private boolean warmupAsync = false;
+    
+    // 모자라면 빌리는 스레드가 직접 이 크기까지 만듦
+    private int maximumPoolSize = 10;
+    
+    // 최대 크기에 도달했을 때 반납을 기다리는 최대 시간
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+    
+    // 이 시간 안에 쓰였던 연결은 빌려 줄 때 isValid() 왕복을 건너뜀 (0이면 매번 검사)
+    private Duration validationSkipWindow = Duration.ofMillis(500);
+    
+    // 이 시간 넘게 쉬고 있는 연결은 백그라운드에서 검사해 끊어진 것을 미리 버림 (0이면 끔)
+    private Duration keepaliveTime = Duration.ofMinutes(2);
+    
+    // 이 시간보다 오래 반납되지 않은 연결을 누수로 의심 (0이면 끔)
+    private Duration leakDetectionThreshold = Duration.ZERO;
+    
+    // 연결마다 SQL 문자열별로 준비해 두는 PreparedStatement 수 (LRU, 0이면 캐시하지 않음)
+    private int statementCacheSize = 64;
+}
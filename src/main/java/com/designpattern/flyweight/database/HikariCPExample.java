@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * 실무에서 널리 사용되는 HikariCP 예시
@@ -14,6 +15,7 @@ import org.springframework.context.annotation.Configuration;
 public class HikariCPExample {
     
     @Bean  // 스프링이 싱글톤으로 관리
+    @Primary  // DataSource 빈이 여럿(DetailedConnectionPool 등)이므로 JPA 등 기본 주입 대상을 지정
     public HikariDataSource dataSource() {
         HikariConfig config = new HikariConfig();
         
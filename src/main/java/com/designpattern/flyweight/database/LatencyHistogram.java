@@ -0,0 +1,93 @@
+package com.designpattern.flyweight.database;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고정 구간 지연 히스토그램 (구간마다 LongAdder 하나)
+ * 풀 크기를 정할 때 필요한 건 "대부분 몇 ms 안에 끝나는가" 정도라서
+ * 1ms ~ 60s를 1-2.5-5 간격으로 나눈 구간이면 충분하고, 기록은 비교 몇 번 + 더하기 한 번
+ */
+public class LatencyHistogram {
+    // 구간 상한 (ms). 마지막 구간 뒤는 overflow
+    private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, 60_000};
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BOUNDS_MILLIS[i]);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+    }
+
+    public static long[] boundsMillis() {
+        return BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * 상한이 boundMillis 이하인 구간까지의 누적 개수 (Prometheus 히스토그램의 le 구간과 같은 의미)
+     */
+    public long countAtOrBelow(long boundMillis) {
+        long count = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length && BOUNDS_MILLIS[i] <= boundMillis; i++) {
+            count += buckets[i].sum();
+        }
+        return count;
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * p(0~1) 분위가 들어 있는 구간의 상한 (ms). 기록이 없으면 0, 마지막 구간을 넘으면 -1
+     */
+    public long percentileMillis(double p) {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    // 예: "p50 ≤ 5ms, p99 ≤ 250ms"
+    public String summary() {
+        return String.format("p50 ≤ %s, p99 ≤ %s", format(percentileMillis(0.50)), format(percentileMillis(0.99)));
+    }
+
+    private static String format(long millis) {
+        return (millis < 0) ? ">" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms" : millis + "ms";
+    }
+}
@@ -0,0 +1,84 @@
+package com.designpattern.flyweight.database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 빌려 간 뒤 오래 돌아오지 않는 연결(누수 의심)을 찾아 빌려 간 위치를 로그로 남김
+ *
+ * 빌릴 때는 시각만 기록하고, 빌려 간 위치(스택 트레이스)는 누수 감지를 켰을 때만 만듦
+ * 검사는 요청 경로가 아니라 풀의 백그라운드 스레드가 주기적으로 사용 중인 연결을 훑으며 함
+ */
+@Slf4j
+final class LeakDetector {
+    private final long thresholdNanos;
+    private final PoolStats stats;
+
+    LeakDetector(Duration threshold, PoolStats stats) {
+        this.thresholdNanos = threshold.toNanos();
+        this.stats = stats;
+    }
+
+    boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    // threshold를 넘긴 뒤 늦어도 절반만큼 더 지나면 알아차리도록
+    long checkPeriodMillis() {
+        return Math.max(100, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2);
+    }
+
+    /**
+     * 대여 하나의 기록. 연결마다 하나를 만들어 두고 빌릴 때마다 다시 씀
+     */
+    static final class Lease {
+        // 0이면 빌려 가지 않은 상태
+        private volatile long borrowedNanos;
+        private Throwable borrowSite;
+        private volatile boolean reported;
+
+        long getBorrowedNanos() {
+            return borrowedNanos;
+        }
+    }
+
+    void begin(Lease lease, long now) {
+        lease.borrowSite = isEnabled() ? new Throwable("연결을 빌려 간 위치") : null;
+        lease.reported = false;
+        lease.borrowedNanos = now;
+    }
+
+    // 반납 시 호출: 사용 시간 기록, 누수로 경고했던 대여면 결국 돌아왔음을 남김
+    void end(String connectionId, Lease lease, long now) {
+        long borrowedNanos = lease.borrowedNanos;
+        if (borrowedNanos == 0) {
+            return;
+        }
+        lease.borrowedNanos = 0;
+        long heldNanos = now - borrowedNanos;
+        stats.recordUsage(heldNanos);
+        if (lease.reported) {
+            log.info("🚰 누수 의심이던 연결이 반납됨: {} ({}ms 사용)", connectionId, TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        }
+        lease.borrowSite = null;
+    }
+
+    // 백그라운드 검사: threshold를 넘겨 쥐고 있는 대여마다 한 번만 경고
+    void check(String connectionId, Lease lease, long now) {
+        long borrowedNanos = lease.borrowedNanos;
+        if (borrowedNanos == 0 || now - borrowedNanos <= thresholdNanos || lease.reported) {
+            return;
+        }
+        lease.reported = true;
+        stats.recordLeak();
+        long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - borrowedNanos);
+        if (lease.borrowSite != null) {
+            log.warn("🚰 연결 누수 의심: {} 가 {}ms 동안 반납되지 않았습니다. 빌려 간 위치:",
+                connectionId, heldMillis, lease.borrowSite);
+        } else {
+            log.warn("🚰 연결 누수 의심: {} 가 {}ms 동안 반납되지 않았습니다.", connectionId, heldMillis);
+        }
+    }
+}
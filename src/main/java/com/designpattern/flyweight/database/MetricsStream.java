@@ -0,0 +1,192 @@
+package com.designpattern.flyweight.database;
+
+import com.designpattern.flyweight.cache.CacheStats;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 연결 풀 + 플라이웨이트 캐시 지표를 Server-Sent Events로 밀어 주는 스트림 (/database/stream)
+ *
+ * - 화면이 /database/status를 주기적으로 물어보는 대신, 정해진 주기마다 스냅샷 하나를 만들어 모든 구독자에게 보냄
+ *   그 사이에 바뀐 값은 다음 스냅샷 하나로 합쳐짐 (이벤트마다 보내지 않음)
+ * - 스냅샷은 구독자 수와 관계없이 주기마다 한 번만 만들고 JSON 문자열로 한 번만 직렬화함
+ *   읽는 값은 모두 LongAdder/AtomicInteger 카운터라 풀이나 캐시를 훑지 않음
+ * - 구독자가 없으면 스냅샷을 만들지 않음
+ * - 새 구독자에게는 마지막 스냅샷을 바로 보내 다음 주기까지 빈 화면이 되지 않게 함
+ */
+@Component
+@EnableConfigurationProperties(MetricsStreamProperties.class)
+@Slf4j
+public class MetricsStream {
+    private final ConnectionPool connectionPool;
+    private final DatabaseService databaseService;
+    private final FlyweightCacheRegistry cacheRegistry;
+    private final MetricsStreamProperties properties;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService publisher;
+    
+    // ===== publisher 스레드에서만 씀 =====
+    private long lastAcquires;
+    private long lastTimeouts;
+    private long lastPublishedNanos;
+    private volatile String latest;
+    
+    public MetricsStream(ConnectionPool connectionPool, DatabaseService databaseService,
+                         FlyweightCacheRegistry cacheRegistry, MetricsStreamProperties properties) {
+        this.connectionPool = connectionPool;
+        this.databaseService = databaseService;
+        this.cacheRegistry = cacheRegistry;
+        this.properties = properties;
+        this.publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PostConstruct
+    public void start() {
+        long period = properties.getInterval().toMillis();
+        publisher.scheduleAtFixedRate(this::publish, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        publisher.shutdownNow();
+        for (SseEmitter emitter : subscribers) {
+            emitter.complete();
+        }
+        subscribers.clear();
+    }
+    
+    /**
+     * 새 구독자 등록. 끊기거나 시간이 다 되면 목록에서 빠짐
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        String snapshot = latest;
+        if (snapshot != null) {
+            send(emitter, snapshot);
+        }
+        log.info("📡 지표 스트림 구독 (현재 {}명)", subscribers.size());
+        return emitter;
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    private void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            String snapshot = snapshot();
+            latest = snapshot;
+            for (SseEmitter emitter : subscribers) {
+                send(emitter, snapshot);
+            }
+        } catch (RuntimeException e) {
+            // 예외가 나가면 scheduleAtFixedRate가 이후 실행을 멈추므로 여기서 삼킴
+            log.warn("⚠️ 지표 스냅샷 전송 실패: {}", e.getMessage());
+        }
+    }
+    
+    private void send(SseEmitter emitter, String snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("metrics").data(snapshot));
+        } catch (IOException | IllegalStateException e) {
+            // 브라우저가 떠났거나 이미 끝난 연결
+            subscribers.remove(emitter);
+        }
+    }
+    
+    /**
+     * 지금 값으로 JSON 스냅샷 하나를 만듦. 초당 값은 직전 스냅샷과의 차이로 계산
+     */
+    String snapshot() {
+        long now = System.nanoTime();
+        PoolStats stats = connectionPool.getStats();
+        long acquires = stats.acquireCount();
+        long timeouts = stats.timeoutCount();
+        double seconds = (lastPublishedNanos == 0) ? 0 : (now - lastPublishedNanos) / 1e9;
+        double acquiresPerSecond = (seconds > 0) ? (acquires - lastAcquires) / seconds : 0;
+        double timeoutsPerSecond = (seconds > 0) ? (timeouts - lastTimeouts) / seconds : 0;
+        lastAcquires = acquires;
+        lastTimeouts = timeouts;
+        lastPublishedNanos = now;
+        
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"timestamp\":").append(System.currentTimeMillis());
+        json.append(",\"pool\":{");
+        json.append("\"size\":").append(connectionPool.getPoolSize());
+        json.append(",\"maximumSize\":").append(connectionPool.getMaximumPoolSize());
+        json.append(",\"active\":").append(connectionPool.getActiveConnections());
+        json.append(",\"available\":").append(connectionPool.getAvailableConnections());
+        json.append(",\"pending\":").append(connectionPool.getPendingThreads());
+        json.append(",\"acquires\":").append(acquires);
+        json.append(",\"acquiresPerSecond\":").append(round(acquiresPerSecond));
+        json.append(",\"timeouts\":").append(timeouts);
+        json.append(",\"timeoutsPerSecond\":").append(round(timeoutsPerSecond));
+        json.append(",\"averageWaitMillis\":").append(round(stats.averageWaitMillis()));
+        json.append(",\"maxWaitMillis\":").append(round(stats.maxWaitNanos() / 1e6));
+        json.append(",\"leaks\":").append(stats.leakCount());
+        json.append("},\"queries\":{");
+        json.append("\"averageBatchSize\":").append(round(databaseService.getAverageBatchSize()));
+        json.append(",\"resultCacheHitRate\":").append(round(databaseService.getResultCacheHitRate()));
+        json.append(",\"bulkheads\":").append(quote(databaseService.getBulkheadSummary()));
+        json.append("},\"caches\":[");
+        boolean first = true;
+        for (FlyweightCacheRegistry.RegisteredCache cache : cacheRegistry.getCaches()) {
+            CacheStats cacheStats = cache.getStats();
+            json.append(first ? "" : ",");
+            json.append("{\"name\":").append(quote(cache.getName()));
+            json.append(",\"size\":").append(cache.size());
+            json.append(",\"hits\":").append(cacheStats.hitCount());
+            json.append(",\"misses\":").append(cacheStats.missCount());
+            json.append(",\"hitRate\":").append(round(cacheStats.hitRate()));
+            json.append(",\"evictions\":").append(cacheStats.evictionCount());
+            json.append(",\"retainedBytes\":").append(cacheStats.retainedBytes());
+            json.append('}');
+            first = false;
+        }
+        json.append("]}");
+        return json.toString();
+    }
+    
+    // 소수점 셋째 자리까지 (JSON 크기를 줄이려고)
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+    
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 풀/캐시 지표 스트림 설정 (application.yml의 database.stream.*)
+ */
+@ConfigurationProperties(prefix = "database.stream")
+@Data
+public class MetricsStreamProperties {
+    // 스냅샷을 만들어 보내는 주기 (구독자가 몇이든 주기마다 한 번만 만듦)
+    private Duration interval = Duration.ofSeconds(1);
+    
+    // 연결 하나를 열어 두는 최대 시간 (지나면 브라우저의 EventSource가 알아서 다시 연결)
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -2,6 +2,8 @@ package com.designpattern.flyweight.database;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * MySQL 연결 구현 (구체적인 플라이웨이트)
  * Intrinsic State: 데이터베이스 타입, 기본 연결 정보
@@ -11,7 +13,7 @@ public class MySQLConnection implements DatabaseConnection {
     private final String connectionId;
     private final String host;
     private final int port;
-    private boolean inUse = false;
+    private final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
     
     public MySQLConnection(String host, int port) {
         this.host = host;
@@ -37,15 +39,25 @@ public class MySQLConnection implements DatabaseConnection {
     
     @Override
     public boolean isInUse() {
-        return inUse;
+        return state.get() == STATE_IN_USE;
     }
     
     @Override
     public void setInUse(boolean inUse) {
-        this.inUse = inUse;
+        state.set(inUse ? STATE_IN_USE : STATE_NOT_IN_USE);
         log.info("📋 [{}] 사용 상태 변경: {}", connectionId, inUse ? "사용중" : "사용가능");
     }
     
+    @Override
+    public int getState() {
+        return state.get();
+    }
+    
+    @Override
+    public boolean compareAndSetState(int expect, int update) {
+        return state.compareAndSet(expect, update);
+    }
+    
     @Override
     public String getId() {
         return connectionId;
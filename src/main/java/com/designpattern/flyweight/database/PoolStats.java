@@ -0,0 +1,143 @@
+package com.designpattern.flyweight.database;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 연결 풀 대기 / 사용 / 생성 통계
+ * 빌릴 때마다 갱신되므로 CacheStats처럼 스레드별로 분산되는 LongAdder를 사용
+ *
+ * 대기 시간(빌리기까지)과 사용 시간(빌린 뒤 반납까지)은 히스토그램으로도 모아서
+ * 풀 크기를 추측이 아니라 분포를 보고 정할 수 있게 함
+ */
+public class PoolStats {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder totalUsageNanos = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+    private final LatencyHistogram usageHistogram = new LatencyHistogram();
+
+    void recordAcquire(long waitNanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+        waitHistogram.record(waitNanos);
+    }
+
+    void recordTimeout(long waitNanos) {
+        timeouts.increment();
+        maxWaitNanos.accumulate(waitNanos);
+        waitHistogram.record(waitNanos);
+    }
+
+    // 빌린 뒤 반납까지 걸린 시간
+    void recordUsage(long holdNanos) {
+        usages.increment();
+        totalUsageNanos.add(holdNanos);
+        usageHistogram.record(holdNanos);
+    }
+
+    void recordLeak() {
+        leaks.increment();
+    }
+
+    // 연결에 isValid() 왕복을 보낸 횟수 (빌릴 때 + 백그라운드 keepalive)
+    void recordValidation() {
+        validations.increment();
+    }
+
+    // PreparedStatement 캐시: 연결에 이미 준비된 문장을 다시 썼는지
+    void recordStatementHit() {
+        statementHits.increment();
+    }
+
+    void recordStatementMiss() {
+        statementMisses.increment();
+    }
+
+    void recordCreated() {
+        created.increment();
+    }
+
+    void recordClosed() {
+        closed.increment();
+    }
+
+    public long acquireCount() {
+        return acquisitions.sum();
+    }
+
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public long maxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    // 풀이 지금까지 만든 / 정리한 연결 수 (유휴 정리, 수명 만료 포함)
+    public long createdCount() {
+        return created.sum();
+    }
+
+    public long closedCount() {
+        return closed.sum();
+    }
+
+    public long usageCount() {
+        return usages.sum();
+    }
+
+    public long totalUsageNanos() {
+        return totalUsageNanos.sum();
+    }
+
+    // 누수 의심으로 경고한 횟수 (leak-detection-threshold를 넘겨 쥐고 있던 대여)
+    public long leakCount() {
+        return leaks.sum();
+    }
+
+    public long validationCount() {
+        return validations.sum();
+    }
+
+    public long statementHitCount() {
+        return statementHits.sum();
+    }
+
+    public long statementMissCount() {
+        return statementMisses.sum();
+    }
+
+    public double statementHitRatio() {
+        long hits = statementHitCount();
+        long total = hits + statementMissCount();
+        return (total == 0) ? 0.0 : (double) hits / total;
+    }
+
+    public LatencyHistogram waitHistogram() {
+        return waitHistogram;
+    }
+
+    public LatencyHistogram usageHistogram() {
+        return usageHistogram;
+    }
+
+    public double averageWaitMillis() {
+        long count = acquireCount();
+        return (count == 0) ? 0.0 : totalWaitNanos() / 1e6 / count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * warmup-async인 연결 풀들을 애플리케이션이 준비된 뒤(ApplicationReadyEvent) 병렬로 채움
+ *
+ * - 연결 생성 시간이 Spring 컨텍스트 시작 시간에 더해지지 않음
+ * - 모든 풀의 연결을 한 executor에서 함께 만들어, 풀마다 차례로 만드는 것보다 빨리 끝남
+ * - 요청을 받는 풀(DatabaseService의 ConnectionPool)이 최소 연결 수를 채우기 전에는
+ *   PoolWarmupHealthIndicator가 OUT_OF_SERVICE (readiness). 예제용 DetailedConnectionPool은 채우기만 하고 기다리지 않음
+ * - 한 번 준비되면 계속 준비 상태: 유휴 정리나 DB 순간 장애로 풀이 잠깐 줄어도 인스턴스를 트래픽에서 빼지 않음
+ */
+@Component
+@Slf4j
+public class PoolWarmup {
+    // 동시에 만드는 연결 수 상한 (DB가 한꺼번에 받을 수 있는 연결 요청 수를 넘지 않게)
+    private static final int MAX_PARALLELISM = 8;
+    
+    private final ConnectionPool connectionPool;
+    private final DetailedConnectionPool detailedConnectionPool;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile long warmupMillis = -1;
+    
+    public PoolWarmup(ConnectionPool connectionPool, DetailedConnectionPool detailedConnectionPool) {
+        this.connectionPool = connectionPool;
+        this.detailedConnectionPool = detailedConnectionPool;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        int connections = connectionPool.getMinimumIdle();
+        for (DetailedConnectionPool pool : detailedPools()) {
+            connections += pool.getMinimumIdle();
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_PARALLELISM, connections)), r -> {
+            Thread thread = new Thread(r, "pool-warmup-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // warmup-async가 아닌 풀은 생성자에서 이미 채웠으므로 만들 것이 없음
+        List<CompletableFuture<Void>> warmups = new ArrayList<>();
+        warmups.add(connectionPool.warmUp(executor));
+        for (DetailedConnectionPool pool : detailedPools()) {
+            warmups.add(pool.warmUp(executor));
+        }
+        CompletableFuture.allOf(warmups.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            isReady();
+            log.info("🔥 연결 풀 워밍업 완료: {}ms (JVM 시작 후 {}ms)",
+                warmupMillis, ManagementFactory.getRuntimeMXBean().getUptime());
+        });
+    }
+    
+    private List<DetailedConnectionPool> detailedPools() {
+        return List.of(detailedConnectionPool);
+    }
+    
+    /**
+     * 요청을 받는 풀이 한 번이라도 최소 연결 수를 채웠는지
+     * 워밍업이 끝났어도 DB에 연결하지 못해 모자라면 false, 한 번 true가 되면 계속 true
+     */
+    public boolean isReady() {
+        if (ready) {
+            return true;
+        }
+        if (!connectionPool.isWarm()) {
+            return false;
+        }
+        ready = true;
+        log.info("✅ 연결 풀 준비 완료: readiness UP");
+        return true;
+    }
+    
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+    
+    public List<DetailedConnectionPool> getDetailedPools() {
+        return detailedPools();
+    }
+    
+    // 워밍업에 걸린 시간 (아직 끝나지 않았으면 -1)
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+}
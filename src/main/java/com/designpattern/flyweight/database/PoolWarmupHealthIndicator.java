@@ -0,0 +1,32 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청을 받는 연결 풀이 처음 최소 연결 수를 채우기 전에는 OUT_OF_SERVICE (이후에는 계속 UP)
+ * application.yml에서 readiness 그룹에 포함시켜 연결이 준비되지 않은 인스턴스로 트래픽이 가지 않게 함
+ * (/actuator/health/readiness)
+ */
+@Component
+public class PoolWarmupHealthIndicator implements HealthIndicator {
+    private final PoolWarmup poolWarmup;
+    
+    public PoolWarmupHealthIndicator(PoolWarmup poolWarmup) {
+        this.poolWarmup = poolWarmup;
+    }
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = poolWarmup.isReady() ? Health.up() : Health.outOfService();
+        ConnectionPool connectionPool = poolWarmup.getConnectionPool();
+        builder.withDetail("connection-pool", connectionPool.getPoolSize() + "/" + connectionPool.getMinimumIdle());
+        for (DetailedConnectionPool pool : poolWarmup.getDetailedPools()) {
+            builder.withDetail(pool.getUrl(), pool.getTotalConnectionCount() + "/" + pool.getMinimumIdle());
+        }
+        return builder
+            .withDetail("warmupMillis", poolWarmup.getWarmupMillis())
+            .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.designpattern.flyweight.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DetailedConnectionPool이 관리하는 실제 JDBC 연결 하나
+ *
+ * 빌려 줄 때마다 Connection 프록시(handle)를 새로 만들어 줌
+ * - close()하면 실제 연결을 닫지 않고 풀로 돌려보냄 (이미 닫은 handle은 더 쓸 수 없음)
+ * - prepareStatement(sql)는 연결별 StatementCache를 거침
+ * - 그 밖에 만든 Statement는 반납할 때 모두 닫음
+ */
+final class PooledConnection {
+    private final Connection connection;
+    private final StatementCache statements;
+    private final boolean cacheStatements;
+    // 캐시를 거치지 않은 문장: 호출자가 닫지 않았어도 반납할 때 닫음
+    private final List<Statement> openStatements = new ArrayList<>();
+    private final List<PreparedStatement> uncachedStatements = new ArrayList<>();
+    // 마지막으로 쓰였음이 확인된 시각 (만들었거나, 반납됐거나, 검사를 통과한 때)
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    PooledConnection(Connection connection, int statementCacheSize, PoolStats stats) {
+        this.connection = connection;
+        this.statements = new StatementCache(connection, statementCacheSize, stats);
+        this.cacheStatements = statementCacheSize > 0;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    String getId() {
+        return connection.toString();
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    void markUsed(long now) {
+        lastUsedNanos = now;
+    }
+
+    int getCachedStatementCount() {
+        return statements.size();
+    }
+
+    /**
+     * 호출자에게 줄 handle. 닫으면 pool.recycle(this)로 돌아감
+     */
+    Connection open(DetailedConnectionPool pool) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Handle(pool));
+    }
+
+    /**
+     * 다음 사용자를 위해 상태를 되돌림 (트랜잭션 롤백, 남은 문장 정리)
+     */
+    void reset() throws SQLException {
+        statements.releaseAll();
+        for (Statement statement : openStatements) {
+            statement.close();
+        }
+        openStatements.clear();
+        for (Statement statement : uncachedStatements) {
+            statement.close();
+        }
+        uncachedStatements.clear();
+
+        if (!connection.getAutoCommit()) {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        connection.clearWarnings();
+    }
+
+    void close() {
+        statements.closeAll();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // 이미 닫힌 연결일 수 있음
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final DetailedConnectionPool pool;
+        private volatile boolean closed;
+
+        Handle(DetailedConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.recycle(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled(" + getId() + ")";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (cacheStatements && method.getName().equals("prepareStatement") && args.length == 1) {
+                return statements.prepare((String) args[0], uncachedStatements);
+            }
+            try {
+                Object result = method.invoke(connection, args);
+                if (result instanceof Statement) {
+                    openStatements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 쿼리 묶어 실행하기 설정 (application.yml의 database.batch.*)
+ */
+@ConfigurationProperties(prefix = "database.batch")
+@Data
+public class QueryBatchProperties {
+    // 끄면 쿼리마다 연결을 빌려 실행
+    private boolean enabled = true;
+    
+    // 첫 쿼리가 들어온 뒤 이 시간 동안 들어온 쿼리를 한 묶음으로 모음
+    private Duration window = Duration.ofMillis(5);
+    
+    // 시간 창이 끝나기 전이라도 이만큼 모이면 바로 실행
+    private int maxSize = 32;
+}
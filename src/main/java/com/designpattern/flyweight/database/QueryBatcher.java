@@ -0,0 +1,168 @@
+package com.designpattern.flyweight.database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 짧은 시간 창 안에 들어온 쿼리를 모아 연결 하나로 한 번에 실행 (micro-batching)
+ *
+ * 1. submit()은 쿼리를 큐에 넣고 바로 CompletableFuture를 돌려줌
+ * 2. 모으는 스레드가 첫 쿼리를 받은 뒤 window 동안(또는 maxBatchSize개가 찰 때까지) 더 모음
+ * 3. 모은 묶음은 executor에서 BatchExecutor로 실행 (연결 하나를 빌려 JDBC 배치 또는 연달아 실행)
+ *    - 묶음끼리는 병렬로 실행되므로 동시에 쓰는 연결 수는 여전히 풀이 제한
+ * 4. 결과를 쿼리 순서대로 각 호출자의 future에 나눠 줌. 묶음이 실패하면 그 묶음의 future 모두 실패
+ *
+ * 연결 빌리기/반납, 연결 설정, 왕복을 쿼리마다가 아니라 묶음마다 한 번 함
+ * 대신 각 쿼리가 창만큼 더 기다릴 수 있으므로 처리량이 나아지는지는 부하에 따라 다름
+ * (아직 측정하지 않음: QueryBatchingBenchmark)
+ */
+@Slf4j
+public class QueryBatcher<Q, R> implements AutoCloseable {
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BatchExecutor<Q, R> batchExecutor;
+    private final Executor executor;
+    private final BlockingQueue<Pending<Q, R>> queue = new LinkedBlockingQueue<>();
+    private final Thread collector;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * 모은 쿼리 묶음을 연결 하나로 실행하고, 쿼리 순서대로 결과를 돌려줌
+     */
+    @FunctionalInterface
+    public interface BatchExecutor<Q, R> {
+        List<R> execute(List<Q> batch) throws Exception;
+    }
+
+    private static final class Pending<Q, R> {
+        final Q query;
+        final CompletableFuture<R> result = new CompletableFuture<>();
+
+        Pending(Q query) {
+            this.query = query;
+        }
+    }
+
+    public QueryBatcher(String name, Duration window, int maxBatchSize, BatchExecutor<Q, R> batchExecutor, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchExecutor = batchExecutor;
+        this.executor = executor;
+        this.collector = new Thread(this::collect, name + "-batcher");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    public CompletableFuture<R> submit(Q query) {
+        Pending<Q, R> pending = new Pending<>(query);
+        if (closed) {
+            pending.result.completeExceptionally(new IllegalStateException(name + " batcher is closed"));
+            return pending.result;
+        }
+        queue.add(pending);
+        // 넣는 사이에 닫혔으면 모으는 스레드가 이미 끝났을 수 있음
+        if (closed && queue.remove(pending)) {
+            pending.result.completeExceptionally(new IllegalStateException(name + " batcher is closed"));
+        }
+        return pending.result;
+    }
+
+    private void collect() {
+        List<Pending<Q, R>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!closed) {
+                // 첫 쿼리가 올 때까지 기다린 뒤, 시간 창이 끝나거나 묶음이 찰 때까지 더 모음
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<Q, R> next = (remaining > 0) ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(new ArrayList<>(batch));
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 닫히면서 남은 쿼리는 실패 처리
+        batch.addAll(queue);
+        queue.clear();
+        for (Pending<Q, R> pending : batch) {
+            pending.result.completeExceptionally(new IllegalStateException(name + " batcher is closed"));
+        }
+    }
+
+    private void dispatch(List<Pending<Q, R>> batch) {
+        batches.increment();
+        queries.add(batch.size());
+        try {
+            executor.execute(() -> run(batch));
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void run(List<Pending<Q, R>> batch) {
+        List<Q> batchQueries = new ArrayList<>(batch.size());
+        for (Pending<Q, R> pending : batch) {
+            batchQueries.add(pending.query);
+        }
+        try {
+            List<R> results = batchExecutor.execute(batchQueries);
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("expected " + batch.size() + " results but got " + results.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (Exception e) {
+            log.warn("❌ [{}] 쿼리 {}개 묶음 실행 실패: {}", name, batch.size(), e.getMessage());
+            fail(batch, e);
+        }
+    }
+
+    private void fail(List<Pending<Q, R>> batch, Throwable error) {
+        for (Pending<Q, R> pending : batch) {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    public long queryCount() {
+        return queries.sum();
+    }
+
+    public double averageBatchSize() {
+        long count = batchCount();
+        return (count == 0) ? 0.0 : (double) queryCount() / count;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+    }
+}
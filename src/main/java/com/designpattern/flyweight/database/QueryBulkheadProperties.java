@@ -0,0 +1,52 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 쿼리 종류별 벌크헤드 설정 (application.yml의 database.bulkhead.*)
+ */
+@ConfigurationProperties(prefix = "database.bulkhead")
+@Data
+public class QueryBulkheadProperties {
+    // 끄면 모든 쿼리가 연결 풀을 바로 나눠 씀
+    private boolean enabled = true;
+    
+    // 자리가 나기를 기다리는 최대 시간. 넘으면 풀에 닿기 전에 거절
+    private Duration maxWait = Duration.ofSeconds(1);
+    
+    private Map<QueryClass, Share> classes = defaults();
+    
+    @Data
+    public static class Share {
+        // 연결 풀 최대 크기 중 이 종류가 동시에 쓸 수 있는 몫 (합이 1 이하면 종류끼리 서로 굶기지 않음)
+        private double share;
+        
+        // 이보다 오래 걸리면 동시 실행 수를 줄임
+        private Duration targetLatency;
+        
+        // 제한을 넘는 요청을 이만큼까지 줄 세움
+        private int queueSize;
+        
+        public Share() {
+        }
+        
+        public Share(double share, Duration targetLatency, int queueSize) {
+            this.share = share;
+            this.targetLatency = targetLatency;
+            this.queueSize = queueSize;
+        }
+    }
+    
+    private static Map<QueryClass, Share> defaults() {
+        Map<QueryClass, Share> classes = new EnumMap<>(QueryClass.class);
+        classes.put(QueryClass.READ, new Share(0.6, Duration.ofSeconds(2), 50));
+        classes.put(QueryClass.WRITE, new Share(0.3, Duration.ofSeconds(2), 20));
+        classes.put(QueryClass.ADMIN, new Share(0.1, Duration.ofSeconds(30), 5));
+        return classes;
+    }
+}
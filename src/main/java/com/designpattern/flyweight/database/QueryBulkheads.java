@@ -0,0 +1,90 @@
+package com.designpattern.flyweight.database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 쿼리 종류(읽기/쓰기/관리)별 벌크헤드
+ *
+ * 종류마다 연결 풀 최대 크기의 몫만큼만 동시에 실행되게 해서
+ * 한 종류의 느린 쿼리가 풀을 다 차지해도 다른 종류는 자기 몫의 연결을 계속 씀
+ * 몫 안에서는 AdaptiveLimit이 관찰한 지연에 따라 동시 실행 수를 더 줄이고, 넘치는 요청은 줄 세우거나 거절
+ * 자리 하나 = 연결 하나: 묶어 실행할 때는 DatabaseService가 묶음마다 자리를 하나 얻음
+ */
+@Slf4j
+public class QueryBulkheads {
+    private final Map<QueryClass, AdaptiveLimit> limits = new EnumMap<>(QueryClass.class);
+    private final long maxWaitNanos;
+
+    public QueryBulkheads(QueryBulkheadProperties properties, int poolCapacity) {
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        for (QueryClass queryClass : QueryClass.values()) {
+            QueryBulkheadProperties.Share share = properties.getClasses().get(queryClass);
+            if (share == null) {
+                throw new IllegalArgumentException("database.bulkhead.classes." + queryClass.name().toLowerCase() + " is missing");
+            }
+            int maxLimit = maxLimit(poolCapacity, share);
+            limits.put(queryClass, new AdaptiveLimit(queryClass.name().toLowerCase(), maxLimit,
+                share.getTargetLatency().toNanos(), share.getQueueSize()));
+            log.info("🚧 벌크헤드 {}: 최대 동시 {} 개 (풀 {} 개 중), 대기열 {}", queryClass, maxLimit, poolCapacity, share.getQueueSize());
+        }
+    }
+
+    /**
+     * 종류별 최대 동시 실행 수 (풀 최대 크기 × 몫, 최소 1)
+     */
+    static int maxLimit(int poolCapacity, QueryBulkheadProperties.Share share) {
+        return (int) Math.max(1, Math.round(poolCapacity * share.getShare()));
+    }
+
+    /**
+     * 실행 자리. 쿼리가 끝나면 release를 한 번 호출
+     */
+    public static final class Permit {
+        private final AdaptiveLimit limit;
+        private final long startNanos = System.nanoTime();
+
+        private Permit(AdaptiveLimit limit) {
+            this.limit = limit;
+        }
+
+        public void release(boolean success) {
+            limit.release(System.nanoTime() - startNanos, success);
+        }
+    }
+
+    /**
+     * 자리를 얻을 때까지 (최대 max-wait) 기다림. 거절되면 null
+     */
+    public Permit acquire(QueryClass queryClass) throws InterruptedException {
+        AdaptiveLimit limit = limits.get(queryClass);
+        if (!limit.acquire(maxWaitNanos)) {
+            log.warn("🚧 {} 벌크헤드가 가득 차 쿼리를 거절함: {}", queryClass, limit.summary());
+            return null;
+        }
+        return new Permit(limit);
+    }
+
+    public double getLimit(QueryClass queryClass) {
+        return limits.get(queryClass).getLimit();
+    }
+
+    public long rejectedCount(QueryClass queryClass) {
+        return limits.get(queryClass).rejectedCount();
+    }
+
+    public LatencyHistogram latencyHistogram(QueryClass queryClass) {
+        return limits.get(queryClass).latencyHistogram();
+    }
+
+    public String summary() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (AdaptiveLimit limit : limits.values()) {
+            joiner.add(limit.summary());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 쿼리 결과 캐시 설정 (application.yml의 database.result-cache.*)
+ */
+@ConfigurationProperties(prefix = "database.result-cache")
+@Data
+public class QueryCacheProperties {
+    // 켜면 같은 읽기 쿼리는 연결 풀을 거치지 않고 저장해 둔 결과로 응답
+    private boolean enabled = false;
+    
+    // 저장한 뒤 이 시간이 지나면 다시 실행
+    private Duration ttl = Duration.ofSeconds(30);
+    
+    // 저장한 결과(키 포함) 추정 바이트 합계 한도. 넘으면 가장 오래 안 쓴 결과부터 버림
+    private DataSize maximumSize = DataSize.ofMegabytes(16);
+}
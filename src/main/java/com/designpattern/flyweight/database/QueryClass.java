@@ -0,0 +1,31 @@
+package com.designpattern.flyweight.database;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 쿼리 종류 (첫 단어로 구분)
+ * 벌크헤드, 종류별 묶어 실행하기, 결과 캐시(읽기만 캐시)가 모두 이 분류를 씀
+ */
+public enum QueryClass {
+    READ,
+    WRITE,
+    // 스키마 변경, 통계, 프로시저 호출 등 드물지만 오래 걸릴 수 있는 쿼리
+    ADMIN;
+
+    private static final Set<String> READS = Set.of("select", "with", "values", "show", "explain");
+    private static final Set<String> WRITES = Set.of("insert", "update", "delete", "merge", "replace", "upsert");
+
+    public static QueryClass of(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String verb = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        if (READS.contains(verb)) {
+            return READ;
+        }
+        return WRITES.contains(verb) ? WRITE : ADMIN;
+    }
+}
@@ -0,0 +1,63 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 쿼리 실행용 스레드 (요청 스레드 대신 여기서 연결을 기다리고 쿼리를 실행)
+ *
+ * 동시 실행 수를 정하는 것은 연결 풀과 벌크헤드이고, 이 풀은 그 한도를 넘지 않을 만큼만 스레드를 둠
+ * - 벌크헤드가 켜져 있으면 종류별 (최대 동시 실행 + 대기열)의 합: 그보다 많은 쿼리는 어차피 벌크헤드가 바로 거절
+ *   (기본 설정, 풀 최대 10개: 6+50 + 3+20 + 1+5 = 85개)
+ * - 꺼져 있으면 연결 풀 최대 크기 × WAITERS_PER_CONNECTION (연결 하나를 실행 중 1개 + 대기 7개가 나눠 씀)
+ * - database.executor.threads를 양수로 주면 그 값
+ * 작업 대기열은 두지 않음(SynchronousQueue): 쿼리는 스레드를 얻는 즉시 연결 대기 시간
+ * (벌크헤드 max-wait, connection-timeout)이 흐르기 시작하고, 스레드가 모두 차 있으면 줄 세우지 않고
+ * RejectedExecutionException을 던짐 → DatabaseService가 "❌" 응답으로 바꿈
+ * 쓰지 않는 스레드는 1분 뒤 정리
+ */
+@Configuration
+@EnableConfigurationProperties({QueryExecutorProperties.class, QueryBatchProperties.class, QueryCacheProperties.class,
+    QueryBulkheadProperties.class})
+@Slf4j
+public class QueryExecutorConfig {
+    private static final int WAITERS_PER_CONNECTION = 8;
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService queryExecutor(QueryExecutorProperties properties, ConnectionPoolProperties poolProperties,
+                                         QueryBulkheadProperties bulkheadProperties) {
+        int threads = (properties.getThreads() > 0)
+            ? properties.getThreads()
+            : defaultThreads(poolProperties.getMaximumPoolSize(), bulkheadProperties);
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+            1, TimeUnit.MINUTES, new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "query-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        log.info("🧵 쿼리 실행기: 스레드 {}개 (연결 풀 최대 {}개, 벌크헤드 {}), 작업 대기열 없음",
+            threads, poolProperties.getMaximumPoolSize(), bulkheadProperties.isEnabled() ? "켜짐" : "꺼짐");
+        return executor;
+    }
+
+    static int defaultThreads(int poolCapacity, QueryBulkheadProperties bulkheadProperties) {
+        if (!bulkheadProperties.isEnabled()) {
+            return poolCapacity * WAITERS_PER_CONNECTION;
+        }
+        int threads = 0;
+        for (QueryBulkheadProperties.Share share : bulkheadProperties.getClasses().values()) {
+            threads += QueryBulkheads.maxLimit(poolCapacity, share) + share.getQueueSize();
+        }
+        return threads;
+    }
+}
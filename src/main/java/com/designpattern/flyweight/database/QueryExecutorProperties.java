@@ -0,0 +1,15 @@
+package com.designpattern.flyweight.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+/**
+ * 쿼리 실행 스레드 설정 (application.yml의 database.executor.*)
+ */
+@ConfigurationProperties(prefix = "database.executor")
+@Data
+public class QueryExecutorProperties {
+    // 동시에 연결을 기다리거나 쿼리를 실행할 수 있는 스레드 수
+    // 0이면 연결 풀 최대 크기와 벌크헤드 한도에서 계산 (QueryExecutorConfig 참고)
+    private int threads = 0;
+}
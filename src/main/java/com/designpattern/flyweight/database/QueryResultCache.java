@@ -0,0 +1,340 @@
+package com.designpattern.flyweight.database;
+
+import com.designpattern.flyweight.cache.CacheStats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 읽기 쿼리 결과 캐시 (정규화한 SQL + 파라미터가 키)
+ *
+ * - 공백/대소문자만 다른 같은 쿼리는 같은 키가 되도록 정규화 (문자열 리터럴 안은 그대로)
+ * - 저장한 뒤 ttl이 지나면 만료, 결과 바이트 합계가 maximumBytes를 넘으면 가장 오래 안 쓴 것부터 제거 (LRU)
+ * - 쓰기 쿼리가 지나가면 그 쿼리가 건드린 테이블을 읽는 엔트리를 모두 지움
+ *   테이블은 FROM/JOIN/INTO/UPDATE/TABLE 뒤의 이름을 정규식으로 뽑는 단순한 방식
+ *   테이블을 알 수 없는 쓰기는 캐시 전체를 지움
+ * - 테이블마다 쓰기 버전을 두어, 쓰기 전에 시작한 읽기가 쓰기 후에 옛 결과를 넣지 못하게 함
+ *
+ * 조회/저장/무효화 모두 this로 보호 (값이 짧은 문자열이라 임계 구역이 짧음)
+ */
+public class QueryResultCache {
+    // LinkedHashMap 노드 + Key + Entry + 테이블 색인 대략치
+    private static final long ENTRY_OVERHEAD = 160;
+
+    private static final Pattern TABLE_AFTER_KEYWORD = Pattern.compile(
+        "\\b(?:from|join|into|update|table)\\s+(?:if\\s+(?:not\\s+)?exists\\s+)?([a-z_][a-z0-9_$.]*)");
+    // FROM a, b, c 처럼 쉼표로 나열한 테이블
+    private static final Pattern FROM_LIST = Pattern.compile(
+        "\\bfrom\\s+(.*?)(?=\\bwhere\\b|\\bjoin\\b|\\binner\\b|\\bleft\\b|\\bright\\b|\\bgroup\\b|\\border\\b"
+            + "|\\blimit\\b|\\bhaving\\b|\\bunion\\b|\\bset\\b|\\)|$)");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_$.]*");
+    private static final String OPERATORS = ",()=<>";
+
+    private final long ttlNanos;
+    private final long maximumBytes;
+    private final CacheStats stats = new CacheStats();
+
+    // ===== 아래 필드들은 this로 보호 =====
+    // 접근 순서 LinkedHashMap = LRU
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 테이블 → 그 테이블을 읽는 엔트리 키
+    private final Map<String, Set<Key>> dependents = new HashMap<>();
+    private final Map<String, Long> tableVersions = new HashMap<>();
+    // 테이블을 알 수 없는 쓰기가 지나갈 때마다 증가 (모든 읽기에 영향)
+    private long globalVersion;
+    private long retainedBytes;
+
+    public QueryResultCache(long ttlNanos, long maximumBytes) {
+        this.ttlNanos = ttlNanos;
+        this.maximumBytes = maximumBytes;
+    }
+
+    /**
+     * 정규화와 테이블 추출을 한 번만 하도록 쿼리를 미리 분석해 둔 것
+     */
+    public static final class Query {
+        private final Key key;
+        private final QueryClass queryClass;
+        private final boolean read;
+        private final Set<String> tables;
+
+        private Query(Key key, QueryClass queryClass, boolean read, Set<String> tables) {
+            this.key = key;
+            this.queryClass = queryClass;
+            this.read = read;
+            this.tables = tables;
+        }
+
+        // 테이블을 알아낸 읽기만 캐시 (FOR UPDATE처럼 잠금을 거는 읽기는 제외)
+        public boolean isCacheable() {
+            return read && !tables.isEmpty();
+        }
+
+        // 쓰기이거나 무엇을 하는지 모르는 쿼리 → 지나간 뒤 관련 엔트리를 지움
+        public boolean isInvalidating() {
+            return !read;
+        }
+
+        // 벌크헤드와 같은 분류 (QueryClass.of)
+        public QueryClass getQueryClass() {
+            return queryClass;
+        }
+
+        public Set<String> getTables() {
+            return tables;
+        }
+
+        public String getNormalizedSql() {
+            return key.sql;
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final List<?> params;
+        private final int hash;
+
+        Key(String sql, List<?> params) {
+            this.sql = sql;
+            this.params = params;
+            this.hash = 31 * sql.hashCode() + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash && sql.equals(other.sql) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String result;
+        private final long expiresAtNanos;
+        private final long weight;
+        private final Set<String> tables;
+
+        Entry(String result, long expiresAtNanos, long weight, Set<String> tables) {
+            this.result = result;
+            this.expiresAtNanos = expiresAtNanos;
+            this.weight = weight;
+            this.tables = tables;
+        }
+    }
+
+    public static Query parse(String sql, List<?> params) {
+        String normalized = normalize(sql);
+        QueryClass queryClass = QueryClass.of(normalized);
+        boolean read = queryClass == QueryClass.READ && !normalized.contains(" for update");
+        return new Query(new Key(normalized, List.copyOf(params)), queryClass, read, extractTables(normalized));
+    }
+
+    /**
+     * 공백을 하나로 줄이고 연산자 주변 공백을 없앤 뒤 소문자로 (문자열 리터럴 안은 그대로)
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean inLiteral = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (inLiteral) {
+                out.append(c);
+                // '' 는 닫고 바로 다시 여는 것과 같아서 따로 처리하지 않아도 됨
+                inLiteral = c != '\'';
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+            } else {
+                if (pendingSpace && OPERATORS.indexOf(c) < 0 && OPERATORS.indexOf(out.charAt(out.length() - 1)) < 0) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                out.append(Character.toLowerCase(c));
+                inLiteral = c == '\'';
+            }
+        }
+        int length = out.length();
+        while (length > 0 && (out.charAt(length - 1) == ';' || out.charAt(length - 1) == ' ')) {
+            length--;
+        }
+        out.setLength(length);
+        return out.toString();
+    }
+
+    /**
+     * 정규화한 SQL에서 읽거나 쓰는 테이블 이름 (스키마 접두사와 따옴표는 뗌)
+     */
+    static Set<String> extractTables(String normalizedSql) {
+        String sql = normalizedSql.replaceAll("'[^']*'", "''").replace("\"", "").replace("`", "");
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher keyword = TABLE_AFTER_KEYWORD.matcher(sql);
+        while (keyword.find()) {
+            tables.add(unqualified(keyword.group(1)));
+        }
+        Matcher list = FROM_LIST.matcher(sql);
+        while (list.find()) {
+            for (String item : list.group(1).split(",")) {
+                Matcher name = IDENTIFIER.matcher(item.trim());
+                if (name.lookingAt()) {
+                    tables.add(unqualified(name.group()));
+                }
+            }
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+
+    private static String unqualified(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * 만료되지 않은 결과 (없으면 null)
+     */
+    public synchronized String getIfPresent(Query query) {
+        Entry entry = entries.get(query.key);
+        if (entry != null && System.nanoTime() - entry.expiresAtNanos >= 0) {
+            remove(query.key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        return entry.result;
+    }
+
+    /**
+     * 실행 전에 받아 두었다가 put에 넘김. 그 사이 관련 테이블에 쓰기가 있었으면 저장하지 않음
+     */
+    public synchronized long version(Query query) {
+        long version = globalVersion;
+        for (String table : query.tables) {
+            version += tableVersions.getOrDefault(table, 0L);
+        }
+        return version;
+    }
+
+    public synchronized void put(Query query, long version, String result, long loadNanos) {
+        if (!query.isCacheable() || version(query) != version) {
+            return;
+        }
+        stats.recordLoad(loadNanos);
+        long weight = ENTRY_OVERHEAD + weigh(query.key) + stringBytes(result);
+        // 한도보다 큰 결과는 붙잡아 두지 않음
+        if (weight > maximumBytes) {
+            return;
+        }
+        Entry existing = entries.get(query.key);
+        if (existing != null) {
+            remove(query.key, existing);
+        }
+        entries.put(query.key, new Entry(result, System.nanoTime() + ttlNanos, weight, query.tables));
+        for (String table : query.tables) {
+            dependents.computeIfAbsent(table, t -> new HashSet<>()).add(query.key);
+        }
+        retainedBytes += weight;
+        stats.addRetainedBytes(weight);
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (retainedBytes > maximumBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            eldest.remove();
+            unindex(victim.getKey(), victim.getValue());
+            stats.recordEviction();
+        }
+    }
+
+    /**
+     * 쓰기 쿼리가 지나간 뒤 호출: 건드린 테이블을 읽는 엔트리를 지우고 버전을 올림
+     * 테이블을 알 수 없으면 전부 지움
+     */
+    public synchronized void invalidate(Query query) {
+        if (query.tables.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        for (String table : query.tables) {
+            tableVersions.merge(table, 1L, Long::sum);
+            Set<Key> keys = dependents.remove(table);
+            if (keys == null) {
+                continue;
+            }
+            for (Key key : keys) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    remove(key, entry);
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        globalVersion++;
+        entries.clear();
+        dependents.clear();
+        stats.addRetainedBytes(-retainedBytes);
+        retainedBytes = 0;
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        unindex(key, entry);
+    }
+
+    private void unindex(Key key, Entry entry) {
+        retainedBytes -= entry.weight;
+        stats.addRetainedBytes(-entry.weight);
+        for (String table : entry.tables) {
+            Set<Key> keys = dependents.get(table);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                dependents.remove(table);
+            }
+        }
+    }
+
+    private static long weigh(Key key) {
+        long bytes = stringBytes(key.sql);
+        for (Object param : key.params) {
+            bytes += (param instanceof String) ? stringBytes((String) param) : 16;
+        }
+        return bytes;
+    }
+
+    // String(24) + byte[] 헤더(16) + 문자당 최대 2바이트
+    private static long stringBytes(String s) {
+        return 40 + 2L * s.length();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    // hit/miss, load = 실제로 실행해서 저장한 횟수, retainedBytes = 붙잡고 있는 결과 바이트
+    public CacheStats stats() {
+        return stats;
+    }
+}
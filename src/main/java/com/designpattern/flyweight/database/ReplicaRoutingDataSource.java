@@ -0,0 +1,312 @@
+package com.designpattern.flyweight.database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주 DB 하나 + 읽기 복제본 여럿을 묶는 풀의 풀 (엔드포인트마다 DetailedConnectionPool 하나)
+ *
+ * - getConnection(): 주 DB (쓰기, 트랜잭션)
+ * - getReadOnlyConnection(): 건강한 복제본 중 처리 중인 요청(outstanding)이 가장 적은 곳
+ *   같은 수면 돌아가며 고름. 건강한 복제본이 없으면 주 DB
+ * - getConnection(sql): QueryClass.READ이면 복제본, 아니면 주 DB
+ *
+ * 상태 검사
+ * - 백그라운드 스레드가 주기적으로 엔드포인트마다 새 연결을 열어 isValid()로 확인
+ *   (풀이 바빠서 못 빌리는 것과 엔드포인트가 죽은 것을 구분하려고 풀을 거치지 않음)
+ * - 연속 failure-threshold번 실패하면 라우팅에서 빼고(eject), 한 번 성공하면 다시 넣음
+ * - 요청 경로에서 연결을 만들지 못한 경우도 실패로 세고 다른 복제본으로 다시 시도
+ *
+ * 복제 지연은 고려하지 않음: 방금 쓴 값을 바로 읽어야 하면 주 DB에서 읽어야 함
+ * 복제본 수에 따른 읽기 처리량 (ReplicaRoutingBenchmark: H2 메모리 DB, 엔드포인트당 연결 2개, 쿼리당 2ms)
+ *   0개(주 DB만) 825/s, 1개 908/s, 2개 1,855/s, 4개 3,654/s - 복제본이 있으면 읽기는 주 DB로 가지 않으므로
+ *   1개까지는 그대로이고 그다음부터 복제본 수에 비례. 측정 도중 복제본 하나를 내리면 그때 처리 중이던 2건만 실패
+ *
+ * 빈으로 등록하지 않는 라이브러리 클래스 - 지금 요청 경로(DatabaseService)는 시뮬레이션 ConnectionPool을 쓰므로
+ * 만드는 쪽(ReplicaRoutingBenchmark 등)이 엔드포인트 풀의 수명(shutdown)과 지표를 직접 관리
+ */
+@Slf4j
+public class ReplicaRoutingDataSource implements DataSource {
+    private final Endpoint primary;
+    private final List<Endpoint> replicas;
+    private final int failureThreshold;
+    private final int healthCheckTimeoutSeconds;
+    private final String username;
+    private final String password;
+    // 처리 중인 요청 수가 같을 때 돌아가며 고르기 위한 시작 위치
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * 라우팅 대상 하나 (풀 + 건강 상태)
+     */
+    public static final class Endpoint {
+        private final String name;
+        private final DetailedConnectionPool pool;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder routed = new LongAdder();
+        private volatile boolean healthy = true;
+
+        Endpoint(String name, DetailedConnectionPool pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DetailedConnectionPool getPool() {
+            return pool;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        // 이 엔드포인트로 보낸 요청 수
+        public long routedCount() {
+            return routed.sum();
+        }
+    }
+
+    public ReplicaRoutingDataSource(ReplicaRoutingProperties routing, DetailedPoolProperties template) {
+        this.primary = new Endpoint("primary", new DetailedConnectionPool(withUrl(template, routing.getPrimary())));
+        List<Endpoint> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            replicas.add(new Endpoint("replica-" + (i + 1), new DetailedConnectionPool(withUrl(template, routing.getReplicas().get(i)))));
+        }
+        this.replicas = Collections.unmodifiableList(replicas);
+        this.failureThreshold = Math.max(1, routing.getFailureThreshold());
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, routing.getHealthCheckTimeout().toSeconds());
+        this.username = template.getUsername();
+        this.password = template.getPassword();
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = routing.getHealthCheckPeriod().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, period, period, TimeUnit.MILLISECONDS);
+        log.info("🔀 DB 라우팅: 주 DB 1개 + 복제본 {}개 (상태 검사 {}ms마다)", replicas.size(), period);
+    }
+
+    // 엔드포인트 풀은 database.detailed.* 설정을 그대로 쓰고 url만 바꿈
+    private static DetailedPoolProperties withUrl(DetailedPoolProperties template, String url) {
+        DetailedPoolProperties properties = new DetailedPoolProperties();
+        properties.setUrl(url);
+        properties.setUsername(template.getUsername());
+        properties.setPassword(template.getPassword());
+        properties.setMinimumIdle(template.getMinimumIdle());
+        properties.setWarmupAsync(template.isWarmupAsync());
+        properties.setMaximumPoolSize(template.getMaximumPoolSize());
+        properties.setConnectionTimeout(template.getConnectionTimeout());
+        properties.setValidationSkipWindow(template.getValidationSkipWindow());
+        properties.setKeepaliveTime(template.getKeepaliveTime());
+        properties.setLeakDetectionThreshold(template.getLeakDetectionThreshold());
+        properties.setStatementCacheSize(template.getStatementCacheSize());
+        return properties;
+    }
+
+    public void shutdown() {
+        healthChecker.shutdownNow();
+        primary.pool.shutdown();
+        for (Endpoint replica : replicas) {
+            replica.pool.shutdown();
+        }
+    }
+
+    /**
+     * 주 DB 연결 (쓰기)
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrow(primary);
+    }
+
+    /**
+     * 쿼리 종류에 맞는 엔드포인트의 연결
+     */
+    public Connection getConnection(String sql) throws SQLException {
+        return (QueryClass.of(sql) == QueryClass.READ) ? getReadOnlyConnection() : getConnection();
+    }
+
+    /**
+     * 처리 중인 요청이 가장 적은 건강한 복제본의 연결
+     * 복제본이 연결을 주지 못하면 다음으로 적은 곳을 시도하고, 모두 안 되면 주 DB
+     */
+    public Connection getReadOnlyConnection() throws SQLException {
+        List<Endpoint> tried = new ArrayList<>(2);
+        Endpoint replica;
+        while ((replica = leastOutstanding(tried)) != null) {
+            try {
+                return borrow(replica);
+            } catch (SQLTransientException e) {
+                // 풀이 바쁠 뿐 엔드포인트는 살아 있음
+                log.warn("⏳ {} 연결 대기 시간 초과, 다른 엔드포인트 시도", replica.name);
+            } catch (SQLException e) {
+                recordFailure(replica, e.getMessage());
+            }
+            tried.add(replica);
+        }
+        return borrow(primary);
+    }
+
+    private Endpoint leastOutstanding(List<Endpoint> excluded) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        Endpoint best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = replicas.get((start + i) % size);
+            if (!candidate.healthy || excluded.contains(candidate)) {
+                continue;
+            }
+            int outstanding = candidate.pool.getOutstandingRequests();
+            if (outstanding < bestOutstanding) {
+                best = candidate;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    private Connection borrow(Endpoint endpoint) throws SQLException {
+        endpoint.routed.increment();
+        Connection connection = endpoint.pool.getConnection();
+        // 요청 경로에서 한 번 성공하면 연속 실패는 끊긴 것 (바쁜 경로에서 쓰기를 줄이려고 0이 아닐 때만)
+        if (endpoint.consecutiveFailures.get() != 0) {
+            endpoint.consecutiveFailures.set(0);
+        }
+        return connection;
+    }
+
+    /**
+     * 백그라운드 상태 검사: 풀을 거치지 않고 엔드포인트마다 새 연결을 열어 확인
+     */
+    private void checkHealth() {
+        check(primary);
+        for (Endpoint replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Endpoint endpoint) {
+        String failure;
+        try (Connection connection = DriverManager.getConnection(endpoint.pool.getUrl(), username, password)) {
+            if (connection.isValid(healthCheckTimeoutSeconds)) {
+                recordSuccess(endpoint);
+                return;
+            }
+            failure = "isValid() 실패";
+        } catch (SQLException e) {
+            failure = e.getMessage();
+        }
+        recordFailure(endpoint, failure);
+    }
+
+    private void recordSuccess(Endpoint endpoint) {
+        endpoint.consecutiveFailures.set(0);
+        if (!endpoint.healthy) {
+            endpoint.healthy = true;
+            log.info("💚 {} 복귀: 상태 검사 통과", endpoint.name);
+        }
+    }
+
+    private void recordFailure(Endpoint endpoint, String reason) {
+        int failures = endpoint.consecutiveFailures.incrementAndGet();
+        if (endpoint.healthy && failures >= failureThreshold) {
+            endpoint.healthy = false;
+            log.warn("💔 {} 라우팅에서 제외: 연속 {}회 실패 ({})", endpoint.name, failures, reason);
+        } else if (endpoint.healthy) {
+            log.warn("⚠️ {} 실패 {}/{}: {}", endpoint.name, failures, failureThreshold, reason);
+        }
+    }
+
+    public Endpoint getPrimary() {
+        return primary;
+    }
+
+    public List<Endpoint> getReplicas() {
+        return replicas;
+    }
+
+    public String summary() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Endpoint endpoint : allEndpoints()) {
+            joiner.add(String.format("%s %s (처리 중 %d, 보낸 요청 %d)", endpoint.name,
+                endpoint.healthy ? "UP" : "DOWN", endpoint.pool.getOutstandingRequests(), endpoint.routedCount()));
+        }
+        return joiner.toString();
+    }
+
+    private List<Endpoint> allEndpoints() {
+        List<Endpoint> all = new ArrayList<>(replicas.size() + 1);
+        all.add(primary);
+        all.addAll(replicas);
+        return all;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ReplicaRoutingDataSource uses the configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // 로그는 slf4j로만 남김
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // 엔드포인트 풀의 connection-timeout을 따름
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return primary.pool.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
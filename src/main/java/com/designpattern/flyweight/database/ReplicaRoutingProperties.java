@@ -0,0 +1,29 @@
+package com.designpattern.flyweight.database;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주 DB + 읽기 복제본 라우팅 설정 (ReplicaRoutingDataSource를 만드는 쪽이 채움)
+ * 엔드포인트마다 DetailedPoolProperties와 같은 설정의 풀을 하나씩 둠 (url만 다름)
+ */
+@Data
+public class ReplicaRoutingProperties {
+    // 쓰기와 복제본이 모두 빠졌을 때의 읽기를 받는 주 DB
+    private String primary = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    
+    // 읽기 전용 쿼리를 나눠 받는 복제본 (비어 있으면 읽기도 주 DB로)
+    private List<String> replicas = new ArrayList<>();
+    
+    // 엔드포인트마다 새 연결을 열어 isValid()로 확인하는 주기
+    private Duration healthCheckPeriod = Duration.ofSeconds(5);
+    
+    // 연속으로 이만큼 실패하면 라우팅에서 뺌 (다음 검사에 성공하면 복귀)
+    private int failureThreshold = 2;
+    
+    // 상태 검사 한 번의 최대 시간
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+}
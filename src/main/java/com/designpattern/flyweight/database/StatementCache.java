@@ -0,0 +1,173 @@
+package com.designpattern.flyweight.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 연결 하나에 딸린 PreparedStatement 캐시 (SQL 문자열이 키인 LRU, PreparedStatement의 플라이웨이트)
+ *
+ * - 같은 SQL을 다시 준비하면 이미 파싱/계획된 문장을 그대로 돌려줌
+ * - 호출자가 close()하면 실제로 닫지 않고 파라미터만 지운 뒤 캐시에 남겨 둠
+ * - 꺼내 줄 때마다 새 핸들(프록시)을 줌 (PooledConnection.Handle과 같은 방식)
+ *   닫은 뒤 남겨 둔 옛 핸들로는 다음에 꺼내 간 쪽의 문장을 쓰거나 닫을 수 없음
+ * - 꺼내 간 문장을 닫기 전에 같은 SQL을 또 준비하면 캐시를 거치지 않은 새 문장을 줌
+ * - 가득 차면 가장 오래 쓰지 않은 문장을 닫음 (사용 중이면 반납될 때 닫음)
+ *
+ * 연결을 빌린 스레드 하나만 쓰므로 동기화하지 않음
+ */
+final class StatementCache {
+    private final Connection connection;
+    private final PoolStats stats;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection connection, int maxSize, PoolStats stats) {
+        this.connection = connection;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 문장을 꺼내고, 없으면 새로 준비해서 캐시에 넣음
+     * 캐시하지 않은 새 문장을 돌려줬으면 uncached에 담아 연결 반납 때 닫게 함
+     */
+    PreparedStatement prepare(String sql, List<PreparedStatement> uncached) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached == null) {
+            stats.recordStatementMiss();
+            cached = new CachedStatement(connection.prepareStatement(sql));
+            statements.put(sql, cached);
+        } else if (cached.isInUse()) {
+            stats.recordStatementMiss();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            uncached.add(statement);
+            return statement;
+        } else {
+            stats.recordStatementHit();
+        }
+        return cached.checkOut();
+    }
+
+    // 연결 반납: 닫지 않고 남겨 둔 문장도 모두 돌려받음
+    void releaseAll() throws SQLException {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.isInUse()) {
+                cached.release();
+            }
+        }
+    }
+
+    // 실제 연결을 닫기 전에 호출
+    void closeAll() {
+        for (CachedStatement cached : new ArrayList<>(statements.values())) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        // 지금 꺼내 간 핸들 (캐시에 돌아와 있으면 null)
+        private Checkout current;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        boolean isInUse() {
+            return current != null;
+        }
+
+        PreparedStatement checkOut() {
+            current = new Checkout(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, current);
+        }
+
+        // 꺼내 간 핸들을 닫고 다음 사용을 위해 상태를 지움
+        void release() throws SQLException {
+            current.closed = true;
+            current = null;
+            if (evicted) {
+                statement.close();
+                return;
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+        }
+
+        void evict() {
+            evicted = true;
+            if (current == null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // 연결이 이미 끊겼을 수 있음
+                }
+            }
+        }
+    }
+
+    /**
+     * 꺼내 갈 때마다 하나씩 만드는 핸들: close()는 이 핸들만 닫고 문장은 캐시로 돌려보냄
+     */
+    private static final class Checkout implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean closed;
+
+        Checkout(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        cached.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached(" + cached.statement + ")";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    try {
+                        return method.invoke(cached.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.designpattern.flyweight.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * JVM 시작부터 첫 요청에 성공 응답하기까지 걸린 시간 (application.first-request.time)
+ * Spring Boot의 application.started.time / application.ready.time과 함께 보면
+ * 시작 시간 중 어디까지가 컨텍스트이고 어디부터가 첫 요청 처리인지 나눠 볼 수 있음
+ *
+ * 사용자 요청만 셈: /actuator/** (헬스 체크, 지표 수집)는 건너뛰고, 2xx로 끝난 요청만 기록
+ * 첫 요청이 기록된 뒤에는 volatile 읽기 한 번만 하고 그대로 넘김
+ */
+@Component
+@Slf4j
+public class FirstRequestTimer implements Filter {
+    // management.endpoints.web.base-path 기본값
+    private static final String ACTUATOR_PATH = "/actuator";
+    
+    private volatile long firstRequestMillis = -1;
+    
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        Gauge.builder("application.first-request.time", this, timer -> timer.firstRequestMillis / 1e3)
+            .baseUnit("seconds")
+            .description("JVM 시작부터 첫 요청에 성공 응답하기까지 걸린 시간 (아직 없으면 음수)")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        chain.doFilter(request, response);
+        if (firstRequestMillis < 0 && isUserRequest(request) && isSuccessful(response)) {
+            record();
+        }
+    }
+    
+    private static boolean isUserRequest(ServletRequest request) {
+        if (!(request instanceof HttpServletRequest)) {
+            return false;
+        }
+        HttpServletRequest http = (HttpServletRequest) request;
+        String path = http.getRequestURI().substring(http.getContextPath().length());
+        return !(path.equals(ACTUATOR_PATH) || path.startsWith(ACTUATOR_PATH + "/"));
+    }
+    
+    private static boolean isSuccessful(ServletResponse response) {
+        if (!(response instanceof HttpServletResponse)) {
+            return false;
+        }
+        int status = ((HttpServletResponse) response).getStatus();
+        return status >= 200 && status < 300;
+    }
+    
+    private synchronized void record() {
+        if (firstRequestMillis < 0) {
+            firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("🚦 JVM 시작 → 첫 요청 성공 응답: {}ms", firstRequestMillis);
+        }
+    }
+    
+    public long getFirstRequestMillis() {
+        return firstRequestMillis;
+    }
+}
@@ -0,0 +1,52 @@
+package com.designpattern.flyweight.monitoring;
+
+import com.designpattern.flyweight.cache.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 플라이웨이트 캐시 현황 Actuator 엔드포인트
+ * - GET /actuator/flyweights         : 전체 캐시 요약
+ * - GET /actuator/flyweights/{name}  : 캐시 하나의 요약
+ */
+@Component
+@Endpoint(id = "flyweights")
+public class FlyweightCacheEndpoint {
+    private final FlyweightCacheRegistry registry;
+    
+    public FlyweightCacheEndpoint(FlyweightCacheRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @ReadOperation
+    public Map<String, Map<String, Object>> caches() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        registry.getCaches().forEach(cache -> result.put(cache.getName(), summarize(cache)));
+        return result;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name) {
+        FlyweightCacheRegistry.RegisteredCache cache = registry.getCache(name);
+        return (cache != null) ? summarize(cache) : null;
+    }
+    
+    private Map<String, Object> summarize(FlyweightCacheRegistry.RegisteredCache cache) {
+        CacheStats stats = cache.getStats();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("size", cache.size());
+        summary.put("hits", stats.hitCount());
+        summary.put("misses", stats.missCount());
+        summary.put("hitRate", stats.hitRate());
+        summary.put("loads", stats.loadCount());
+        summary.put("averageLoadMicros", (stats.loadCount() == 0) ? 0 : stats.totalLoadNanos() / stats.loadCount() / 1000.0);
+        summary.put("evictions", stats.evictionCount());
+        summary.put("retainedBytes", stats.retainedBytes());
+        return summary;
+    }
+}
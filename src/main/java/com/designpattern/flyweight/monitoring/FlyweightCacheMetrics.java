@@ -0,0 +1,58 @@
+package com.designpattern.flyweight.monitoring;
+
+import com.designpattern.flyweight.cache.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 등록된 캐시 하나의 Micrometer 지표
+ * 지표는 수집 시점에 CacheStats의 LongAdder 합계를 읽기만 하므로 조회 경로에는 비용이 없음
+ * (이름은 Micrometer 표준 캐시 지표인 cache.gets / cache.evictions / cache.size 를 따름)
+ */
+class FlyweightCacheMetrics implements MeterBinder {
+    private final FlyweightCacheRegistry.RegisteredCache cache;
+    private final Tags tags;
+    
+    FlyweightCacheMetrics(FlyweightCacheRegistry.RegisteredCache cache) {
+        this.cache = cache;
+        this.tags = Tags.of("cache", cache.getName());
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheStats stats = cache.getStats();
+        
+        FunctionCounter.builder("cache.gets", stats, CacheStats::hitCount)
+            .tags(tags).tag("result", "hit")
+            .description("플라이웨이트 재사용 횟수")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", stats, CacheStats::missCount)
+            .tags(tags).tag("result", "miss")
+            .description("플라이웨이트를 찾지 못한 횟수")
+            .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, CacheStats::evictionCount)
+            .tags(tags)
+            .description("크기 제한 또는 GC로 제거된 플라이웨이트 수")
+            .register(registry);
+        FunctionTimer.builder("cache.load", stats, CacheStats::loadCount, CacheStats::totalLoadNanos, TimeUnit.NANOSECONDS)
+            .tags(tags)
+            .description("새 플라이웨이트 생성 시간")
+            .register(registry);
+        Gauge.builder("cache.size", cache, FlyweightCacheRegistry.RegisteredCache::size)
+            .tags(tags)
+            .description("현재 플라이웨이트 인스턴스 수")
+            .register(registry);
+        Gauge.builder("cache.retained", stats, CacheStats::retainedBytes)
+            .tags(tags)
+            .baseUnit(BaseUnits.BYTES)
+            .description("캐시된 플라이웨이트가 유지하는 추정 힙 크기")
+            .register(registry);
+    }
+}
@@ -0,0 +1,138 @@
+package com.designpattern.flyweight.monitoring;
+
+import com.designpattern.flyweight.cache.CacheStats;
+import com.designpattern.flyweight.cache.CacheSnapshot;
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.KeyCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 플라이웨이트 캐시 등록소
+ * 팩토리들이 자신의 캐시를 이름과 함께 등록하면
+ * Micrometer 지표(cache.*)와 /actuator/flyweights 로 같은 형식의 통계를 노출
+ * KeyCodec과 loader를 함께 등록한 캐시는 스냅샷 저장/재시작 후 미리 채우기 대상이 됨
+ */
+@Component
+@Slf4j
+public class FlyweightCacheRegistry {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RegisteredCache> caches = new ConcurrentSkipListMap<>();
+    
+    public FlyweightCacheRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void register(String name, FlyweightCache<?, ?> cache) {
+        register(name, cache, cache.stats(), cache::size, null);
+    }
+    
+    /**
+     * 스냅샷 대상 캐시 등록
+     * loader는 팩토리가 get에 넘기는 것과 같은 생성 함수 (미리 채우기는 통계를 남기지 않는 경로로 호출)
+     */
+    public <K, V> void register(String name, FlyweightCache<K, V> cache, KeyCodec<K> codec,
+                                Function<? super K, ? extends V> loader) {
+        register(name, cache, cache.stats(), cache::size, new Snapshotter<>(cache, codec, loader));
+    }
+    
+    public void register(String name, CacheStats stats, LongSupplier size) {
+        register(name, null, stats, size, null);
+    }
+    
+    private void register(String name, FlyweightCache<?, ?> cache, CacheStats stats, LongSupplier size,
+                          Snapshotter<?, ?> snapshotter) {
+        RegisteredCache registered = new RegisteredCache(name, cache, stats, size, snapshotter);
+        if (caches.putIfAbsent(name, registered) != null) {
+            throw new IllegalStateException("이미 등록된 캐시 이름입니다: " + name);
+        }
+        new FlyweightCacheMetrics(registered).bindTo(meterRegistry);
+        log.info("📈 캐시 지표 등록: {}", name);
+    }
+    
+    public Collection<RegisteredCache> getCaches() {
+        return caches.values();
+    }
+    
+    public RegisteredCache getCache(String name) {
+        return caches.get(name);
+    }
+    
+    public static class RegisteredCache {
+        private final String name;
+        private final FlyweightCache<?, ?> cache;
+        private final CacheStats stats;
+        private final LongSupplier size;
+        private final Snapshotter<?, ?> snapshotter;
+        
+        RegisteredCache(String name, FlyweightCache<?, ?> cache, CacheStats stats, LongSupplier size,
+                        Snapshotter<?, ?> snapshotter) {
+            this.name = name;
+            this.cache = cache;
+            this.stats = stats;
+            this.size = size;
+            this.snapshotter = snapshotter;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        // FlyweightCache가 아닌 저장소(통계만 등록)이면 null
+        public FlyweightCache<?, ?> getCache() {
+            return cache;
+        }
+        
+        public CacheStats getStats() {
+            return stats;
+        }
+        
+        public long size() {
+            return size.getAsLong();
+        }
+        
+        // 스냅샷 대상이 아니면 null
+        public Snapshotter<?, ?> getSnapshotter() {
+            return snapshotter;
+        }
+    }
+    
+    /**
+     * 캐시 하나의 스냅샷 저장/읽기/미리 채우기
+     */
+    public static class Snapshotter<K, V> {
+        private final FlyweightCache<K, V> cache;
+        private final KeyCodec<K> codec;
+        private final Function<? super K, ? extends V> loader;
+        
+        Snapshotter(FlyweightCache<K, V> cache, KeyCodec<K> codec, Function<? super K, ? extends V> loader) {
+            this.cache = cache;
+            this.codec = codec;
+            this.loader = loader;
+        }
+        
+        public int save(Path file) throws IOException {
+            CacheSnapshot<K> snapshot = CacheSnapshot.capture(cache);
+            snapshot.writeTo(file, codec);
+            return snapshot.size();
+        }
+        
+        public CacheSnapshot<K> load(Path file) throws IOException {
+            return CacheSnapshot.readFrom(file, codec);
+        }
+        
+        // 적중률 지표가 재시작 직후 미리 채우기로 부풀지 않도록 통계 없이 채움
+        public void preload(K key) {
+            cache.preload(key, loader);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.designpattern.flyweight.monitoring;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 객체 그래프의 힙 크기 추정
+ *
+ * - 64비트 JVM + compressed oops 기준 (객체 헤더 12, 배열 헤더 16, 참조 4, 8바이트 정렬)
+ * - 리플렉션으로 필드만 따라가므로 힙 덤프나 STW 없이 애플리케이션 스레드와 함께 실행 가능
+ * - java.base 내부처럼 필드에 접근할 수 없는 객체는 얕은 크기만 셈 (String은 내부 배열까지 계산)
+ * - Class, ClassLoader, Thread, enum 상수와 생성자에 넘긴 경계 타입은 세지 않고 따라가지도 않음
+ *   (플라이웨이트가 소유하지 않는 공용 객체)
+ */
+public final class ObjectSizeEstimator {
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    private static final int STRING_SHALLOW = align(HEADER + REFERENCE + 1 + 4 + 1); // value, coder, hash, hashIsZero
+    
+    private final List<Class<?>> boundaries = new ArrayList<>(List.of(Class.class, ClassLoader.class, Thread.class));
+    private final ClassValue<Layout> layouts = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+    
+    public ObjectSizeEstimator(Class<?>... boundaries) {
+        this.boundaries.addAll(List.of(boundaries));
+    }
+    
+    public static Set<Object> newVisitedSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+    
+    /**
+     * root에서 도달 가능한 객체들의 크기 합
+     * visited를 여러 호출에 걸쳐 공유하면 이미 센 객체(공유된 부분)는 다시 세지 않음
+     */
+    public long deepSize(Object root, Set<Object> visited) {
+        long total = 0;
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            Class<?> type = object.getClass();
+            if (isBoundary(type) || !visited.add(object)) {
+                continue;
+            }
+            if (object instanceof String string) {
+                total += STRING_SHALLOW + align(ARRAY_HEADER + (long) string.length() * (isLatin1(string) ? 1 : 2));
+            } else if (type.isArray()) {
+                total += arraySize(object, pending);
+            } else {
+                Layout layout = layouts.get(type);
+                total += layout.shallowSize;
+                for (Field field : layout.references) {
+                    Object value = read(field, object);
+                    if (value != null) {
+                        pending.push(value);
+                    }
+                }
+            }
+        }
+        return total;
+    }
+    
+    private boolean isBoundary(Class<?> type) {
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return true;
+        }
+        for (Class<?> boundary : boundaries) {
+            if (boundary.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long arraySize(Object array, Deque<Object> pending) {
+        Class<?> component = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (!component.isPrimitive()) {
+            for (Object element : (Object[]) array) {
+                if (element != null) {
+                    pending.push(element);
+                }
+            }
+        }
+        return align(ARRAY_HEADER + (long) length * sizeOf(component));
+    }
+    
+    private static Object read(Field field, Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isLatin1(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+    
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+    
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+    
+    // 클래스별 얕은 크기와 따라갈 참조 필드 (한 번 계산해서 재사용)
+    private static final class Layout {
+        final long shallowSize;
+        final List<Field> references;
+        
+        private Layout(long shallowSize, List<Field> references) {
+            this.shallowSize = shallowSize;
+            this.references = references;
+        }
+        
+        static Layout of(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    size += sizeOf(field.getType());
+                    if (!field.getType().isPrimitive() && field.trySetAccessible()) {
+                        references.add(field);
+                    }
+                }
+            }
+            return new Layout(align(size), List.copyOf(references));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.designpattern.flyweight.pool;
+
+/**
+ * ObjectPool이 객체를 만들고, 빌려 주기 전에 검사하고, 반납받을 때 되돌리고, 버릴 때 쓰는 훅
+ * create()만 구현하면 람다로 쓸 수 있음 (나머지는 아무것도 하지 않음)
+ */
+@FunctionalInterface
+public interface PooledObjectFactory<T> {
+    
+    T create() throws Exception;
+    
+    // 풀에서 쉬던 객체를 빌려 주기 직전에 호출. false면 버리고 다른 객체를 줌 (새로 만든 객체는 검사하지 않음)
+    default boolean validate(T object) {
+        return true;
+    }
+    
+    // 반납될 때 다음 사용자를 위해 상태를 되돌림. 예외가 나면 그 객체는 버림
+    default void reset(T object) throws Exception {
+    }
+    
+    // 검사 실패, 되돌리기 실패, 풀 종료로 객체를 버릴 때
+    default void destroy(T object) {
+    }
+}
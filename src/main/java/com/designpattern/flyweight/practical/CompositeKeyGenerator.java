@@ -0,0 +1,52 @@
+package com.designpattern.flyweight.practical;
+
+import com.designpattern.flyweight.cache.CompositeKey;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Cacheable 키를 SpEL 대신 CompositeKey로 바로 만드는 KeyGenerator
+ * 
+ * "#fontFamily + '-' + #fontSize + '-' + #color" 같은 SpEL 키는 호출마다
+ * 표현식 평가 + 문자열 결합 + 전체 해시가 일어나지만,
+ * 여기서는 숫자/문자 인자는 long 요소로, 나머지는 참조 요소로 담아 객체 하나만 만듦
+ * (숫자 2개 + 참조 2개를 넘는 시그니처는 SimpleKeyGenerator로 처리)
+ */
+public class CompositeKeyGenerator implements KeyGenerator {
+    
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        long p0 = 0;
+        long p1 = 0;
+        Object r0 = null;
+        Object r1 = null;
+        int longCount = 0;
+        int refCount = 0;
+        for (Object param : params) {
+            if (isIntegral(param) && longCount < 2) {
+                long value = (param instanceof Character ch) ? ch : ((Number) param).longValue();
+                if (longCount++ == 0) {
+                    p0 = value;
+                } else {
+                    p1 = value;
+                }
+            } else if (refCount < 2) {
+                if (refCount++ == 0) {
+                    r0 = param;
+                } else {
+                    r1 = param;
+                }
+            } else {
+                return SimpleKeyGenerator.generateKey(params);
+            }
+        }
+        return CompositeKey.of(p0, p1, r0, r1);
+    }
+    
+    private static boolean isIntegral(Object param) {
+        return param instanceof Integer || param instanceof Long || param instanceof Short
+            || param instanceof Byte || param instanceof Character;
+    }
+}
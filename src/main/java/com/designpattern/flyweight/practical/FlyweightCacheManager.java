@@ -0,0 +1,102 @@
+package com.designpattern.flyweight.practical;
+
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * FlyweightCache 기반 Spring CacheManager
+ * ConcurrentMapCacheManager와 달리 캐시마다 크기 제한(W-TinyLFU), 접근 후 만료, 통계를 가짐
+ * 설정: application.yml의 flyweight.caches.{이름}.*
+ */
+@Slf4j
+public class FlyweightCacheManager extends AbstractCacheManager {
+    private final Map<String, FlyweightCacheSpec> specs;
+    private final FlyweightCacheRegistry registry;
+    
+    public FlyweightCacheManager(Map<String, FlyweightCacheSpec> specs, FlyweightCacheRegistry registry) {
+        this.specs = specs;
+        this.registry = registry;
+    }
+    
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        specs.forEach((name, spec) -> {
+            FlyweightCache<Object, Object> store = new FlyweightCache<>(spec);
+            registry.register("spring-" + name, store);
+            caches.add(new FlyweightSpringCache(name, store));
+            log.info("🗂️ 캐시 생성: {} (최대 크기: {}, 접근 후 만료: {})", name,
+                spec.isBounded() ? spec.getMaximumSize() : "무제한",
+                spec.isExpiring() ? spec.getExpireAfterAccess() : "없음");
+        });
+        return caches;
+    }
+    
+    /**
+     * Spring Cache 추상화 → FlyweightCache 어댑터
+     */
+    static class FlyweightSpringCache extends AbstractValueAdaptingCache {
+        private final String name;
+        private final FlyweightCache<Object, Object> store;
+        
+        FlyweightSpringCache(String name, FlyweightCache<Object, Object> store) {
+            super(true);
+            this.name = name;
+            this.store = store;
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public FlyweightCache<Object, Object> getNativeCache() {
+            return store;
+        }
+        
+        @Override
+        protected Object lookup(Object key) {
+            return store.getIfPresent(key);
+        }
+        
+        // @Cacheable(sync = true) 경로: 같은 키는 한 번만 생성
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return (T) fromStoreValue(store.get(key, k -> {
+                try {
+                    return toStoreValue(valueLoader.call());
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(k, valueLoader, e);
+                }
+            }));
+        }
+        
+        @Override
+        public void put(Object key, Object value) {
+            store.put(key, toStoreValue(value));
+        }
+        
+        @Override
+        public void evict(Object key) {
+            store.invalidate(key);
+        }
+        
+        @Override
+        public void clear() {
+            store.invalidateAll();
+        }
+    }
+}
@@ -3,76 +3,376 @@ package com.designpattern.flyweight.practical;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.cache.KeyCodec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.monitoring.ObjectSizeEstimator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 플라이웨이트 패턴을 위한 Spring 설정
  */
 @Configuration
 @EnableCaching  // 캐시 활성화
+@EnableConfigurationProperties(FlyweightProperties.class)
 @Slf4j
 public class FlyweightConfig {
     
-    // 1. 캐시 매니저 설정
+    // 1. 캐시 매니저 설정 (캐시별 크기 제한/만료/통계)
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(FlyweightProperties properties, FlyweightCacheRegistry registry) {
         log.info("🚀 캐시 매니저 초기화");
-        return new ConcurrentMapCacheManager("flyweights", "icons", "styles");
+        Map<String, FlyweightCacheSpec> specs = new LinkedHashMap<>();
+        for (String name : new String[] {"flyweights", "icons", "styles"}) {
+            specs.put(name, new FlyweightCacheSpec());
+        }
+        specs.putAll(properties.getCaches());
+        return new FlyweightCacheManager(specs, registry);
+    }
+    
+    // 1-1. SpEL 평가 없이 @Cacheable 키 생성
+    @Bean
+    public KeyGenerator compositeKeyGenerator() {
+        return new CompositeKeyGenerator();
     }
     
     // 2. 플라이웨이트 팩토리 Bean
     @Bean
     @Scope("singleton")  // 기본값이지만 명시적으로 표현
-    public IconFactory iconFactory() {
+    public IconFactory iconFactory(FlyweightProperties properties, FlyweightCacheRegistry registry) {
         log.info("🏭 아이콘 팩토리 Bean 생성");
-        return new IconFactory();
+        FlyweightProperties.Icons icons = properties.getIcons();
+        MappedIconStore store = new MappedIconStore(Paths.get(icons.getDirectory()), icons.getResidentBudget().toBytes());
+        return new IconFactory(store, icons, registry);
     }
     
     // 3. 커스텀 플라이웨이트 매니저
     @Bean
-    public WeightManager weightManager() {
-        return new WeightManager();
+    public WeightManager weightManager(FlyweightProperties properties, FlyweightCacheRegistry registry,
+                                       MeterRegistry meterRegistry) {
+        return new WeightManager(properties.getFootprint(), registry, meterRegistry);
     }
     
     static class IconFactory {
-        private final ConcurrentHashMap<String, Icon> icons = new ConcurrentHashMap<>();
+        // 추정 크기: Icon(32) + 이름 String(~40 + 길이) + Path(~64 + 경로 길이)
+        // 이미지 바이트는 MappedIconStore가 힙 밖에서 관리하므로 포함하지 않음
+        private final FlyweightCache<String, Icon> icons;
+        private final MappedIconStore store;
+        private final IconAtlas atlas;
+        private final long atlasBatchMillis;
+        private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+        private final ScheduledExecutorService atlasBuilder;
         
-        public Icon getIcon(String name) {
-            return icons.computeIfAbsent(name, k -> {
-                log.info("🖼️ 새 아이콘 생성: {}", k);
-                return new Icon(k);
+        IconFactory(MappedIconStore store, FlyweightProperties.Icons settings, FlyweightCacheRegistry registry) {
+            FlyweightCacheSpec spec = new FlyweightCacheSpec();
+            spec.setMaximumSize(settings.getMaximumSize());
+            this.icons = new FlyweightCache<>(spec,
+                (name, icon) -> 32 + 40 + name.length() + 64 + icon.file.toString().length());
+            this.store = store;
+            this.atlas = new IconAtlas(store.getDirectory().resolve("atlas"));
+            this.atlasBatchMillis = settings.getAtlasBatchWindow().toMillis();
+            this.atlasBuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "icon-atlas");
+                thread.setDaemon(true);
+                return thread;
             });
+            registry.register("icon-factory", icons, KeyCodec.STRING, this::createIcon);
+            registry.register("icon-mappings", store.stats(), store::getMappedCount);
+            log.info("🖼️ 아이콘 저장소: {} (상주 예산: {} bytes)", store.getDirectory(), store.getBudgetBytes());
+        }
+        
+        @PreDestroy
+        public void stop() {
+            atlasBuilder.shutdownNow();
+        }
+        
+        /**
+         * 저장소에 있는 아이콘이면 공유 핸들, 없으면 null
+         * 새 핸들이 생기면 아틀라스 재생성을 예약 (요청 스레드에서는 묶지 않음)
+         */
+        public Icon getIcon(String name) {
+            return icons.get(name, this::createIcon);
+        }
+        
+        private Icon createIcon(String name) {
+            Path file = store.resolve(name);
+            if (file == null) {
+                return null;
+            }
+            log.info("🖼️ 새 아이콘 생성: {}", name);
+            requestAtlasRebuild();
+            return new Icon(name, file, store.sizeOf(file), store);
+        }
+        
+        // 창 안에 들어온 새 아이콘은 한 번의 재생성으로 묶음
+        private void requestAtlasRebuild() {
+            if (rebuildScheduled.compareAndSet(false, true)) {
+                atlasBuilder.schedule(this::rebuildAtlas, atlasBatchMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        /**
+         * 지금 캐시에 있는 아이콘을 모두 담은 아틀라스로 다시 묶음 (icon-atlas 스레드)
+         */
+        void rebuildAtlas() {
+            // 묶는 동안 생긴 아이콘은 다음 재생성을 예약하도록 먼저 풀어 둠
+            rebuildScheduled.set(false);
+            IconAtlas.Layout layout = atlas.getLayout();
+            Set<String> names = icons.keySet();
+            if (layout != null && layout.containsAll(names)) {
+                return;
+            }
+            Map<String, Path> files = new TreeMap<>();
+            for (String name : names) {
+                Path file = store.resolve(name);
+                if (file != null) {
+                    files.put(name, file);
+                }
+            }
+            try {
+                atlas.build(files);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("아틀라스 생성 실패: {}", e.getMessage());
+            }
+        }
+        
+        public IconAtlas getAtlas() {
+            return atlas;
         }
     }
     
+    // 가벼운 핸들: 바이트는 필요할 때 저장소에서 매핑된 버퍼로 읽음
     static class Icon {
         private final String name;
-        private final byte[] data; // 실제로는 이미지 데이터
+        private final Path file;
+        private final long size;
+        private final MappedIconStore store;
         
-        public Icon(String name) {
+        Icon(String name, Path file, long size, MappedIconStore store) {
             this.name = name;
-            this.data = loadIconData(name); // 가상의 로딩
+            this.file = file;
+            this.size = size;
+            this.store = store;
+        }
+        
+        public Path getFile() {
+            return file;
+        }
+        
+        // 읽기 전용 버퍼 (힙 복사 없음)
+        public ByteBuffer data() {
+            return store.read(file);
         }
         
-        private byte[] loadIconData(String name) {
-            // 실제로는 파일 시스템이나 리소스에서 로딩
-            return ("icon-data-" + name).getBytes();
+        public long getSize() {
+            return size;
         }
         
+        
         public void render(int x, int y) {
             log.info("🎯 아이콘 렌더링: {} at ({}, {})", name, x, y);
         }
     }
     
-    static class WeightManager {
+    /**
+     * 팩토리별 메모리 절약량 추정
+     * 
+     * - 공유(retained): 표본 엔트리의 키+값 그래프 크기 평균 × 엔트리 수
+     *   (표본끼리 공유하는 객체는 한 번만 셈)
+     * - 비공유(unshared): 플라이웨이트 없이 조회마다 값을 새로 만든다고 보고
+     *   값 하나의 그래프 크기 × 직전 표본 이후의 조회 수(적중 + 미스)
+     *   (그 사이에 만든 값이 한 표본 간격 동안 살아 있다고 봄. 누적 조회 수를 쓰면 이미 GC됐을 값까지 세어 한없이 커짐)
+     * - 주기적으로 별도 스레드에서 표본만 훑으므로 GC 정지나 힙 덤프 없음
+     */
+    public static class WeightManager {
+        // ConcurrentHashMap 노드 + FlyweightCache 노드
+        private static final long ENTRY_OVERHEAD = 72;
+        
+        private final FlyweightProperties.Footprint settings;
+        private final FlyweightCacheRegistry registry;
+        private final MeterRegistry meterRegistry;
+        private final ObjectSizeEstimator estimator = new ObjectSizeEstimator(MappedIconStore.class);
+        private final Map<String, Footprint> footprints = new ConcurrentSkipListMap<>();
+        // 캐시별 직전 표본 때의 누적 조회 수
+        private final Map<String, Long> lastRequestCounts = new ConcurrentHashMap<>();
+        private ScheduledExecutorService executor;
+        
+        WeightManager(FlyweightProperties.Footprint settings, FlyweightCacheRegistry registry, MeterRegistry meterRegistry) {
+            this.settings = settings;
+            this.registry = registry;
+            this.meterRegistry = meterRegistry;
+        }
+        
+        @PostConstruct
+        public void start() {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "flyweight-footprint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = settings.getSampleInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::sampleAll, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        
+        @PreDestroy
+        public void stop() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        
+        public void sampleAll() {
+            for (FlyweightCacheRegistry.RegisteredCache cache : registry.getCaches()) {
+                if (cache.getCache() == null) {
+                    continue;
+                }
+                try {
+                    Footprint footprint = sample(cache);
+                    if (footprints.put(cache.getName(), footprint) == null) {
+                        Gauge.builder("flyweight.memory.saved", this, m -> m.bytesSaved(cache.getName()))
+                            .tag("cache", cache.getName())
+                            .baseUnit(BaseUnits.BYTES)
+                            .register(meterRegistry);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("크기 추정 실패: {} - {}", cache.getName(), e.getMessage());
+                }
+            }
+        }
+        
+        private Footprint sample(FlyweightCacheRegistry.RegisteredCache registered) {
+            FlyweightCache<?, ?> cache = registered.getCache();
+            Map<?, ?> sample = cache.sample(settings.getSampleSize());
+            long entries = cache.size();
+            long requests = registered.getStats().requestCount();
+            Long previous = lastRequestCounts.put(registered.getName(), requests);
+            long uses = Math.max(0, requests - ((previous == null) ? 0 : previous));
+            if (sample.isEmpty()) {
+                return new Footprint(registered.getName(), entries, uses, 0, 0);
+            }
+            Set<Object> shared = ObjectSizeEstimator.newVisitedSet();
+            long sharedBytes = 0;
+            long valueBytes = 0;
+            for (Map.Entry<?, ?> entry : sample.entrySet()) {
+                sharedBytes += estimator.deepSize(entry.getKey(), shared) + estimator.deepSize(entry.getValue(), shared);
+                valueBytes += estimator.deepSize(entry.getValue(), ObjectSizeEstimator.newVisitedSet());
+            }
+            // 나누기를 마지막에 해서 표본 평균의 소수점 아래가 엔트리/조회 수만큼 불어나며 버려지지 않게 함
+            long retained = (sharedBytes + ENTRY_OVERHEAD * sample.size()) * entries / sample.size();
+            long unshared = valueBytes * uses / sample.size();
+            return new Footprint(registered.getName(), entries, uses, retained, unshared);
+        }
+        
+        private double bytesSaved(String name) {
+            Footprint footprint = footprints.get(name);
+            return (footprint == null) ? 0 : footprint.getBytesSaved();
+        }
+        
+        // 마지막 표본 (아직 없으면 null)
+        public Footprint getFootprint(String name) {
+            return footprints.get(name);
+        }
+        
+        public Collection<Footprint> getFootprints() {
+            return footprints.values();
+        }
+        
         public void logMemoryUsage() {
-            long usedMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-            log.info("💾 현재 메모리 사용량: {} MB", usedMemory / (1024 * 1024));
+            footprints.values().forEach(footprint ->
+                log.info("💾 {}: 공유 {} / 비공유 {} → {} 절약", footprint.getName(),
+                    footprint.getRetained(), footprint.getUnshared(), footprint.getSaved()));
+        }
+    }
+    
+    public static class Footprint {
+        private final String name;
+        private final long entries;
+        private final long uses;
+        private final long retainedBytes;
+        private final long unsharedBytes;
+        
+        Footprint(String name, long entries, long uses, long retainedBytes, long unsharedBytes) {
+            this.name = name;
+            this.entries = entries;
+            this.uses = uses;
+            this.retainedBytes = retainedBytes;
+            this.unsharedBytes = unsharedBytes;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public long getEntries() {
+            return entries;
+        }
+        
+        public long getUses() {
+            return uses;
+        }
+        
+        public long getRetainedBytes() {
+            return retainedBytes;
+        }
+        
+        public long getUnsharedBytes() {
+            return unsharedBytes;
+        }
+        
+        // 조회가 적으면 음수 (공유 저장소 비용이 더 큼)
+        public long getBytesSaved() {
+            return unsharedBytes - retainedBytes;
+        }
+        
+        // 템플릿 표시용
+        public String getRetained() {
+            return format(retainedBytes);
+        }
+        
+        public String getUnshared() {
+            return format(unsharedBytes);
+        }
+        
+        public String getSaved() {
+            return format(getBytesSaved());
+        }
+        
+        private static String format(long bytes) {
+            long abs = Math.abs(bytes);
+            if (abs < 1024) {
+                return bytes + " B";
+            }
+            if (abs < 1024 * 1024) {
+                return String.format("%.1f KB", bytes / 1024.0);
+            }
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
         }
     }
 }
@@ -81,5 +381,7 @@ public class FlyweightConfig {
  * 핵심 포인트:
  * 1. @EnableCaching으로 Spring Cache 활성화
  * 2. 팩토리 Bean들을 싱글톤으로 관리
- * 3. 메모리 모니터링을 위한 유틸리티 제공
+ * 2-1. 저장소 정책은 FlyweightProperties(flyweight.*)로 설정
+ * 3. 메모리 모니터링: WeightManager가 팩토리별 절약 바이트를 주기적으로 추정
+ * 4. 모든 캐시는 FlyweightCacheRegistry에 등록되어 cache.* 지표와 /actuator/flyweights 로 노출
  */
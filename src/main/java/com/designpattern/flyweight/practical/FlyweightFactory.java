@@ -0,0 +1,88 @@
+package com.designpattern.flyweight.practical;
+
+import com.designpattern.flyweight.cache.CompositeKey;
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.cache.KeyCodec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 플라이웨이트 팩토리 - Spring Bean으로 관리
+ */
+@Component
+@Slf4j
+public class FlyweightFactory {
+    
+    // 핵심 1: ConcurrentHashMap 기반 저장소 (Thread-Safe)
+    // 키가 사용자 입력에서 만들어지므로 크기 제한/약한 참조 정책을 설정으로 선택
+    private final FlyweightCache<String, Flyweight> flyweights;
+    
+    // 문자-폰트-크기-색상처럼 여러 요소로 된 키는 문자열로 합치지 않고 CompositeKey로 보관
+    private final FlyweightCache<CompositeKey, Flyweight> styledFlyweights;
+    
+    public FlyweightFactory(FlyweightProperties properties, FlyweightCacheRegistry registry) {
+        // flyweight.factory.maximum-size는 두 저장소 합계: 절반씩 나눔 (최소 1개씩)
+        FlyweightCacheSpec spec = properties.getFactory();
+        FlyweightCacheSpec plainSpec = spec;
+        FlyweightCacheSpec styledSpec = spec;
+        if (spec.isBounded()) {
+            long plainMaximum = Math.max(1, spec.getMaximumSize() / 2);
+            plainSpec = spec.withMaximumSize(plainMaximum);
+            styledSpec = spec.withMaximumSize(Math.max(1, spec.getMaximumSize() - plainMaximum));
+        }
+        // 추정 크기: 키 String(~40 + 길이) + ConcreteFlyweight(16, 키 문자열 공유)
+        this.flyweights = new FlyweightCache<>(plainSpec, (key, flyweight) -> 56 + key.length());
+        // 추정 크기: CompositeKey(40) + ConcreteFlyweight(16) + 내재적 상태 문자열(~56)
+        this.styledFlyweights = new FlyweightCache<>(styledSpec, (key, flyweight) -> 112);
+        registry.register("flyweight-factory", flyweights, KeyCodec.STRING, FlyweightFactory::create);
+        registry.register("flyweight-factory-styled", styledFlyweights, KeyCodec.COMPOSITE, FlyweightFactory::createStyled);
+        log.info("🏭 플라이웨이트 팩토리 초기화 (최대 크기: {}, 참조 방식: {})",
+            spec.isBounded() ? plainSpec.getMaximumSize() + " + " + styledSpec.getMaximumSize() : "무제한",
+            flyweights.getValueStrength());
+    }
+    
+    // 핵심 2: 같은 키는 한 번만 생성 (Atomic 연산)
+    public Flyweight getFlyweight(String key) {
+        return flyweights.get(key, FlyweightFactory::create);
+    }
+    
+    // 핵심 3: 여러 요소로 된 키는 요소 그대로 조회 (적중 시 키 문자열/객체 생성 없음)
+    public Flyweight getFlyweight(char ch, String font, int size, String color) {
+        return styledFlyweights.get(CompositeKey.probe(ch, size, font, color), CompositeKey.Probe::toKey,
+            FlyweightFactory::createStyled);
+    }
+    
+    private static Flyweight create(String key) {
+        log.info("✨ 새로운 플라이웨이트 생성: {}", key);
+        return new ConcreteFlyweight(key);
+    }
+    
+    private static Flyweight createStyled(CompositeKey key) {
+        String intrinsicState = describe(key);
+        log.info("✨ 새로운 플라이웨이트 생성: {}", intrinsicState);
+        return new ConcreteFlyweight(intrinsicState);
+    }
+    
+    private static String describe(CompositeKey key) {
+        return (char) key.getLong(0) + "-" + key.getRef(0) + "-" + key.getLong(1) + "-" + key.getRef(1);
+    }
+    
+    // 모니터링용 메소드 (실무에서 중요!)
+    public int getInstanceCount() {
+        return flyweights.size() + styledFlyweights.size();
+    }
+    
+    // 키 전체 목록은 DEBUG 레벨에서만 출력 (상세 통계는 /actuator/flyweights)
+    public void printStatus() {
+        log.info("📊 현재 플라이웨이트 인스턴스 수: {} (적중률: 문자열 키 {}%, 복합 키 {}%)", getInstanceCount(),
+            Math.round(flyweights.stats().hitRate() * 100), Math.round(styledFlyweights.stats().hitRate() * 100));
+        if (log.isDebugEnabled()) {
+            flyweights.keySet().forEach(key -> 
+                log.debug("  - {}", key));
+            styledFlyweights.keySet().forEach(key -> 
+                log.debug("  - {}", describe(key)));
+        }
+    }
+}
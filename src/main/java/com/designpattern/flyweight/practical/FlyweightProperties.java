@@ -0,0 +1,70 @@
+package com.designpattern.flyweight.practical;
+
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 플라이웨이트 팩토리 설정 (application.yml의 flyweight.*)
+ */
+@ConfigurationProperties(prefix = "flyweight")
+@Data
+public class FlyweightProperties {
+    // practical.FlyweightFactory 저장소 정책
+    private FlyweightCacheSpec factory = new FlyweightCacheSpec();
+    
+    // Spring 캐시(@Cacheable)별 저장소 정책 (flyweight.caches.{이름}.*)
+    private Map<String, FlyweightCacheSpec> caches = new LinkedHashMap<>();
+    
+    // 아이콘 파일 위치와 매핑 예산 (flyweight.icons.*)
+    private Icons icons = new Icons();
+    
+    // 팩토리별 메모리 절약량 추정 (flyweight.footprint.*)
+    private Footprint footprint = new Footprint();
+    
+    // 키 집합 스냅샷과 재시작 후 미리 채우기 (flyweight.snapshot.*)
+    private Snapshot snapshot = new Snapshot();
+    
+    @Data
+    public static class Icons {
+        // {이름}.icon 파일을 읽는 디렉터리
+        private String directory = "flyweight-icons";
+        
+        // 동시에 매핑해 둘 아이콘 바이트 상한 (넘으면 LRU로 놓아줌)
+        private DataSize residentBudget = DataSize.ofMegabytes(64);
+        
+        // 아이콘 핸들 캐시의 최대 엔트리 수
+        private long maximumSize = 1024;
+        
+        // 새 아이콘이 생긴 뒤 아틀라스를 다시 묶기까지 모으는 시간
+        private Duration atlasBatchWindow = Duration.ofMillis(200);
+    }
+    
+    @Data
+    public static class Footprint {
+        // 표본 추출 간격
+        private Duration sampleInterval = Duration.ofSeconds(30);
+        
+        // 캐시마다 크기를 재 볼 엔트리 수
+        private int sampleSize = 64;
+    }
+    
+    @Data
+    public static class Snapshot {
+        private boolean enabled = false;
+        
+        // 캐시마다 {이름}.snap 파일로 저장
+        private String directory = "flyweight-snapshots";
+        
+        // 주기적 저장 간격 (종료 시에도 한 번 저장)
+        private Duration interval = Duration.ofMinutes(5);
+        
+        // 캐시마다 빈도 상위 몇 개를 먼저 채운 뒤 준비 완료(readiness)로 볼지
+        private int hotSetSize = 256;
+    }
+}
@@ -0,0 +1,200 @@
+package com.designpattern.flyweight.practical;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 아이콘 아틀라스: 모든 아이콘 파일을 하나의 연속된 파일로 묶고 이름 → (offset, length) 색인을 유지
+ *
+ * - 묶을 때도 FileChannel.transferTo로 파일 → 파일 복사 (힙을 거치지 않음)
+ * - 아이콘 하나든 아틀라스 전체든 같은 파일의 구간으로 보내므로
+ *   Tomcat sendfile 등 커널 수준 zero-copy 전송을 그대로 쓸 수 있음
+ * - 다시 묶을 때는 새 버전 파일(atlas-{버전}.bin)을 만들고 색인을 한 번에 교체
+ *   직전 버전 파일은 전송 중인 응답을 위해 한 세대 더 남겨 둠
+ * - 이전 실행이 남긴 아틀라스 파일은 색인이 없으므로 시작할 때 지우고,
+ *   버전은 그 파일들 다음 번호부터 매겨 같은 이름의 파일을 다시 쓰지 않음
+ */
+@Slf4j
+public class IconAtlas {
+    private final Path directory;
+    private final LongAdder zeroCopyBytes = new LongAdder();
+    private final LongAdder copiedBytes = new LongAdder();
+    private volatile Layout layout;
+    private long lastVersion;
+    private Path retired;
+    
+    public IconAtlas(Path directory) {
+        this.directory = directory;
+        this.lastVersion = removeStale(directory);
+    }
+    
+    // 남은 atlas-{버전}.bin을 지우고 가장 큰 버전을 돌려줌
+    private static long removeStale(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long max = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "atlas-*.bin")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    max = Math.max(max, Long.parseLong(name.substring("atlas-".length(), name.length() - ".bin".length())));
+                } catch (NumberFormatException e) {
+                    // 다른 이름 규칙의 파일은 버전 계산에서 제외
+                }
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("이전 아틀라스 정리 실패: {}", e.getMessage());
+        }
+        return max;
+    }
+    
+    /**
+     * 주어진 아이콘 파일들을 새 아틀라스로 묶음 (이름 순서 유지)
+     */
+    public synchronized Layout build(Map<String, Path> icons) throws IOException {
+        long version = ++lastVersion;
+        Files.createDirectories(directory);
+        Path file = directory.resolve("atlas-" + version + ".bin");
+        Map<String, Region> index = new LinkedHashMap<>();
+        long offset = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Path> icon : icons.entrySet()) {
+                try (FileChannel in = FileChannel.open(icon.getValue(), StandardOpenOption.READ)) {
+                    long length = in.size();
+                    transferFully(in, 0, length, out);
+                    index.put(icon.getKey(), new Region(offset, length));
+                    offset += length;
+                }
+            }
+        }
+        Layout previous = layout;
+        layout = new Layout(version, file, offset, Collections.unmodifiableMap(index));
+        if (retired != null) {
+            Files.deleteIfExists(retired);
+        }
+        retired = (previous == null) ? null : previous.file;
+        log.info("🧩 아이콘 아틀라스 생성: v{} ({}개, {} bytes)", version, index.size(), offset);
+        return layout;
+    }
+    
+    // 아직 한 번도 만들지 않았으면 null
+    public Layout getLayout() {
+        return layout;
+    }
+    
+    /**
+     * 파일 구간을 채널로 전송 (아틀라스 파일, 아직 묶이지 않은 아이콘이면 아이콘 파일)
+     * 대상이 소켓/파일 채널이면 JDK가 sendfile 등으로 처리하지만
+     * 서블릿 출력 스트림을 감싼 채널이면 내부 버퍼를 거쳐 복사됨 → 복사 바이트로 기록
+     */
+    public void transfer(Path file, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            transferFully(in, offset, length, target);
+        }
+        if (target instanceof FileChannel) {
+            recordZeroCopy(length);
+        } else {
+            recordCopied(length);
+        }
+    }
+    
+    private static void transferFully(FileChannel in, long offset, long length, WritableByteChannel target) throws IOException {
+        long sent = 0;
+        while (sent < length) {
+            long n = in.transferTo(offset + sent, length - sent, target);
+            if (n <= 0 && sent < length && offset + sent >= in.size()) {
+                throw new IOException("아틀라스 파일이 예상보다 짧습니다");
+            }
+            sent += n;
+        }
+    }
+    
+    public void recordZeroCopy(long bytes) {
+        zeroCopyBytes.add(bytes);
+    }
+    
+    public void recordCopied(long bytes) {
+        copiedBytes.add(bytes);
+    }
+    
+    // 커널에서 바로 전송한 바이트
+    public long getZeroCopyBytes() {
+        return zeroCopyBytes.sum();
+    }
+    
+    // JVM 안에서 버퍼/배열로 복사해 보낸 바이트
+    public long getCopiedBytes() {
+        return copiedBytes.sum();
+    }
+    
+    public static class Layout {
+        private final long version;
+        private final Path file;
+        private final long size;
+        private final Map<String, Region> index;
+        
+        Layout(long version, Path file, long size, Map<String, Region> index) {
+            this.version = version;
+            this.file = file;
+            this.size = size;
+            this.index = index;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        public Path getFile() {
+            return file;
+        }
+        
+        public long getSize() {
+            return size;
+        }
+        
+        public Map<String, Region> getIndex() {
+            return index;
+        }
+        
+        public Region regionOf(String name) {
+            return index.get(name);
+        }
+        
+        public boolean containsAll(Collection<String> names) {
+            return index.keySet().containsAll(names);
+        }
+    }
+    
+    public static class Region {
+        private final long offset;
+        private final long length;
+        
+        Region(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+        
+        public long getOffset() {
+            return offset;
+        }
+        
+        public long getLength() {
+            return length;
+        }
+    }
+}
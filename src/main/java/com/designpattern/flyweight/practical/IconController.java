@@ -0,0 +1,118 @@
+package com.designpattern.flyweight.practical;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 아이콘 전송 - 아틀라스 파일의 구간을 그대로 응답으로 보냄
+ *
+ * Tomcat이 sendfile을 지원하면(NIO 커넥터 기본값) 파일 이름과 구간만 요청 속성으로 넘기고
+ * 실제 전송은 서블릿이 끝난 뒤 커널이 처리 → JVM 안에서는 한 바이트도 복사하지 않음
+ * 지원하지 않으면 FileChannel.transferTo로 출력 스트림에 보냄
+ *
+ * 저장소에 없는 아이콘은 404, 아직 아틀라스에 묶이지 않은 아이콘은 아이콘 파일을 그대로 보냄
+ * (아틀라스는 IconFactory가 백그라운드에서 다시 묶음)
+ */
+@Controller
+@RequestMapping("/icons")
+public class IconController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    @Autowired
+    private FlyweightConfig.IconFactory iconFactory;
+    
+    // 아이콘 하나 (아틀라스의 구간)
+    @GetMapping("/{name}")
+    public void icon(@PathVariable String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FlyweightConfig.Icon icon = iconFactory.getIcon(name);
+        if (icon == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        IconAtlas.Layout layout = iconFactory.getAtlas().getLayout();
+        IconAtlas.Region region = (layout == null) ? null : layout.regionOf(name);
+        if (region == null) {
+            send(icon.getFile(), 0, icon.getSize(), request, response);
+            return;
+        }
+        send(layout.getFile(), region.getOffset(), region.getLength(), request, response);
+    }
+    
+    // 아틀라스 전체 (색인은 /icons/atlas/index), 아직 묶인 적이 없으면 404
+    @GetMapping("/atlas")
+    public void atlas(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        IconAtlas.Layout layout = iconFactory.getAtlas().getLayout();
+        if (layout == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("X-Atlas-Version", String.valueOf(layout.getVersion()));
+        send(layout.getFile(), 0, layout.getSize(), request, response);
+    }
+    
+    @GetMapping("/atlas/index")
+    @ResponseBody
+    public Map<String, IconAtlas.Region> atlasIndex() {
+        IconAtlas.Layout layout = iconFactory.getAtlas().getLayout();
+        return (layout == null) ? Map.of() : layout.getIndex();
+    }
+    
+    // 비교용 기존 방식: 아이콘마다 byte[]로 복사해서 응답
+    @GetMapping("/{name}/bytes")
+    public ResponseEntity<byte[]> iconBytes(@PathVariable String name) {
+        FlyweightConfig.Icon icon = iconFactory.getIcon(name);
+        if (icon == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ByteBuffer data = icon.data();
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        iconFactory.getAtlas().recordCopied(bytes.length);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(bytes);
+    }
+    
+    @GetMapping("/stats")
+    @ResponseBody
+    public Map<String, Object> stats() {
+        IconAtlas atlas = iconFactory.getAtlas();
+        IconAtlas.Layout layout = atlas.getLayout();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("atlasVersion", (layout == null) ? 0 : layout.getVersion());
+        stats.put("atlasIcons", (layout == null) ? 0 : layout.getIndex().size());
+        stats.put("atlasBytes", (layout == null) ? 0 : layout.getSize());
+        stats.put("zeroCopyBytes", atlas.getZeroCopyBytes());
+        stats.put("copiedBytes", atlas.getCopiedBytes());
+        return stats;
+    }
+    
+    private void send(Path file, long offset, long length,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, offset);
+            request.setAttribute(SENDFILE_END, offset + length);
+            iconFactory.getAtlas().recordZeroCopy(length);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        iconFactory.getAtlas().transfer(file, offset, length, out);
+    }
+}
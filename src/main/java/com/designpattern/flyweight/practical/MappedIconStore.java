@@ -0,0 +1,134 @@
+package com.designpattern.flyweight.practical;
+
+import com.designpattern.flyweight.cache.CacheStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 아이콘 바이트를 힙 밖에서 관리하는 저장소
+ *
+ * - 아이콘 파일은 처음 읽을 때 MappedByteBuffer로 매핑 (힙에 복사하지 않음)
+ * - 매핑된 바이트 합계가 budgetBytes를 넘으면 가장 오래 안 쓴 매핑부터 놓아줌 (LRU)
+ *   놓아준 매핑은 사용 중인 곳이 없어지면 GC 때 해제되고, 다시 필요하면 새로 매핑
+ * - 플라이웨이트(Icon)는 이름/경로/크기만 가진 핸들이므로
+ *   힙 사용량이 아이콘 개수와 파일 크기에 비례해 늘지 않음
+ */
+public class MappedIconStore {
+    private static final String EXTENSION = ".icon";
+    
+    private final Path directory;
+    private final long budgetBytes;
+    private final CacheStats stats = new CacheStats();
+    
+    // 접근 순서 LinkedHashMap = LRU (this로 보호)
+    private final LinkedHashMap<Path, MappedByteBuffer> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+    
+    public MappedIconStore(Path directory, long budgetBytes) {
+        this.directory = directory;
+        this.budgetBytes = budgetBytes;
+    }
+    
+    /**
+     * 아이콘 이름 → 파일 경로 (저장소에 없으면 null)
+     * 요청 이름으로 파일을 만들지 않으므로 임의의 이름이 디스크나 캐시를 채우지 못함
+     */
+    public Path resolve(String name) {
+        if (name.isEmpty() || name.contains("/") || name.contains("\\") || name.contains("..")) {
+            throw new IllegalArgumentException("잘못된 아이콘 이름: " + name);
+        }
+        Path file = directory.resolve(name + EXTENSION);
+        return Files.isRegularFile(file) ? file : null;
+    }
+    
+    public long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 아이콘 바이트 (읽기 전용, 호출마다 독립적인 position/limit)
+     */
+    public ByteBuffer read(Path file) {
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            buffer = resident.get(file);
+        }
+        if (buffer != null) {
+            stats.recordHit();
+            return buffer.asReadOnlyBuffer();
+        }
+        stats.recordMiss();
+        long start = System.nanoTime();
+        buffer = map(file);
+        stats.recordLoad(System.nanoTime() - start);
+        return admit(file, buffer).asReadOnlyBuffer();
+    }
+    
+    private MappedByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 채널을 닫아도 매핑은 유효함
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private synchronized MappedByteBuffer admit(Path file, MappedByteBuffer buffer) {
+        MappedByteBuffer existing = resident.get(file);
+        if (existing != null) {
+            return existing;
+        }
+        // 예산보다 큰 아이콘은 붙잡아 두지 않고 이번 호출에만 사용
+        if (buffer.capacity() > budgetBytes) {
+            return buffer;
+        }
+        resident.put(file, buffer);
+        residentBytes += buffer.capacity();
+        stats.addRetainedBytes(buffer.capacity());
+        
+        Iterator<Map.Entry<Path, MappedByteBuffer>> eldest = resident.entrySet().iterator();
+        while (residentBytes > budgetBytes && eldest.hasNext()) {
+            MappedByteBuffer victim = eldest.next().getValue();
+            eldest.remove();
+            residentBytes -= victim.capacity();
+            stats.addRetainedBytes(-victim.capacity());
+            stats.recordEviction();
+        }
+        return buffer;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+    
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+    
+    public synchronized int getMappedCount() {
+        return resident.size();
+    }
+    
+    // retainedBytes = 현재 붙잡고 있는 매핑 바이트 (힙 밖)
+    public CacheStats stats() {
+        return stats;
+    }
+}
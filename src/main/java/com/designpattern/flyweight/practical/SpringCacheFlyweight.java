@@ -10,8 +10,6 @@ import lombok.extern.slf4j.Slf4j;
  * 더 간단하고 Spring스러운 방법!
  */
 
-// 의존성 추가 필요: spring-boot-starter-cache
-
 // 1. 캐시 설정
 @CacheConfig(cacheNames = "flyweights")
 @Component
@@ -19,7 +17,9 @@ import lombok.extern.slf4j.Slf4j;
 public class SpringCacheFlyweight {
     
     // 핵심: @Cacheable로 자동 캐싱!
-    @Cacheable(key = "#fontFamily + '-' + #fontSize + '-' + #color")
+    // - keyGenerator: SpEL 대신 CompositeKey로 키 생성 (호출마다 표현식 평가/문자열 결합 없음)
+    // - sync: 같은 스타일을 동시에 요청해도 한 번만 생성
+    @Cacheable(keyGenerator = "compositeKeyGenerator", sync = true)
     public FontStyle createFontStyle(String fontFamily, int fontSize, String color) {
         log.info("🎨 새로운 폰트 스타일 생성: {}-{}-{}", fontFamily, fontSize, color);
         // 실제로는 비용이 많이 드는 작업
@@ -46,13 +46,13 @@ public class SpringCacheFlyweight {
 }
 
 /*
- * 설정 파일에 추가 필요 (application.yml):
+ * 캐시 설정 (application.yml):
  * 
- * spring:
- *   cache:
- *     type: simple  # 또는 redis, ehcache 등
- *     cache-names:
- *       - flyweights
+ * flyweight:
+ *   caches:
+ *     flyweights:
+ *       maximum-size: 1000
+ *       expire-after-access: 30m
  * 
- * 그리고 메인 클래스에 @EnableCaching 추가
+ * 캐시 매니저와 @EnableCaching은 FlyweightConfig 참고
  */
@@ -0,0 +1,209 @@
+package com.designpattern.flyweight.snapshot;
+
+import com.designpattern.flyweight.cache.CacheSnapshot;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.FlyweightProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 플라이웨이트 캐시 스냅샷 저장 + 재시작 후 미리 채우기(warm start)
+ *
+ * 1. 주기적으로(그리고 종료 시) 스냅샷 대상 캐시의 키와 추정 빈도를 {이름}.snap 파일로 저장
+ * 2. 시작 시 별도 스레드에서 스냅샷을 읽어 빈도 높은 순으로 팩토리의 생성 함수를 호출
+ *    (캐시 통계에는 남기지 않으므로 적중률은 실제 요청만 반영)
+ *    - 먼저 캐시마다 상위 hotSetSize개(hot set)를 모든 캐시에 걸쳐 빈도 순으로 채우고
+ *    - hot set이 끝나면 준비 완료로 표시 (FlyweightWarmupHealthIndicator → readiness)
+ *    - 나머지 키는 이어서 백그라운드로 채움
+ */
+@Component
+@Slf4j
+public class FlyweightSnapshotService {
+    private final FlyweightCacheRegistry registry;
+    private final FlyweightProperties.Snapshot settings;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger hotLoaded = new AtomicInteger();
+    private final AtomicInteger totalLoaded = new AtomicInteger();
+    private volatile boolean warm;
+    private volatile int hotSetTotal;
+    private volatile long warmupMillis = -1;
+    private ScheduledExecutorService executor;
+    
+    public FlyweightSnapshotService(FlyweightCacheRegistry registry, FlyweightProperties properties) {
+        this.registry = registry;
+        this.settings = properties.getSnapshot();
+    }
+    
+    // 모든 팩토리 Bean이 캐시를 등록한 뒤 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!settings.isEnabled()) {
+            warm = true;
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "flyweight-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::preload);
+        long interval = settings.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::saveAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveAll();
+    }
+    
+    /**
+     * 모든 스냅샷 대상 캐시 저장
+     */
+    public void saveAll() {
+        for (FlyweightCacheRegistry.RegisteredCache cache : registry.getCaches()) {
+            if (cache.getSnapshotter() == null) {
+                continue;
+            }
+            try {
+                int count = cache.getSnapshotter().save(fileOf(cache.getName()));
+                log.debug("💾 스냅샷 저장: {} ({}개 키)", cache.getName(), count);
+            } catch (IOException | RuntimeException e) {
+                log.warn("스냅샷 저장 실패: {} - {}", cache.getName(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 스냅샷을 읽어 hot set → 나머지 순으로 미리 채움 (호출한 스레드에서 실행)
+     */
+    public void preload() {
+        long start = System.nanoTime();
+        List<PendingKey<?>> hot = new ArrayList<>();
+        List<PendingKey<?>> rest = new ArrayList<>();
+        for (FlyweightCacheRegistry.RegisteredCache cache : registry.getCaches()) {
+            if (cache.getSnapshotter() != null) {
+                collect(cache, cache.getSnapshotter(), hot, rest);
+            }
+        }
+        Comparator<PendingKey<?>> byFrequency = Comparator.comparingInt(key -> -key.frequency);
+        hot.sort(byFrequency);
+        rest.sort(byFrequency);
+        hotSetTotal = hot.size();
+        
+        for (PendingKey<?> key : hot) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            load(key);
+            hotLoaded.incrementAndGet();
+        }
+        warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        warm = true;
+        log.info("🔥 플라이웨이트 hot set 준비 완료: {}개 키, {}ms", hot.size(), warmupMillis);
+        
+        for (PendingKey<?> key : rest) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            load(key);
+        }
+        log.info("🔥 플라이웨이트 미리 채우기 완료: 총 {}개 키, {}ms", totalLoaded.get(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    private <K> void collect(FlyweightCacheRegistry.RegisteredCache cache, FlyweightCacheRegistry.Snapshotter<K, ?> snapshotter,
+                             List<PendingKey<?>> hot, List<PendingKey<?>> rest) {
+        Path file = fileOf(cache.getName());
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            CacheSnapshot<K> snapshot = snapshotter.load(file);
+            for (int i = 0; i < snapshot.size(); i++) {
+                PendingKey<K> key = new PendingKey<>(snapshotter, snapshot.getKey(i), snapshot.getFrequency(i));
+                (i < settings.getHotSetSize() ? hot : rest).add(key);
+            }
+            log.info("📂 스냅샷 읽기: {} ({}개 키)", cache.getName(), snapshot.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("스냅샷을 읽지 못해 건너뜀: {} - {}", cache.getName(), e.getMessage());
+        }
+    }
+    
+    private void load(PendingKey<?> key) {
+        try {
+            key.preload();
+            totalLoaded.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.debug("미리 채우기 실패: {} - {}", key.key, e.getMessage());
+        }
+    }
+    
+    private Path fileOf(String cacheName) {
+        return Paths.get(settings.getDirectory(), cacheName + ".snap");
+    }
+    
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    public int getHotSetTotal() {
+        return hotSetTotal;
+    }
+    
+    public int getHotLoaded() {
+        return hotLoaded.get();
+    }
+    
+    public int getTotalLoaded() {
+        return totalLoaded.get();
+    }
+    
+    // hot set 채우기에 걸린 시간 (아직 끝나지 않았으면 -1)
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+    
+    private static class PendingKey<K> {
+        private final FlyweightCacheRegistry.Snapshotter<K, ?> snapshotter;
+        private final K key;
+        private final int frequency;
+        
+        PendingKey(FlyweightCacheRegistry.Snapshotter<K, ?> snapshotter, K key, int frequency) {
+            this.snapshotter = snapshotter;
+            this.key = key;
+            this.frequency = frequency;
+        }
+        
+        void preload() {
+            snapshotter.preload(key);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.designpattern.flyweight.snapshot;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * hot set을 다 채우기 전에는 OUT_OF_SERVICE
+ * application.yml에서 readiness 그룹에 포함시켜 준비되지 않은 인스턴스로 트래픽이 가지 않게 함
+ * (/actuator/health/readiness)
+ */
+@Component
+public class FlyweightWarmupHealthIndicator implements HealthIndicator {
+    private final FlyweightSnapshotService snapshotService;
+    
+    public FlyweightWarmupHealthIndicator(FlyweightSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = snapshotService.isWarm() ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("hotLoaded", snapshotService.getHotLoaded())
+            .withDetail("hotSetTotal", snapshotService.getHotSetTotal())
+            .withDetail("totalLoaded", snapshotService.getTotalLoaded())
+            .withDetail("warmupMillis", snapshotService.getWarmupMillis())
+            .build();
+    }
+}
@@ -1,8 +1,10 @@
 package com.designpattern.patterns;
 
+import com.designpattern.flyweight.pool.ObjectPool;
 import lombok.extern.slf4j.Slf4j;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 객체 풀 패턴 예시
@@ -31,31 +33,37 @@ public class ObjectPoolExample {
         }
     }
     
-    // 객체 풀
+    // 객체 풀: 범용 ObjectPool 위에서 동작 (최대 maxSize개, 빌려 간 것까지 세어 상한을 지킴)
+    // 미리 만들어 둘 객체는 생성자에서 기다리지 않고 백그라운드에서 병렬로 만듦 (100ms × 3 → 약 100ms)
+    // 그동안 빌리러 오면 새로 만들지 않고 만들어지고 있는 객체를 기다림
     static class ExpensiveObjectPool {
-        private final BlockingQueue<ExpensiveObject> pool = new LinkedBlockingQueue<>();
-        private final int maxSize;
+        private static final int PREWARM = 3;
+        private static final long BORROW_TIMEOUT_MILLIS = 500;
+        
+        private final ObjectPool<ExpensiveObject> pool;
         
         public ExpensiveObjectPool(int maxSize) {
-            this.maxSize = maxSize;
-            // 미리 몇 개 생성해 둠
-            for (int i = 0; i < Math.min(3, maxSize); i++) {
-                pool.offer(new ExpensiveObject());
-            }
+            this.pool = new ObjectPool<>(ExpensiveObject::new, maxSize);
+            int count = Math.min(PREWARM, maxSize);
+            ExecutorService executor = Executors.newFixedThreadPool(count, r -> {
+                Thread thread = new Thread(r, "object-pool-prewarm");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.warmUp(count, executor);
+            executor.shutdown();
         }
         
+        // 모두 빌려 갔으면 반납을 잠깐 기다리고, 그래도 없으면 null
         public ExpensiveObject borrowObject() {
-            ExpensiveObject obj = pool.poll();
-            if (obj == null && pool.size() < maxSize) {
-                obj = new ExpensiveObject(); // 새로 생성
-            }
+            ExpensiveObject obj = pool.borrowObject(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
             log.info("📤 객체 대여: {}", obj != null ? "성공" : "풀이 꽉 참");
             return obj;
         }
         
         public void returnObject(ExpensiveObject obj) {
             if (obj != null) {
-                pool.offer(obj);
+                pool.returnObject(obj);
                 log.info("📥 객체 반납 완료");
             }
         }
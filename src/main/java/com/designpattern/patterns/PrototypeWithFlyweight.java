@@ -1,8 +1,9 @@
 package com.designpattern.patterns;
 
+import com.designpattern.flyweight.cache.CompositeKey;
 import lombok.extern.slf4j.Slf4j;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 프로토타입 패턴과 플라이웨이트 패턴의 조합 예시
@@ -40,12 +41,17 @@ public class PrototypeWithFlyweight {
     
     // 플라이웨이트 팩토리
     static class StyleFactory {
-        private static final Map<String, CharacterStyle> styles = new HashMap<>();
+        private static final Map<CompositeKey, CharacterStyle> styles = new ConcurrentHashMap<>();
         
         public static CharacterStyle getStyle(String fontFamily, int fontSize, String color) {
-            String key = fontFamily + "-" + fontSize + "-" + color;
+            // 키 문자열을 만들지 않고 요소 그대로 조회, 없을 때만 저장용 키 생성
+            CompositeKey.Probe probe = CompositeKey.probe(fontSize, 0, fontFamily, color);
+            CharacterStyle style = styles.get(probe);
+            if (style != null) {
+                return style;
+            }
             
-            return styles.computeIfAbsent(key, k -> {
+            return styles.computeIfAbsent(probe.toKey(), k -> {
                 log.info("✨ 새 스타일 생성 (플라이웨이트)");
                 return new CharacterStyle(fontFamily, fontSize, color);
             });
@@ -0,0 +1,136 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.ConnectionPoolProperties;
+import com.designpattern.flyweight.database.DatabaseService;
+import com.designpattern.flyweight.database.QueryBulkheadProperties;
+import com.designpattern.flyweight.database.QueryExecutorConfig;
+import com.designpattern.flyweight.database.QueryExecutorProperties;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DatabaseService 동기 실행 vs 비동기 실행 (요청 스레드 점유 / 동시 진행 쿼리 수)
+ *
+ * Tomcat 요청 스레드 풀을 작은 고정 스레드 풀로 흉내 내고 쿼리 요청을 한꺼번에 보냄
+ * - sync:  요청 스레드가 연결 대기 + 쿼리(0.5~1.5초) 내내 묶임
+ * - async: 요청 스레드는 executeQueryAsync만 호출하고 바로 돌아감
+ * 도중에 가벼운 요청(상태 조회)을 하나 보내 요청 스레드를 얼마나 기다리는지도 잼
+ *
+ * 벌크헤드는 끄고 연결 풀만 동시 실행 수를 제한하게 둠 (queryExecutor 스레드는 풀 최대 × 8 = 80개, 작업 대기열 없음)
+ * - exec peak: 동시에 시작된 쿼리 작업 수 (queryExecutor 스레드 최대 사용 수) - 모두 연결 대기 시간이 흐르는 중
+ * - rejected:  스레드를 얻지 못해 바로 "❌" 응답을 받은 쿼리 (줄 서서 기다리지 않음)
+ * - timeouts:  스레드는 얻었지만 연결 대기 시간(5초) 안에 연결을 얻지 못한 쿼리
+ * 60개는 스레드 수 안이므로 전부 실행, 200개는 80개만 시작하고 나머지는 바로 거절
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=AsyncQueryBenchmark
+ */
+public class AsyncQueryBenchmark {
+    private static final int REQUEST_THREADS = 20;
+    private static final int[] QUERIES = {60, 200};
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== 쿼리 동시 요청 (요청 스레드 %d개, 연결 최대 10개, 연결 대기 5초) ===%n", REQUEST_THREADS);
+        System.out.printf("%-6s %7s %14s %9s %16s %10s %9s %9s %12s%n", "mode", "queries", "peak in-flight",
+            "exec peak", "req-thread hold", "completed", "rejected", "timeouts", "status wait");
+        for (int queries : QUERIES) {
+            run(false, queries);
+            run(true, queries);
+        }
+    }
+
+    private static void run(boolean async, int queries) throws Exception {
+        QueryBulkheadProperties bulkhead = new QueryBulkheadProperties();
+        bulkhead.setEnabled(false);
+        ThreadPoolExecutor queryExecutor = (ThreadPoolExecutor) new QueryExecutorConfig().queryExecutor(
+            new QueryExecutorProperties(), new ConnectionPoolProperties(), bulkhead);
+        ConnectionPool pool = new ConnectionPool();
+        DatabaseService service = new DatabaseService();
+        inject(service, "connectionPool", pool);
+        inject(service, "queryExecutor", queryExecutor);
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        LongAdder requestThreadNanos = new LongAdder();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger timeouts = new AtomicInteger();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < queries; i++) {
+            String query = "SELECT * FROM users WHERE id = " + i;
+            CompletableFuture<String> result = new CompletableFuture<>();
+            results.add(result);
+            requestThreads.execute(() -> {
+                long begin = System.nanoTime();
+                peak(peakInFlight, inFlight.incrementAndGet());
+                try {
+                    if (async) {
+                        service.executeQueryAsync(query).whenComplete((message, error) -> {
+                            inFlight.decrementAndGet();
+                            result.complete(message);
+                        });
+                    } else {
+                        String message = service.executeQuery(query);
+                        inFlight.decrementAndGet();
+                        result.complete(message);
+                    }
+                } finally {
+                    requestThreadNanos.add(System.nanoTime() - begin);
+                }
+            });
+        }
+
+        // 쿼리가 몰린 직후의 가벼운 요청
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        Future<Integer> status = requestThreads.submit(service::getActiveConnections);
+        status.get();
+        double statusWaitMillis = (System.nanoTime() - start) / 1e6;
+
+        int completed = 0;
+        for (CompletableFuture<String> result : results) {
+            String message = result.get(60, TimeUnit.SECONDS);
+            if (message.startsWith("✅")) {
+                completed++;
+            } else if (message.startsWith("❌ 처리 대기")) {
+                rejected.incrementAndGet();
+            } else {
+                timeouts.incrementAndGet();
+            }
+        }
+
+        System.out.printf("%-6s %7d %14d %9d %14.1fms %10d %9d %9d %10.1fms%n",
+            async ? "async" : "sync", queries, peakInFlight.get(), queryExecutor.getLargestPoolSize(),
+            requestThreadNanos.sum() / 1e6 / queries, completed, rejected.get(), timeouts.get(), statusWaitMillis);
+
+        requestThreads.shutdownNow();
+        queryExecutor.shutdownNow();
+        pool.shutdown();
+    }
+
+    private static void peak(AtomicInteger peak, int value) {
+        peak.accumulateAndGet(value, Math::max);
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,145 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.DatabaseConnection;
+import com.designpattern.flyweight.database.QueryBulkheadProperties;
+import com.designpattern.flyweight.database.QueryBulkheads;
+import com.designpattern.flyweight.database.QueryClass;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 쿼리 종류가 몰릴 때 빠른 쿼리 종류의 지연: 벌크헤드 없음 vs 쿼리 종류별 벌크헤드 + AIMD 제한
+ *
+ * - ADMIN(리포트): 클라이언트 30개가 연결을 400ms씩 쥐는 쿼리를 쉬지 않고 보냄 (풀을 다 차지하려 함)
+ * - READ: 클라이언트 6개가 연결을 20ms씩 쥐는 쿼리를 보냄
+ * 연결 10개 고정, 연결 대기 최대 2초
+ *
+ * 벌크헤드가 없으면 READ도 ADMIN 뒤에 줄을 서서 수백 ms를 기다림
+ * 벌크헤드가 있으면 ADMIN은 자기 몫(3개)만 쓰고 나머지는 거절되거나 줄을 서고, READ 지연은 20ms 근처에 머물러야 함
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=BulkheadBenchmark
+ */
+public class BulkheadBenchmark {
+    private static final int POOL_SIZE = 10;
+    private static final long RUN_MILLIS = 10_000;
+    private static final Map<QueryClass, int[]> WORKLOAD = new EnumMap<>(QueryClass.class);
+
+    static {
+        // {클라이언트 수, 연결을 쥐는 시간(ms)}
+        WORKLOAD.put(QueryClass.ADMIN, new int[]{30, 400});
+        WORKLOAD.put(QueryClass.READ, new int[]{6, 20});
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.ERROR);
+
+        System.out.printf("%n=== ADMIN 30개(400ms) + READ 6개(20ms), 연결 %d개, %dms ===%n", POOL_SIZE, RUN_MILLIS);
+        System.out.printf("%-10s %-6s %10s %10s %10s %10s %10s %8s%n",
+            "mode", "class", "completed", "p50", "p99", "max", "rejected", "limit");
+        run(null);
+
+        QueryBulkheadProperties properties = new QueryBulkheadProperties();
+        properties.setMaxWait(Duration.ofMillis(500));
+        properties.getClasses().put(QueryClass.READ, new QueryBulkheadProperties.Share(0.5, Duration.ofMillis(200), 50));
+        properties.getClasses().put(QueryClass.WRITE, new QueryBulkheadProperties.Share(0.2, Duration.ofMillis(200), 20));
+        properties.getClasses().put(QueryClass.ADMIN, new QueryBulkheadProperties.Share(0.3, Duration.ofSeconds(1), 10));
+        run(new QueryBulkheads(properties, POOL_SIZE));
+    }
+
+    private static void run(QueryBulkheads bulkheads) throws InterruptedException {
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolScalingBenchmark.fixedSize(POOL_SIZE));
+        Map<QueryClass, List<Long>> latencies = new EnumMap<>(QueryClass.class);
+        Map<QueryClass, AtomicInteger> rejected = new EnumMap<>(QueryClass.class);
+        int clients = 0;
+        for (Map.Entry<QueryClass, int[]> entry : WORKLOAD.entrySet()) {
+            latencies.put(entry.getKey(), Collections.synchronizedList(new ArrayList<>()));
+            rejected.put(entry.getKey(), new AtomicInteger());
+            clients += entry.getValue()[0];
+        }
+
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_MILLIS);
+        for (Map.Entry<QueryClass, int[]> entry : WORKLOAD.entrySet()) {
+            QueryClass queryClass = entry.getKey();
+            long holdMillis = entry.getValue()[1];
+            for (int c = 0; c < entry.getValue()[0]; c++) {
+                new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            if (query(pool, bulkheads, queryClass, holdMillis)) {
+                                latencies.get(queryClass).add(System.nanoTime() - start);
+                            } else {
+                                rejected.get(queryClass).incrementAndGet();
+                                // 거절된 클라이언트는 잠깐 쉬었다 다시 시도
+                                Thread.sleep(50);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                }).start();
+            }
+        }
+        done.await();
+
+        for (QueryClass queryClass : WORKLOAD.keySet()) {
+            List<Long> sorted = new ArrayList<>(latencies.get(queryClass));
+            Collections.sort(sorted);
+            System.out.printf("%-10s %-6s %10d %8.1fms %8.1fms %8.1fms %10d %8s%n",
+                bulkheads == null ? "shared" : "bulkhead", queryClass, sorted.size(),
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                rejected.get(queryClass).get(),
+                bulkheads == null ? "-" : String.format("%.1f", bulkheads.getLimit(queryClass)));
+        }
+        pool.shutdown();
+    }
+
+    // 자리 얻기 → 연결 빌리기 → 쥐고 있기 → 반납. 거절되거나 연결을 못 받으면 false
+    private static boolean query(ConnectionPool pool, QueryBulkheads bulkheads, QueryClass queryClass, long holdMillis)
+            throws InterruptedException {
+        QueryBulkheads.Permit permit = null;
+        if (bulkheads != null) {
+            permit = bulkheads.acquire(queryClass);
+            if (permit == null) {
+                return false;
+            }
+        }
+        boolean success = false;
+        try {
+            DatabaseConnection connection = pool.getConnection(2, TimeUnit.SECONDS);
+            if (connection == null) {
+                return false;
+            }
+            Thread.sleep(holdMillis);
+            pool.returnConnection(connection);
+            success = true;
+            return true;
+        } finally {
+            if (permit != null) {
+                permit.release(success);
+            }
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double phi) {
+        if (sorted.isEmpty()) {
+            return 0.0;
+        }
+        int index = Math.min(sorted.size() - 1, (int) (sorted.size() * phi));
+        return sorted.get(index) / 1e6;
+    }
+}
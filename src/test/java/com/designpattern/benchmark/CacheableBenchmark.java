@@ -0,0 +1,129 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.CompositeKeyGenerator;
+import com.designpattern.flyweight.practical.FlyweightCacheManager;
+import com.designpattern.flyweight.practical.SpringCacheFlyweight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @Cacheable 프록시 호출 비용 비교 (적중 시 호출당 ns, 호출당 할당 바이트)
+ *
+ * - simple: ConcurrentMapCacheManager + SpEL 키 (기존 설정)
+ * - flyweight: FlyweightCacheManager + CompositeKeyGenerator
+ * - direct: 프록시 없이 메서드 직접 호출 (하한선)
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=CacheableBenchmark
+ */
+public class CacheableBenchmark {
+    private static final String[] FONTS = {"Arial", "Times", "Courier", "Verdana"};
+    private static final String[] COLORS = {"black", "red", "blue", "green"};
+    private static final int[] SIZES = {10, 12, 14, 16};
+    private static final int ROUNDS = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        try (AnnotationConfigApplicationContext simple = new AnnotationConfigApplicationContext(SimpleConfig.class);
+             AnnotationConfigApplicationContext flyweight = new AnnotationConfigApplicationContext(FlyweightConfig.class)) {
+            SpelKeyedFlyweight spel = simple.getBean(SpelKeyedFlyweight.class);
+            SpringCacheFlyweight composite = flyweight.getBean(SpringCacheFlyweight.class);
+            SpelKeyedFlyweight direct = new SpelKeyedFlyweight();
+
+            Consumer<Integer> simpleCall = i -> sink = spel.createFontStyle(FONTS[i & 3], SIZES[(i >> 2) & 3], COLORS[(i >> 4) & 3]);
+            Consumer<Integer> flyweightCall = i -> sink = composite.createFontStyle(FONTS[i & 3], SIZES[(i >> 2) & 3], COLORS[(i >> 4) & 3]);
+            Consumer<Integer> directCall = i -> sink = direct.createFontStyle(FONTS[i & 3], SIZES[(i >> 2) & 3], COLORS[(i >> 4) & 3]);
+
+            // 워밍업 (JIT 컴파일 + 64개 스타일 모두 캐시에 적재)
+            for (int i = 0; i < 5; i++) {
+                run(simpleCall);
+                run(flyweightCall);
+            }
+
+            System.out.printf("%-10s %12s %14s%n", "path", "ns/call", "bytes/call");
+            measure("simple", simpleCall);
+            measure("flyweight", flyweightCall);
+            measure("direct", directCall);
+        }
+    }
+
+    private static void run(Consumer<Integer> call) {
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < 64; i++) {
+                call.accept(i);
+            }
+        }
+    }
+
+    private static void measure(String name, Consumer<Integer> call) {
+        long calls = (long) ROUNDS * 64;
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        run(call);
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.out.printf("%-10s %12.1f %14.1f%n", name, (double) elapsed / calls, (double) bytes / calls);
+    }
+
+    // 기존 방식: SpEL 키 + ConcurrentMapCacheManager
+    @CacheConfig(cacheNames = "flyweights")
+    public static class SpelKeyedFlyweight {
+        @Cacheable(key = "#fontFamily + '-' + #fontSize + '-' + #color")
+        public SpringCacheFlyweight.FontStyle createFontStyle(String fontFamily, int fontSize, String color) {
+            return new SpringCacheFlyweight.FontStyle(fontFamily, fontSize, color);
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class SimpleConfig {
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("flyweights");
+        }
+
+        @Bean
+        public SpelKeyedFlyweight spelKeyedFlyweight() {
+            return new SpelKeyedFlyweight();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class FlyweightConfig {
+        @Bean
+        public CacheManager cacheManager() {
+            return new FlyweightCacheManager(Map.of("flyweights", new FlyweightCacheSpec()),
+                new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+        }
+
+        @Bean
+        public KeyGenerator compositeKeyGenerator() {
+            return new CompositeKeyGenerator();
+        }
+
+        @Bean
+        public SpringCacheFlyweight springCacheFlyweight() {
+            return new SpringCacheFlyweight();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.FlyweightFactory;
+import com.designpattern.flyweight.practical.FlyweightProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 문자열 키 vs CompositeKey 조회 비용 비교 (조회당 ns, 조회당 할당 바이트)
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=CompositeKeyBenchmark
+ */
+public class CompositeKeyBenchmark {
+    private static final String TEXT = "The Quick Brown Fox Jumps Over The Lazy Dog 0123456789";
+    private static final String[] FONTS = {"Arial", "Times"};
+    private static final String[] COLORS = {"red", "black"};
+    private static final int ROUNDS = 20_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        FlyweightFactory factory = new FlyweightFactory(new FlyweightProperties(),
+            new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+
+        // 워밍업 (JIT 컴파일 + 모든 키 생성)
+        for (int i = 0; i < 5; i++) {
+            stringKeys(factory);
+            compositeKeys(factory);
+        }
+
+        System.out.printf("%-12s %12s %16s%n", "path", "ns/lookup", "bytes/lookup");
+        measure("string", () -> stringKeys(factory));
+        measure("composite", () -> compositeKeys(factory));
+    }
+
+    private static void measure(String name, Runnable workload) {
+        long lookups = (long) ROUNDS * TEXT.length();
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        workload.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-12s %12.1f %16.2f%n", name, (double) elapsed / lookups, (double) allocated / lookups);
+    }
+
+    // 기존 방식: 조회마다 "ch-font-size-color" 문자열 생성 + 전체 해시 계산
+    private static void stringKeys(FlyweightFactory factory) {
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < TEXT.length(); i++) {
+                char ch = TEXT.charAt(i);
+                String font = FONTS[i & 1];
+                int size = (ch == ' ') ? 12 : 14;
+                String color = COLORS[(ch >= 'A' && ch <= 'Z') ? 0 : 1];
+                sink = factory.getFlyweight(ch + "-" + font + "-" + size + "-" + color);
+            }
+        }
+    }
+
+    private static void compositeKeys(FlyweightFactory factory) {
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < TEXT.length(); i++) {
+                char ch = TEXT.charAt(i);
+                String font = FONTS[i & 1];
+                int size = (ch == ' ') ? 12 : 14;
+                String color = COLORS[(ch >= 'A' && ch <= 'Z') ? 0 : 1];
+                sink = factory.getFlyweight(ch, font, size, color);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.ConnectionPoolProperties;
+import com.designpattern.flyweight.database.DatabaseConnection;
+import com.designpattern.flyweight.database.PoolStats;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 순간적으로 풀 크기(5)보다 많은 요청이 몰릴 때 대기 시간 설정별 실패율 / 대기 시간 분포
+ *
+ * 한 번의 burst = BURST개 스레드가 동시에 연결을 요청하고 5~15ms 동안 쥐고 있다가 반납
+ * 대기 시간이 burst를 소화하는 시간(≈ BURST / 5 × 10ms)보다 길면 실패가 0이 되어야 함
+ * 크기가 늘어나는 풀은 새 연결을 기다리는 스레드에게 바로 넘기므로 대기 시간이 더 짧아야 함
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=ConnectionPoolBurstBenchmark
+ */
+public class ConnectionPoolBurstBenchmark {
+    private static final int BURST = 40;
+    private static final int ROUNDS = 20;
+    private static final long[] TIMEOUT_MILLIS = {0, 20, 50, 200, 1_000};
+
+    public static void main(String[] args) throws InterruptedException {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== burst %d 요청 × %d회 (연결 사용 5~15ms) ===%n", BURST, ROUNDS);
+        System.out.printf("%-8s %-10s %10s %10s %10s %10s %10s %6s%n",
+            "pool", "timeout", "errors", "wait p50", "wait p99", "wait max", "avg(stats)", "size");
+        for (long timeout : TIMEOUT_MILLIS) {
+            run("fixed 5", ConnectionPoolScalingBenchmark.fixedSize(5), timeout);
+        }
+
+        // 최소 5개에서 burst를 따라 20개까지 늘어나는 풀 (생성은 하우스키퍼 스레드가 맡음)
+        ConnectionPoolProperties elastic = new ConnectionPoolProperties();
+        elastic.setMinimumIdle(5);
+        elastic.setMaximumPoolSize(20);
+        for (long timeout : TIMEOUT_MILLIS) {
+            run("5 → 20", elastic, timeout);
+        }
+    }
+
+    private static void run(String label, ConnectionPoolProperties properties, long timeoutMillis) throws InterruptedException {
+        ConnectionPool pool = new ConnectionPool(properties);
+        long[] waits = new long[BURST * ROUNDS];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(BURST);
+            for (int t = 0; t < BURST; t++) {
+                Random random = new Random(round * BURST + t);
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        long begin = System.nanoTime();
+                        DatabaseConnection connection = pool.getConnection(timeoutMillis, TimeUnit.MILLISECONDS);
+                        waits[index.getAndIncrement()] = System.nanoTime() - begin;
+                        if (connection == null) {
+                            errors.incrementAndGet();
+                        } else {
+                            Thread.sleep(5 + random.nextInt(11));
+                            pool.returnConnection(connection);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                }).start();
+            }
+            start.countDown();
+            done.await();
+        }
+
+        Arrays.sort(waits);
+        PoolStats stats = pool.getStats();
+        System.out.printf("%-8s %-10s %9.1f%% %8.1fms %8.1fms %8.1fms %8.1fms %6d%n",
+            label,
+            timeoutMillis + "ms",
+            100.0 * errors.get() / waits.length,
+            waits[waits.length / 2] / 1e6,
+            waits[(int) (waits.length * 0.99)] / 1e6,
+            waits[waits.length - 1] / 1e6,
+            stats.averageWaitMillis(),
+            pool.getPoolSize());
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.ConnectionPoolProperties;
+import com.designpattern.flyweight.database.DatabaseConnection;
+import com.designpattern.flyweight.database.MySQLConnection;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool 빌리기 + 반납 왕복 처리량을 스레드 1 → 64개로 늘려가며 비교
+ *
+ * - locked-scan: 이전 구현 (전역 ReentrantLock + 목록 선형 탐색 + O(n) contains)
+ * - bag:         ConnectionBag 기반 현재 구현 (스레드별 목록 → 공유 목록 CAS)
+ *
+ * 풀 크기(5)보다 스레드가 많으면 빈손으로 돌아가는 시도가 생기므로 성공률도 같이 출력
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=ConnectionPoolScalingBenchmark
+ */
+public class ConnectionPoolScalingBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2_000;
+
+    interface Pool {
+        DatabaseConnection getConnection();
+
+        void returnConnection(DatabaseConnection connection);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // 풀이 매 호출마다 남기는 INFO 로그가 측정을 덮지 않도록
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== acquire/release (코어 %d개, 스레드당 %dms) ===%n",
+            Runtime.getRuntime().availableProcessors(), MEASURE_MILLIS);
+        System.out.printf("%-8s %-12s %16s %10s%n", "threads", "pool", "ops/s", "acquired");
+        for (int threads : THREADS) {
+            run("locked-scan", new LockedScanPool(), threads);
+            ConnectionPool bag = new ConnectionPool(fixedSize(5));
+            run("bag", new Pool() {
+                @Override
+                public DatabaseConnection getConnection() {
+                    return bag.getConnection();
+                }
+
+                @Override
+                public void returnConnection(DatabaseConnection connection) {
+                    bag.returnConnection(connection);
+                }
+            }, threads);
+        }
+    }
+
+    private static void run(String name, Pool pool, int threads) throws InterruptedException {
+        drive(pool, threads, WARMUP_MILLIS);
+        long[] result = drive(pool, threads, MEASURE_MILLIS);
+        double seconds = MEASURE_MILLIS / 1e3;
+        System.out.printf("%-8d %-12s %,16.0f %9.1f%%%n",
+            threads, name, result[0] / seconds, 100.0 * result[1] / Math.max(1, result[0]));
+    }
+
+    // {시도 횟수, 연결을 받은 횟수}
+    private static long[] drive(Pool pool, int threads, long millis) throws InterruptedException {
+        LongAdder attempts = new LongAdder();
+        LongAdder acquired = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                long localAttempts = 0;
+                long localAcquired = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        DatabaseConnection connection = pool.getConnection();
+                        localAttempts++;
+                        if (connection != null) {
+                            localAcquired++;
+                            pool.returnConnection(connection);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                attempts.add(localAttempts);
+                acquired.add(localAcquired);
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        return new long[]{attempts.sum(), acquired.sum()};
+    }
+
+    /**
+     * 비교 기준: ConnectionBag 도입 전 ConnectionPool과 같은 알고리즘 (로그 제외)
+     */
+    static class LockedScanPool implements Pool {
+        private final List<DatabaseConnection> pool = new ArrayList<>();
+        private final Lock lock = new ReentrantLock();
+
+        LockedScanPool() {
+            for (int i = 0; i < 5; i++) {
+                pool.add(new MySQLConnection("localhost", 3306));
+            }
+        }
+
+        @Override
+        public DatabaseConnection getConnection() {
+            lock.lock();
+            try {
+                for (DatabaseConnection connection : pool) {
+                    if (!connection.isInUse()) {
+                        connection.setInUse(true);
+                        return connection;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void returnConnection(DatabaseConnection connection) {
+            lock.lock();
+            try {
+                if (pool.contains(connection)) {
+                    connection.setInUse(false);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 비교가 공정하도록 크기를 고정 (부족해도 늘어나지 않음)
+    static ConnectionPoolProperties fixedSize(int size) {
+        ConnectionPoolProperties properties = new ConnectionPoolProperties();
+        properties.setMinimumIdle(size);
+        properties.setMaximumPoolSize(size);
+        return properties;
+    }
+}
@@ -0,0 +1,153 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.DetailedConnectionPool;
+import com.designpattern.flyweight.database.DetailedPoolProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 H2 메모리 DB에 대한 DataSource 비교: HikariCP vs DetailedConnectionPool (문장 캐시 켬/끔, 매번 검사)
+ *
+ * 한 번의 작업 = 연결 빌리기 → 파라미터가 있는 같은 SELECT 준비/실행/읽기 → 닫기(반납)
+ * 캐시를 켜면 두 번째부터는 연결에 준비해 둔 PreparedStatement를 다시 쓰므로 파싱을 건너뜀
+ * validate always는 validation-skip-window를 0으로 두어 빌릴 때마다 isValid()를 보내는 이전 방식
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=DataSourceBenchmark
+ */
+public class DataSourceBenchmark {
+    private static final int[] THREADS = {1, 4, 16};
+    private static final int POOL_SIZE = 10;
+    private static final int ROWS = 10_000;
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 3_000;
+
+    private static final String QUERY =
+        "SELECT o.id, o.amount, c.name FROM orders o JOIN customers c ON c.id = o.customer_id "
+            + "WHERE o.id = ? AND o.amount >= 0 ORDER BY o.id";
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger("com.zaxxer.hikari")).setLevel(Level.WARN);
+
+        String url = "jdbc:h2:mem:datasource-benchmark;DB_CLOSE_DELAY=-1";
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMinimumIdle(POOL_SIZE);
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setPoolName("hikari-benchmark");
+
+        try (HikariDataSource hikari = new HikariDataSource(config)) {
+            createSchema(hikari);
+            DetailedConnectionPool cached = detailed(url, 64, Duration.ofMillis(500));
+            DetailedConnectionPool uncached = detailed(url, 0, Duration.ofMillis(500));
+            DetailedConnectionPool validating = detailed(url, 64, Duration.ZERO);
+
+            System.out.printf("%n=== 빌리기 + SELECT + 반납 (연결 %d개, 스레드당 %dms) ===%n", POOL_SIZE, MEASURE_MILLIS);
+            System.out.printf("%-8s %-24s %14s %12s %12s%n", "threads", "datasource", "ops/s", "stmt hits", "validations");
+            for (int threads : THREADS) {
+                run("hikari", hikari, threads, null);
+                run("detailed (cache 64)", cached, threads, cached);
+                run("detailed (no cache)", uncached, threads, uncached);
+                run("detailed (validate always)", validating, threads, validating);
+            }
+            cached.shutdown();
+            uncached.shutdown();
+            validating.shutdown();
+        }
+    }
+
+    private static DetailedConnectionPool detailed(String url, int statementCacheSize, Duration validationSkipWindow) {
+        DetailedPoolProperties properties = new DetailedPoolProperties();
+        properties.setUrl(url);
+        properties.setMinimumIdle(POOL_SIZE);
+        properties.setMaximumPoolSize(POOL_SIZE);
+        properties.setStatementCacheSize(statementCacheSize);
+        properties.setValidationSkipWindow(validationSkipWindow);
+        return new DetailedConnectionPool(properties);
+    }
+
+    private static void createSchema(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(64))");
+            statement.execute("CREATE TABLE orders (id INT PRIMARY KEY, customer_id INT, amount DECIMAL(10, 2))");
+            statement.execute("INSERT INTO customers SELECT x, 'customer-' || x FROM SYSTEM_RANGE(0, 999)");
+            statement.execute("INSERT INTO orders SELECT x, MOD(x, 1000), x / 100.0 FROM SYSTEM_RANGE(0, " + (ROWS - 1) + ")");
+        }
+    }
+
+    private static void run(String name, DataSource dataSource, int threads, DetailedConnectionPool detailed) throws InterruptedException {
+        drive(dataSource, threads, WARMUP_MILLIS);
+        long hitsBefore = (detailed != null) ? detailed.getStats().statementHitCount() : 0;
+        long missesBefore = (detailed != null) ? detailed.getStats().statementMissCount() : 0;
+        long validationsBefore = (detailed != null) ? detailed.getStats().validationCount() : 0;
+        long ops = drive(dataSource, threads, MEASURE_MILLIS);
+
+        String hits = "-";
+        String validations = "-";
+        if (detailed != null) {
+            long h = detailed.getStats().statementHitCount() - hitsBefore;
+            long m = detailed.getStats().statementMissCount() - missesBefore;
+            hits = String.format("%.1f%%", 100.0 * h / Math.max(1, h + m));
+            validations = String.format("%,d", detailed.getStats().validationCount() - validationsBefore);
+        }
+        System.out.printf("%-8d %-24s %,14.0f %12s %12s%n", threads, name, ops / (MEASURE_MILLIS / 1e3), hits, validations);
+    }
+
+    private static long drive(DataSource dataSource, int threads, long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                long local = 0;
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        try (Connection connection = dataSource.getConnection();
+                             PreparedStatement statement = connection.prepareStatement(QUERY)) {
+                            statement.setInt(1, random.nextInt(ROWS));
+                            try (ResultSet rs = statement.executeQuery()) {
+                                while (rs.next()) {
+                                    rs.getString(3);
+                                }
+                            }
+                            local++;
+                        } catch (SQLException e) {
+                            errors.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ops.add(local);
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        if (errors.sum() > 0) {
+            System.out.printf("  (errors: %d)%n", errors.sum());
+        }
+        return ops.sum();
+    }
+}
@@ -0,0 +1,167 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.flyweight.cache.FlyweightCache;
+import com.designpattern.flyweight.cache.FlyweightCacheSpec;
+import com.designpattern.flyweight.cache.ValueStrength;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * FlyweightCache 저장소 정책별 적중률 / 처리량 비교
+ *
+ * - skewed: Zipf 분포 (소수의 키에 조회 집중)
+ * - scan:   Zipf 조회 사이에 한 번만 쓰이는 키가 절반 섞인 분포
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=FlyweightCacheBenchmark
+ */
+public class FlyweightCacheBenchmark {
+    private static final int KEY_SPACE = 100_000;
+    private static final int CACHE_SIZE = 1_000;
+    private static final int OPERATIONS = 1_000_000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    interface Store {
+        Object get(String key, Function<String, Object> loader);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String[]> traces = new LinkedHashMap<>();
+        traces.put("skewed", zipfTrace(new Random(42), 0.0));
+        traces.put("scan", zipfTrace(new Random(42), 0.5));
+
+        for (Map.Entry<String, String[]> trace : traces.entrySet()) {
+            System.out.printf("%n=== %s (키 공간 %,d / 캐시 크기 %,d / 스레드 %d) ===%n",
+                trace.getKey(), KEY_SPACE, CACHE_SIZE, THREADS);
+            System.out.printf("%-12s %10s %10s %16s%n", "policy", "hit rate", "entries", "ops/s (MT)");
+            for (String policy : List.of("unbounded", "lru", "w-tinylfu", "weak")) {
+                run(policy, trace.getValue());
+            }
+        }
+    }
+
+    private static void run(String policy, String[] trace) throws InterruptedException {
+        // 1. 적중률: 단일 스레드로 전체 트레이스 재생
+        LongAdder misses = new LongAdder();
+        Store store = newStore(policy);
+        Function<String, Object> loader = k -> {
+            misses.increment();
+            return new Object();
+        };
+        for (String key : trace) {
+            store.get(key, loader);
+        }
+        double hitRate = 1.0 - (double) misses.sum() / trace.length;
+        int entries = entries(store);
+
+        // 2. 처리량: 워밍업 후 여러 스레드가 트레이스를 나눠서 재생
+        Store shared = newStore(policy);
+        for (String key : trace) {
+            shared.get(key, loader);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * (trace.length / THREADS);
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < trace.length; i++) {
+                        shared.get(trace[(offset + i) % trace.length], loader);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        double throughput = (double) trace.length * THREADS / seconds;
+
+        System.out.printf("%-12s %9.2f%% %10d %,16.0f%n", policy, hitRate * 100, entries, throughput);
+    }
+
+    private static Store newStore(String policy) {
+        switch (policy) {
+            case "lru": {
+                Map<String, Object> lru = Collections.synchronizedMap(new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                        return size() > CACHE_SIZE;
+                    }
+                });
+                return new Store() {
+                    @Override
+                    public Object get(String key, Function<String, Object> loader) {
+                        return lru.computeIfAbsent(key, loader);
+                    }
+
+                    @Override
+                    public String toString() {
+                        return String.valueOf(lru.size());
+                    }
+                };
+            }
+            default: {
+                FlyweightCacheSpec spec = new FlyweightCacheSpec();
+                if (policy.equals("w-tinylfu")) {
+                    spec.setMaximumSize(CACHE_SIZE);
+                }
+                if (policy.equals("weak")) {
+                    spec.setValueStrength(ValueStrength.WEAK);
+                }
+                FlyweightCache<String, Object> cache = new FlyweightCache<>(spec);
+                return new Store() {
+                    @Override
+                    public Object get(String key, Function<String, Object> loader) {
+                        return cache.get(key, loader);
+                    }
+
+                    @Override
+                    public String toString() {
+                        cache.cleanUp();
+                        return String.valueOf(cache.size());
+                    }
+                };
+            }
+        }
+    }
+
+    private static int entries(Store store) {
+        return Integer.parseInt(store.toString());
+    }
+
+    /**
+     * Zipf(s=0.9) 분포의 키 트레이스. scanRatio 비율만큼은 다시 쓰이지 않는 고유 키로 대체
+     */
+    private static String[] zipfTrace(Random random, double scanRatio) {
+        String[] keys = new String[KEY_SPACE];
+        double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = "ch-" + i;
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cdf[i] = sum;
+        }
+        String[] trace = new String[OPERATIONS];
+        int scanKey = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (random.nextDouble() < scanRatio) {
+                trace[i] = "scan-" + scanKey++;
+                continue;
+            }
+            int index = java.util.Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            trace[i] = keys[Math.min(index < 0 ? -index - 1 : index, KEY_SPACE - 1)];
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,119 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.SampleApplication;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 아이콘 응답 방식별 초당 요청 수와 JVM 안에서 복사된 바이트
+ *
+ * - bytes: /icons/{name}/bytes (아이콘마다 byte[]로 복사해서 응답)
+ * - atlas: /icons/{name} (아틀라스 파일 구간을 sendfile/transferTo로 전송)
+ *
+ * 임의 포트로 애플리케이션을 띄우고 같은 JVM의 HttpClient로 호출
+ * 실행: ./gradlew benchmark -Pbenchmark=IconServingBenchmark
+ */
+public class IconServingBenchmark {
+    private static final int ICONS = 256;
+    private static final int ICON_BYTES = 16 * 1024;
+    private static final int THREADS = 4;
+    private static final long DURATION_MILLIS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("flyweight-icons");
+        byte[] content = new byte[ICON_BYTES];
+        new Random(42).nextBytes(content);
+        for (int i = 0; i < ICONS; i++) {
+            Files.write(directory.resolve("icon-" + i + ".icon"), content);
+        }
+
+        ConfigurableApplicationContext context = SpringApplication.run(SampleApplication.class,
+            "--server.port=0", "--flyweight.icons.directory=" + directory,
+            "--flyweight.snapshot.enabled=false", "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            // 모든 아이콘을 만들고 백그라운드에서 아틀라스에 모두 묶일 때까지 기다림
+            for (int i = 0; i < ICONS; i++) {
+                get(client, base + "/icons/icon-" + i);
+            }
+            while (field(get(client, base + "/icons/stats"), "atlasIcons") < ICONS) {
+                Thread.sleep(50);
+            }
+
+            System.out.printf("아이콘 %d개 x %dKB, 스레드 %d, 구간당 %ds%n", ICONS, ICON_BYTES / 1024, THREADS, DURATION_MILLIS / 1000);
+            System.out.printf("%-6s %12s %18s %18s%n", "mode", "req/s", "copied bytes/req", "zero-copy bytes/req");
+            for (int round = 0; round < 2; round++) {  // 첫 회차는 워밍업
+                boolean print = round == 1;
+                measure("bytes", client, base, "/bytes", print);
+                measure("atlas", client, base, "", print);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void measure(String mode, HttpClient client, String base, String suffix, boolean print) throws Exception {
+        long[] before = stats(client, base);
+        LongAdder requests = new LongAdder();
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            workers.execute(() -> {
+                Random random = new Random(seed);
+                while (System.currentTimeMillis() < deadline) {
+                    get(client, base + "/icons/icon-" + random.nextInt(ICONS) + suffix);
+                    requests.increment();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+        long[] after = stats(client, base);
+        long count = requests.sum();
+        if (print) {
+            System.out.printf("%-6s %12.0f %18.0f %18.0f%n", mode, count * 1000.0 / DURATION_MILLIS,
+                (double) (after[1] - before[1]) / count, (double) (after[0] - before[0]) / count);
+        }
+    }
+
+    // {zeroCopyBytes, copiedBytes}
+    private static long[] stats(HttpClient client, String base) {
+        String json = get(client, base + "/icons/stats");
+        return new long[] {field(json, "zeroCopyBytes"), field(json, "copiedBytes")};
+    }
+
+    private static long field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\\d+)").matcher(json);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static String get(HttpClient client, String url) {
+        try {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(url + " → " + response.statusCode());
+            }
+            return new String(response.body());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.flyweight.practical.MappedIconStore;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 아이콘 바이트를 힙에 보관(byte[]) vs 매핑 + 상주 예산(MappedIconStore)
+ * 아이콘 수를 늘려가며 GC 후 힙 사용량과 전체 읽기 시간을 비교
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=IconStoreBenchmark
+ */
+public class IconStoreBenchmark {
+    private static final int ICON_BYTES = 64 * 1024;
+    private static final long BUDGET = 8L * 1024 * 1024;
+    private static final int[] ICON_COUNTS = {128, 512, 1024};
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("flyweight-icons");
+        byte[] content = new byte[ICON_BYTES];
+        new Random(42).nextBytes(content);
+        for (int i = 0; i < ICON_COUNTS[ICON_COUNTS.length - 1]; i++) {
+            Files.write(directory.resolve("icon-" + i + ".icon"), content);
+        }
+
+        System.out.printf("아이콘 크기: %dKB, 상주 예산: %dMB%n", ICON_BYTES / 1024, BUDGET >> 20);
+        System.out.printf("%-8s %8s %14s %14s %16s%n", "mode", "icons", "heap(MB)", "read all(ms)", "resident(MB)");
+        for (int count : ICON_COUNTS) {
+            heap(directory, count);
+            mapped(directory, count);
+        }
+    }
+
+    // 기존 방식: 아이콘마다 byte[]를 힙에 계속 보관
+    private static void heap(Path directory, int count) throws Exception {
+        long before = usedHeap();
+        List<byte[]> icons = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            byte[] data = Files.readAllBytes(directory.resolve("icon-" + i + ".icon"));
+            icons.add(data);
+            sink += data[data.length - 1];
+        }
+        long elapsed = System.nanoTime() - start;
+        long heap = usedHeap() - before;
+        System.out.printf("%-8s %8d %14.1f %14.1f %16s%n", "heap", count, heap / 1048576.0, elapsed / 1e6, "-");
+        sink += icons.size();
+    }
+
+    // 핸들(경로)만 보관하고 바이트는 매핑된 버퍼로 읽음
+    private static void mapped(Path directory, int count) {
+        long before = usedHeap();
+        MappedIconStore store = new MappedIconStore(directory, BUDGET);
+        List<Path> handles = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Path file = store.resolve("icon-" + i);
+            handles.add(file);
+            ByteBuffer data = store.read(file);
+            sink += data.get(data.limit() - 1);
+        }
+        long elapsed = System.nanoTime() - start;
+        long heap = usedHeap() - before;
+        System.out.printf("%-8s %8d %14.1f %14.1f %16.1f%n", "mapped", count, heap / 1048576.0, elapsed / 1e6,
+            store.getResidentBytes() / 1048576.0);
+        sink += handles.size();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,310 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.ConnectionPoolProperties;
+import com.designpattern.flyweight.database.DatabaseConnection;
+import com.designpattern.flyweight.database.DatabaseConnectionFactory;
+import com.designpattern.flyweight.pool.ObjectPool;
+import com.designpattern.flyweight.pool.PooledObjectFactory;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 빌리기 + 반납 왕복 처리량: ObjectPool vs commons-pool2 GenericObjectPool 방식
+ *
+ * - commons-style: GenericObjectPool의 구조를 그대로 옮긴 것
+ *   (쉬는 객체는 락 하나로 보호하는 LinkedBlockingDeque, LIFO / 객체별 synchronized 상태 전환 /
+ *    IdentityWrapper 키의 전체 객체 맵 / 생성 수는 AtomicLong으로 세고 넘치면 되돌림)
+ * - ObjectPool: LinkedTransferQueue + 객체별 CAS (락 없음)
+ *
+ * 두 번째 표는 같은 DatabaseConnection을 ConnectionPool(ConnectionBag)과 ObjectPool 위에서 빌려 쓴 비교
+ * 스레드 수가 용량(CAPACITY)보다 많으면 반납을 기다리므로 대기 시간 초과 수도 같이 출력
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=ObjectPoolBenchmark
+ */
+public class ObjectPoolBenchmark {
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int CAPACITY = 8;
+    private static final long BORROW_TIMEOUT_MILLIS = 100;
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2_000;
+
+    interface Pool<T> {
+        T borrow();
+
+        void giveBack(T object);
+    }
+
+    // 빌려 쓰는 동안 상태가 바뀌고 반납할 때 되돌리는 객체
+    static final class Buffer {
+        private final StringBuilder data = new StringBuilder(64);
+    }
+
+    static final class BufferFactory implements PooledObjectFactory<Buffer> {
+        @Override
+        public Buffer create() {
+            return new Buffer();
+        }
+
+        @Override
+        public boolean validate(Buffer buffer) {
+            return buffer.data.capacity() <= 1024;
+        }
+
+        @Override
+        public void reset(Buffer buffer) {
+            buffer.data.setLength(0);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== borrow/use/return (용량 %d, 코어 %d개, %dms) ===%n",
+            CAPACITY, Runtime.getRuntime().availableProcessors(), MEASURE_MILLIS);
+        System.out.printf("%-8s %-16s %16s %10s%n", "threads", "pool", "ops/s", "timeouts");
+        for (int threads : THREADS) {
+            CommonsStylePool<Buffer> commons = new CommonsStylePool<>(new BufferFactory(), CAPACITY);
+            run("commons-style", new Pool<Buffer>() {
+                @Override
+                public Buffer borrow() {
+                    return commons.borrowObject(BORROW_TIMEOUT_MILLIS);
+                }
+
+                @Override
+                public void giveBack(Buffer buffer) {
+                    commons.returnObject(buffer);
+                }
+            }, threads);
+            ObjectPool<Buffer> pool = new ObjectPool<>(new BufferFactory(), CAPACITY);
+            run("ObjectPool", objectPool(pool), threads);
+            pool.close();
+        }
+
+        ConnectionPoolProperties properties = new ConnectionPoolProperties();
+        properties.setMinimumIdle(CAPACITY);
+        properties.setMaximumPoolSize(CAPACITY);
+        properties.setConnectionTimeout(Duration.ofMillis(BORROW_TIMEOUT_MILLIS));
+        System.out.printf("%n=== DatabaseConnection borrow/return (용량 %d) ===%n", CAPACITY);
+        System.out.printf("%-8s %-16s %16s %10s%n", "threads", "pool", "ops/s", "timeouts");
+        for (int threads : THREADS) {
+            ConnectionPool connectionPool = new ConnectionPool(properties);
+            run("ConnectionPool", new Pool<DatabaseConnection>() {
+                @Override
+                public DatabaseConnection borrow() {
+                    return connectionPool.awaitConnection();
+                }
+
+                @Override
+                public void giveBack(DatabaseConnection connection) {
+                    connectionPool.returnConnection(connection);
+                }
+            }, threads);
+            connectionPool.shutdown();
+            ObjectPool<DatabaseConnection> pool = new ObjectPool<>(new DatabaseConnectionFactory(properties), CAPACITY);
+            run("ObjectPool", objectPool(pool), threads);
+            pool.close();
+        }
+    }
+
+    private static <T> Pool<T> objectPool(ObjectPool<T> pool) {
+        return new Pool<>() {
+            @Override
+            public T borrow() {
+                return pool.borrowObject(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void giveBack(T object) {
+                pool.returnObject(object);
+            }
+        };
+    }
+
+    private static <T> void run(String name, Pool<T> pool, int threads) throws InterruptedException {
+        drive(pool, threads, WARMUP_MILLIS);
+        long[] result = drive(pool, threads, MEASURE_MILLIS);
+        System.out.printf("%-8d %-16s %,16.0f %10d%n", threads, name, result[0] / (MEASURE_MILLIS / 1e3), result[1]);
+    }
+
+    private static <T> long[] drive(Pool<T> pool, int threads, long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        LongAdder timeouts = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                long local = 0;
+                long missed = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        T object = pool.borrow();
+                        if (object == null) {
+                            missed++;
+                            continue;
+                        }
+                        if (object instanceof Buffer) {
+                            ((Buffer) object).data.append(local);
+                        }
+                        pool.giveBack(object);
+                        local++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ops.add(local);
+                timeouts.add(missed);
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        return new long[]{ops.sum(), timeouts.sum()};
+    }
+
+    /**
+     * commons-pool2 GenericObjectPool의 빌리기/반납 경로를 옮긴 것 (비교용)
+     * - idleObjects: LinkedBlockingDeque (putFirst/pollFirst, 내부 ReentrantLock 하나)
+     * - allObjects: IdentityWrapper → PooledObject
+     * - PooledObject.allocate()/deallocate()는 synchronized
+     * - create(): createCount를 먼저 올리고 최대를 넘으면 되돌림
+     */
+    static final class CommonsStylePool<T> {
+        private final PooledObjectFactory<T> factory;
+        private final int maxTotal;
+        private final LinkedBlockingDeque<PooledObject<T>> idleObjects = new LinkedBlockingDeque<>();
+        private final Map<IdentityWrapper, PooledObject<T>> allObjects = new ConcurrentHashMap<>();
+        private final AtomicLong createCount = new AtomicLong();
+
+        CommonsStylePool(PooledObjectFactory<T> factory, int maxTotal) {
+            this.factory = factory;
+            this.maxTotal = maxTotal;
+        }
+
+        T borrowObject(long timeoutMillis) {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (true) {
+                PooledObject<T> p = idleObjects.pollFirst();
+                boolean created = false;
+                if (p == null) {
+                    p = create();
+                    created = p != null;
+                }
+                if (p == null) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    try {
+                        p = idleObjects.pollFirst(remaining, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    if (p == null) {
+                        return null;
+                    }
+                }
+                if (!p.allocate()) {
+                    continue;
+                }
+                if (!created && !factory.validate(p.object)) {
+                    allObjects.remove(new IdentityWrapper(p.object));
+                    createCount.decrementAndGet();
+                    continue;
+                }
+                return p.object;
+            }
+        }
+
+        void returnObject(T object) {
+            PooledObject<T> p = allObjects.get(new IdentityWrapper(object));
+            if (p == null || !p.markReturning()) {
+                return;
+            }
+            try {
+                factory.reset(object);
+            } catch (Exception e) {
+                allObjects.remove(new IdentityWrapper(object));
+                createCount.decrementAndGet();
+                return;
+            }
+            p.deallocate();
+            idleObjects.addFirst(p);
+        }
+
+        private PooledObject<T> create() {
+            if (createCount.incrementAndGet() > maxTotal) {
+                createCount.decrementAndGet();
+                return null;
+            }
+            try {
+                PooledObject<T> p = new PooledObject<>(factory.create());
+                allObjects.put(new IdentityWrapper(p.object), p);
+                return p;
+            } catch (Exception e) {
+                createCount.decrementAndGet();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static final class PooledObject<T> {
+            private final T object;
+            private String state = "IDLE";
+
+            PooledObject(T object) {
+                this.object = object;
+            }
+
+            synchronized boolean allocate() {
+                if (!state.equals("IDLE")) {
+                    return false;
+                }
+                state = "ALLOCATED";
+                return true;
+            }
+
+            synchronized boolean markReturning() {
+                if (!state.equals("ALLOCATED")) {
+                    return false;
+                }
+                state = "RETURNING";
+                return true;
+            }
+
+            synchronized void deallocate() {
+                state = "IDLE";
+            }
+        }
+
+        static final class IdentityWrapper {
+            private final Object instance;
+
+            IdentityWrapper(Object instance) {
+                this.instance = instance;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof IdentityWrapper && ((IdentityWrapper) o).instance == instance;
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(instance);
+            }
+        }
+    }
+}
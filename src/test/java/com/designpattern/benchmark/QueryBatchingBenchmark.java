@@ -0,0 +1,195 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.QueryBatcher;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 작은 쿼리 처리량: 쿼리마다 연결을 빌리기 vs QueryBatcher로 묶어 연결 하나로 실행 (H2 메모리 DB)
+ *
+ * - per-query: 클라이언트 스레드가 쿼리마다 연결을 빌려 PreparedStatement 하나를 실행하고 반납
+ * - batched:   같은 클라이언트가 QueryBatcher에 제출하고 결과를 기다림
+ *              INSERT는 addBatch/executeBatch, SELECT는 문장 하나를 재사용해 연달아 실행
+ *
+ * 클라이언트는 결과를 받아야 다음 쿼리를 보내므로(closed loop) 시간 창이 길면 지연이 늘어남
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=QueryBatchingBenchmark
+ */
+public class QueryBatchingBenchmark {
+    private static final int CLIENTS = 64;
+    private static final int QUERIES_PER_CLIENT = 2_000;
+    private static final int POOL_SIZE = 10;
+    private static final int ROWS = 10_000;
+    private static final Duration[] WINDOWS = {Duration.ofNanos(200_000), Duration.ofMillis(1)};
+    private static final int MAX_BATCH_SIZE = 32;
+
+    private static final String INSERT = "INSERT INTO kv (id, v) VALUES (?, ?)";
+    private static final String SELECT = "SELECT v FROM kv WHERE id = ?";
+
+    interface Client {
+        void run(int id) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger("com.zaxxer.hikari")).setLevel(Level.WARN);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMinimumIdle(POOL_SIZE);
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setPoolName("batch-benchmark");
+
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE kv (id INT PRIMARY KEY, v VARCHAR(64))");
+            }
+
+            System.out.printf("%n=== 클라이언트 %d개 × 쿼리 %d개 (연결 %d개, 최대 묶음 %d) ===%n",
+                CLIENTS, QUERIES_PER_CLIENT, POOL_SIZE, MAX_BATCH_SIZE);
+            System.out.printf("%-7s %-18s %14s %12s %10s%n", "query", "mode", "queries/s", "avg latency", "avg batch");
+
+            for (String kind : new String[]{"insert", "select"}) {
+                reset(dataSource, kind);
+                run(kind, "per-query", null, perQuery(dataSource, kind));
+                for (Duration window : WINDOWS) {
+                    reset(dataSource, kind);
+                    ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE);
+                    QueryBatcher<Integer, String> batcher = new QueryBatcher<>(
+                        "benchmark", window, MAX_BATCH_SIZE, batchExecutor(dataSource, kind), executor);
+                    run(kind, "batched " + window.toNanos() / 1_000 + "µs", batcher, id -> batcher.submit(id).join());
+                    batcher.close();
+                    executor.shutdownNow();
+                }
+            }
+        }
+    }
+
+    // INSERT는 빈 테이블에서, SELECT는 ROWS개가 채워진 테이블에서 시작
+    private static void reset(HikariDataSource dataSource, String kind) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE TABLE kv");
+            }
+            if (kind.equals("select")) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    for (int id = 0; id < ROWS; id++) {
+                        insert.setInt(1, id);
+                        insert.setString(2, "value-" + id);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static Client perQuery(HikariDataSource dataSource, String kind) {
+        if (kind.equals("insert")) {
+            return id -> {
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "value-" + id);
+                    insert.executeUpdate();
+                }
+            };
+        }
+        return id -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement select = connection.prepareStatement(SELECT)) {
+                select.setInt(1, id % ROWS);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                }
+            }
+        };
+    }
+
+    private static QueryBatcher.BatchExecutor<Integer, String> batchExecutor(HikariDataSource dataSource, String kind) {
+        if (kind.equals("insert")) {
+            return ids -> {
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    for (int id : ids) {
+                        insert.setInt(1, id);
+                        insert.setString(2, "value-" + id);
+                        insert.addBatch();
+                    }
+                    int[] counts = insert.executeBatch();
+                    List<String> results = new ArrayList<>(counts.length);
+                    for (int count : counts) {
+                        results.add(String.valueOf(count));
+                    }
+                    return results;
+                }
+            };
+        }
+        return ids -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement select = connection.prepareStatement(SELECT)) {
+                List<String> results = new ArrayList<>(ids.size());
+                for (int id : ids) {
+                    select.setInt(1, id % ROWS);
+                    try (ResultSet rs = select.executeQuery()) {
+                        results.add(rs.next() ? rs.getString(1) : null);
+                    }
+                }
+                return results;
+            }
+        };
+    }
+
+    private static void run(String kind, String mode, QueryBatcher<?, ?> batcher, Client client) throws InterruptedException {
+        AtomicInteger nextId = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        for (int t = 0; t < CLIENTS; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < QUERIES_PER_CLIENT; i++) {
+                        try {
+                            client.run(nextId.getAndIncrement());
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        int total = CLIENTS * QUERIES_PER_CLIENT;
+        System.out.printf("%-7s %-18s %,14.0f %10.3fms %10s%s%n",
+            kind, mode, total / seconds, seconds * 1e3 * CLIENTS / total,
+            (batcher != null) ? String.format("%.1f", batcher.averageBatchSize()) : "-",
+            (errors.get() > 0) ? "  (errors: " + errors.get() + ")" : "");
+    }
+}
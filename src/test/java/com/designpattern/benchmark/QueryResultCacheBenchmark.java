@@ -0,0 +1,134 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.ConnectionPool;
+import com.designpattern.flyweight.database.ConnectionPoolProperties;
+import com.designpattern.flyweight.database.DatabaseService;
+import com.designpattern.flyweight.database.QueryBatchProperties;
+import com.designpattern.flyweight.database.QueryBulkheadProperties;
+import com.designpattern.flyweight.database.QueryCacheProperties;
+import com.designpattern.flyweight.database.QueryExecutorConfig;
+import com.designpattern.flyweight.database.QueryExecutorProperties;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 대시보드처럼 같은 읽기 쿼리를 반복하는 부하에서 결과 캐시 유무 비교
+ *
+ * - 대시보드 클라이언트 CLIENTS개가 DASHBOARD 쿼리를 번갈아 ROUNDS번씩 요청 (응답을 받아야 다음 요청)
+ * - 쓰기 클라이언트가 WRITE_INTERVAL마다 orders 테이블을 갱신 → orders를 읽는 결과만 무효화
+ * - 쿼리 하나는 연결을 0.5~1.5초 쥐고 있음 (DatabaseService의 시뮬레이션)
+ *
+ * 캐시 적중 요청은 연결 풀을 거치지 않으므로 풀 대여 횟수가 요청 수보다 훨씬 적어야 함
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=QueryResultCacheBenchmark
+ */
+public class QueryResultCacheBenchmark {
+    private static final int CLIENTS = 10;
+    private static final int ROUNDS = 12;
+    private static final long WRITE_INTERVAL_MILLIS = 3_000;
+    private static final String[] DASHBOARD = {
+        "SELECT COUNT(*) FROM orders WHERE status = 'OPEN'",
+        "select count(*)  from ORDERS where status='OPEN'",  // 공백/대소문자만 다른 같은 쿼리
+        "SELECT name, email FROM users ORDER BY created_at DESC LIMIT 10",
+        "SELECT p.name, SUM(o.amount) FROM products p JOIN orders o ON o.product_id = p.id GROUP BY p.name",
+        "SELECT * FROM settings",
+    };
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== 대시보드 %d개 × 요청 %d번 + %dms마다 쓰기 (연결 최대 10개) ===%n",
+            CLIENTS, ROUNDS, WRITE_INTERVAL_MILLIS);
+        System.out.printf("%-10s %10s %10s %12s %14s %10s %8s%n",
+            "mode", "requests", "elapsed", "avg latency", "pool acquires", "hit rate", "errors");
+        run(false);
+        run(true);
+    }
+
+    private static void run(boolean cached) throws Exception {
+        QueryBulkheadProperties bulkhead = new QueryBulkheadProperties();
+        bulkhead.setEnabled(false);
+        ExecutorService queryExecutor = new QueryExecutorConfig().queryExecutor(new QueryExecutorProperties(),
+            new ConnectionPoolProperties(), bulkhead);
+        ConnectionPool pool = new ConnectionPool();
+        DatabaseService service = new DatabaseService();
+        QueryBatchProperties batch = new QueryBatchProperties();
+        batch.setEnabled(false);
+        QueryCacheProperties cache = new QueryCacheProperties();
+        cache.setEnabled(cached);
+        inject(service, "connectionPool", pool);
+        inject(service, "queryExecutor", queryExecutor);
+        inject(service, "batchProperties", batch);
+        inject(service, "cacheProperties", cache);
+        inject(service, "cacheRegistry", new FlyweightCacheRegistry(new SimpleMeterRegistry()));
+        inject(service, "bulkheadProperties", bulkhead);
+        service.start();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int n = 0;
+            while (running.get()) {
+                try {
+                    Thread.sleep(WRITE_INTERVAL_MILLIS);
+                    service.executeQueryAsync("UPDATE orders SET status = 'CLOSED' WHERE id = " + n++).join();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+
+        LongAdder latencyNanos = new LongAdder();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long begin = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            new Thread(() -> {
+                for (int r = 0; r < ROUNDS; r++) {
+                    String query = DASHBOARD[(client + r) % DASHBOARD.length];
+                    long start = System.nanoTime();
+                    String result = service.executeQueryAsync(query).join();
+                    latencyNanos.add(System.nanoTime() - start);
+                    if (!result.startsWith("✅")) {
+                        errors.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+        running.set(false);
+        writer.interrupt();
+
+        int requests = CLIENTS * ROUNDS;
+        System.out.printf("%-10s %10d %9.1fs %10.0fms %14d %9.1f%% %8d%n",
+            cached ? "cache" : "no cache", requests, elapsed,
+            latencyNanos.sum() / 1e6 / requests,
+            pool.getStats().acquireCount(),
+            cached ? service.getResultCacheHitRate() * 100 : 0.0,
+            errors.get());
+
+        service.stop();
+        queryExecutor.shutdownNow();
+        pool.shutdown();
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
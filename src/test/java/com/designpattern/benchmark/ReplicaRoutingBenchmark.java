@@ -0,0 +1,176 @@
+package com.designpattern.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.designpattern.flyweight.database.DetailedPoolProperties;
+import com.designpattern.flyweight.database.ReplicaRoutingDataSource;
+import com.designpattern.flyweight.database.ReplicaRoutingProperties;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 복제본 수에 따른 읽기 처리량 (H2 메모리 DB 여러 개로 주 DB/복제본 흉내)
+ *
+ * - 엔드포인트마다 연결 POOL_SIZE개, 클라이언트 CLIENTS개가 쉬지 않고 SELECT
+ * - 실제 DB 서버의 처리 시간을 흉내 내려고 연결을 HOLD_MILLIS 동안 쥐고 있음
+ *   → 한 엔드포인트가 낼 수 있는 처리량을 묶어 두고, 복제본을 늘렸을 때 읽기 처리량이 실제로 늘어나는지 확인
+ * - 마지막 단계는 측정 도중 복제본 하나를 SHUTDOWN해서 라우팅에서 빠지는지 확인
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=ReplicaRoutingBenchmark
+ */
+public class ReplicaRoutingBenchmark {
+    private static final int[] REPLICAS = {0, 1, 2, 4};
+    private static final int POOL_SIZE = 2;
+    private static final int CLIENTS = 16;
+    private static final int ROWS = 1_000;
+    private static final long HOLD_MILLIS = 2;
+    private static final long MEASURE_MILLIS = 3_000;
+
+    private static final String QUERY = "SELECT id, name FROM products WHERE id = ?";
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.designpattern")).setLevel(Level.WARN);
+
+        System.out.printf("%n=== 읽기 라우팅 (엔드포인트당 연결 %d개, 클라이언트 %d개, 쿼리당 %dms) ===%n",
+            POOL_SIZE, CLIENTS, HOLD_MILLIS);
+        System.out.printf("%-9s %12s %8s  %s%n", "replicas", "reads/s", "errors", "share");
+        for (int replicas : REPLICAS) {
+            ReplicaRoutingDataSource routing = routing("scale" + replicas, replicas);
+            long[] result = drive(routing, MEASURE_MILLIS, null);
+            System.out.printf("%-9d %,12.0f %8d  %s%n",
+                replicas, result[0] / (MEASURE_MILLIS / 1e3), result[1], shares(routing));
+            routing.shutdown();
+        }
+
+        System.out.printf("%n=== 측정 도중 replica-1 SHUTDOWN (복제본 3개, 상태 검사 100ms마다) ===%n");
+        ReplicaRoutingDataSource routing = routing("eject", 3);
+        String victim = routing.getReplicas().get(0).getPool().getUrl();
+        long[] result = drive(routing, MEASURE_MILLIS, () -> {
+            try (Connection connection = DriverManager.getConnection(victim, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            } catch (SQLException e) {
+                System.out.println("  SHUTDOWN 실패: " + e.getMessage());
+            }
+        });
+        System.out.printf("reads/s %,.0f, errors %d%n", result[0] / (MEASURE_MILLIS / 1e3), result[1]);
+        System.out.println(routing.summary());
+        routing.shutdown();
+    }
+
+    private static ReplicaRoutingDataSource routing(String name, int replicas) throws SQLException {
+        // IFEXISTS=TRUE: SHUTDOWN한 DB를 다시 열려고 하면 새로 만들지 않고 실패하도록
+        String primary = "jdbc:h2:mem:" + name + "-primary;DB_CLOSE_DELAY=-1";
+        List<String> replicaUrls = new ArrayList<>();
+        for (int i = 1; i <= replicas; i++) {
+            replicaUrls.add("jdbc:h2:mem:" + name + "-replica" + i + ";DB_CLOSE_DELAY=-1");
+        }
+        for (String url : concat(primary, replicaUrls)) {
+            createSchema(url);
+        }
+
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+        properties.setPrimary(primary + ";IFEXISTS=TRUE");
+        List<String> existing = new ArrayList<>();
+        for (String url : replicaUrls) {
+            existing.add(url + ";IFEXISTS=TRUE");
+        }
+        properties.setReplicas(existing);
+        properties.setHealthCheckPeriod(Duration.ofMillis(100));
+        properties.setFailureThreshold(1);
+
+        DetailedPoolProperties template = new DetailedPoolProperties();
+        template.setMinimumIdle(POOL_SIZE);
+        template.setMaximumPoolSize(POOL_SIZE);
+        template.setConnectionTimeout(Duration.ofSeconds(2));
+        return new ReplicaRoutingDataSource(properties, template);
+    }
+
+    private static List<String> concat(String first, List<String> rest) {
+        List<String> all = new ArrayList<>(rest.size() + 1);
+        all.add(first);
+        all.addAll(rest);
+        return all;
+    }
+
+    private static void createSchema(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(64))");
+            statement.execute("INSERT INTO products SELECT x, 'product-' || x FROM SYSTEM_RANGE(0, " + (ROWS - 1) + ")");
+        }
+    }
+
+    /**
+     * @return {성공한 읽기 수, 실패 수}. midway가 있으면 측정 시간의 절반에 한 번 실행
+     */
+    private static long[] drive(ReplicaRoutingDataSource routing, long millis, Runnable midway) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int c = 0; c < CLIENTS; c++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        try (Connection connection = routing.getConnection(QUERY);
+                             PreparedStatement statement = connection.prepareStatement(QUERY)) {
+                            statement.setInt(1, random.nextInt(ROWS));
+                            try (ResultSet rs = statement.executeQuery()) {
+                                while (rs.next()) {
+                                    rs.getString(2);
+                                }
+                            }
+                            Thread.sleep(HOLD_MILLIS);
+                            ops.increment();
+                        } catch (SQLException e) {
+                            errors.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        if (midway != null) {
+            Thread.sleep(millis / 2);
+            midway.run();
+        }
+        done.await();
+        return new long[]{ops.sum(), errors.sum()};
+    }
+
+    private static String shares(ReplicaRoutingDataSource routing) {
+        List<ReplicaRoutingDataSource.Endpoint> endpoints = new ArrayList<>();
+        endpoints.add(routing.getPrimary());
+        endpoints.addAll(routing.getReplicas());
+        long total = 0;
+        for (ReplicaRoutingDataSource.Endpoint endpoint : endpoints) {
+            total += endpoint.routedCount();
+        }
+        StringJoiner joiner = new StringJoiner(" ");
+        for (ReplicaRoutingDataSource.Endpoint endpoint : endpoints) {
+            joiner.add(String.format("%s=%.0f%%", endpoint.getName(), 100.0 * endpoint.routedCount() / Math.max(1, total)));
+        }
+        return joiner.toString();
+    }
+}
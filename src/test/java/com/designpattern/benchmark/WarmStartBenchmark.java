@@ -0,0 +1,159 @@
+package com.designpattern.benchmark;
+
+import com.designpattern.flyweight.CharacterFactory;
+import com.designpattern.flyweight.monitoring.FlyweightCacheRegistry;
+import com.designpattern.flyweight.practical.FlyweightFactory;
+import com.designpattern.flyweight.practical.FlyweightProperties;
+import com.designpattern.flyweight.snapshot.FlyweightSnapshotService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 재시작 직후 요청 지연시간: 빈 캐시(cold) vs 스냅샷으로 미리 채운 캐시(warm)
+ *
+ * 1. 이전 실행을 흉내 내어 Zipf 분포 요청으로 팩토리를 채우고 스냅샷 저장
+ * 2. 새 팩토리로 같은 요청 흐름을 재생하며 요청별 지연시간 측정
+ *    - cold: 그대로 시작 / warm: 스냅샷으로 preload() 후 시작
+ * 3. 정상 상태 도달 = 100개 요청 이동 평균이 마지막 구간 평균의 110% 이내로 처음 들어온 요청 번호
+ *
+ * JIT 영향을 줄이기 위해 cold/warm을 번갈아 여러 번 돌리고 마지막 회차를 출력
+ *
+ * 실행: ./gradlew benchmark -Pbenchmark=WarmStartBenchmark
+ */
+public class WarmStartBenchmark {
+    private static final String[] FONTS = {"Arial", "Times", "Courier", "Verdana"};
+    private static final String[] COLORS = {"black", "red", "blue", "green", "gray", "navy", "olive", "teal"};
+    private static final int[] SIZES = {10, 11, 12, 14, 16, 18};
+    private static final int CHARS = 96;
+    private static final int KEYS = CHARS * FONTS.length * COLORS.length * SIZES.length;
+    private static final int CHARS_PER_REQUEST = 64;
+    private static final int HISTORY_REQUESTS = 20_000;
+    private static final int MEASURED_REQUESTS = 5_000;
+    private static final int WINDOW = 100;
+    private static final int ITERATIONS = 5;
+
+    private static Object sink;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("flyweight-snapshots");
+        int[] history = zipfTrace(new Random(1), HISTORY_REQUESTS * CHARS_PER_REQUEST);
+        int[] replay = zipfTrace(new Random(2), MEASURED_REQUESTS * CHARS_PER_REQUEST);
+
+        // 1. 이전 실행: 채우고 스냅샷 저장
+        Instance previous = new Instance(directory);
+        run(previous, history, HISTORY_REQUESTS);
+        previous.snapshots.saveAll();
+
+        long[] cold = null;
+        long[] warm = null;
+        long preloadMillis = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            cold = run(new Instance(directory), replay, MEASURED_REQUESTS);
+
+            Instance restarted = new Instance(directory);
+            long start = System.nanoTime();
+            restarted.snapshots.preload();
+            preloadMillis = (System.nanoTime() - start) / 1_000_000;
+            warm = run(restarted, replay, MEASURED_REQUESTS);
+        }
+
+        System.out.printf("키 공간: %d, 요청당 문자 수: %d, preload: %dms%n", KEYS, CHARS_PER_REQUEST, preloadMillis);
+        System.out.printf("%-6s %12s %16s %14s %14s %18s%n",
+            "mode", "first(us)", "first100 avg(us)", "p99 first1k", "steady avg(us)", "steady after(req)");
+        report("cold", cold);
+        report("warm", warm);
+    }
+
+    private static long[] run(Instance instance, int[] trace, int requests) {
+        long[] latencies = new long[requests];
+        for (int r = 0; r < requests; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CHARS_PER_REQUEST; i++) {
+                int key = trace[r * CHARS_PER_REQUEST + i];
+                char ch = (char) (' ' + key % CHARS);
+                int rest = key / CHARS;
+                sink = instance.characters.getCharacter(ch);
+                sink = instance.flyweights.getFlyweight(ch, FONTS[rest % FONTS.length],
+                    SIZES[(rest / FONTS.length) % SIZES.length], COLORS[rest / (FONTS.length * SIZES.length)]);
+            }
+            latencies[r] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static void report(String mode, long[] latencies) {
+        double steady = average(latencies, latencies.length - 10 * WINDOW, latencies.length);
+        int steadyAfter = latencies.length;
+        for (int r = 0; r + WINDOW <= latencies.length; r++) {
+            if (average(latencies, r, r + WINDOW) <= steady * 1.1) {
+                steadyAfter = r;
+                break;
+            }
+        }
+        long[] first1k = Arrays.copyOf(latencies, 1_000);
+        Arrays.sort(first1k);
+        System.out.printf("%-6s %12.1f %16.1f %14.1f %14.1f %18d%n", mode, latencies[0] / 1e3,
+            average(latencies, 0, WINDOW) / 1e3, first1k[989] / 1e3, steady / 1e3, steadyAfter);
+    }
+
+    private static double average(long[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return (double) sum / (to - from);
+    }
+
+    /**
+     * Zipf(s=0.9) 분포의 키 트레이스 (키 번호를 섞어서 인기 키가 한쪽에 몰리지 않게 함)
+     */
+    private static int[] zipfTrace(Random random, int length) {
+        double[] cumulative = new double[KEYS];
+        double sum = 0;
+        for (int i = 0; i < KEYS; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cumulative[i] = sum;
+        }
+        int[] permutation = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            permutation[i] = i;
+        }
+        Random shuffle = new Random(7);
+        for (int i = KEYS - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            trace[i] = permutation[rank < 0 ? -rank - 1 : rank];
+        }
+        return trace;
+    }
+
+    // 재시작 한 번에 해당하는 팩토리 묶음
+    private static class Instance {
+        final CharacterFactory characters;
+        final FlyweightFactory flyweights;
+        final FlyweightSnapshotService snapshots;
+
+        Instance(Path directory) {
+            FlyweightProperties properties = new FlyweightProperties();
+            properties.getFactory().setMaximumSize(KEYS);
+            properties.getSnapshot().setEnabled(true);
+            properties.getSnapshot().setDirectory(directory.toString());
+            properties.getSnapshot().setHotSetSize(1_000);
+            FlyweightCacheRegistry registry = new FlyweightCacheRegistry(new SimpleMeterRegistry());
+            characters = new CharacterFactory(registry);
+            flyweights = new FlyweightFactory(properties, registry);
+            snapshots = new FlyweightSnapshotService(registry, properties);
+        }
+    }
+}
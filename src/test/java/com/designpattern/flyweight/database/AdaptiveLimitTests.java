@@ -0,0 +1,112 @@
+package com.designpattern.flyweight.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AdaptiveLimit 증가/감소/대기열 테스트
+ */
+class AdaptiveLimitTests {
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void rejectsBeyondLimitWithoutQueue() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit("read", 2, TARGET, 0);
+        assertTrue(limit.acquire(0));
+        assertTrue(limit.acquire(0));
+        assertFalse(limit.acquire(0));
+        assertEquals(2, limit.getInFlight());
+        assertEquals(1, limit.rejectedCount());
+    }
+
+    @Test
+    void backsOffOnSlowOrFailedQueries() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit("read", 10, TARGET, 0);
+        limit.acquire(0);
+        limit.release(SLOW, true);
+        assertEquals(9.0, limit.getLimit(), 1e-9);
+        limit.acquire(0);
+        limit.release(FAST, false);
+        assertEquals(8.1, limit.getLimit(), 1e-9);
+    }
+
+    @Test
+    void neverDropsBelowOne() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit("admin", 3, TARGET, 0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.acquire(0));
+            limit.release(SLOW, false);
+        }
+        assertEquals(1.0, limit.getLimit(), 1e-9);
+        assertTrue(limit.acquire(0), "제한이 1이어도 한 개는 실행");
+    }
+
+    @Test
+    void growsBackOnlyWhileSaturatedAndStopsAtMax() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit("read", 4, TARGET, 0);
+        limit.acquire(0);
+        limit.release(SLOW, true);
+        double reduced = limit.getLimit();
+
+        // 한 개씩만 실행하면 제한을 절반도 쓰지 않으므로 늘리지 않음
+        for (int i = 0; i < 50; i++) {
+            limit.acquire(0);
+            limit.release(FAST, true);
+        }
+        assertEquals(reduced, limit.getLimit(), 1e-9);
+
+        // 제한만큼 채워서 실행하면 다시 maxLimit까지 늘어남
+        for (int round = 0; round < 50; round++) {
+            int acquired = 0;
+            while (limit.acquire(0)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(FAST, true);
+            }
+        }
+        assertEquals(4.0, limit.getLimit(), 1e-9);
+    }
+
+    @Test
+    void queuedRequestGetsReleasedSlot() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit("write", 1, TARGET, 1);
+        assertTrue(limit.acquire(0));
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.acquire(TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limit.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        // 대기열(1)이 찼으므로 다음 요청은 바로 거절
+        assertFalse(limit.acquire(TimeUnit.SECONDS.toNanos(5)));
+
+        limit.release(FAST, true);
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limit.getInFlight());
+        assertEquals(0, limit.getQueued());
+    }
+
+    @Test
+    void queuedRequestIsShedAfterMaxWait() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit("write", 1, TARGET, 4);
+        assertTrue(limit.acquire(0));
+        long start = System.nanoTime();
+        assertFalse(limit.acquire(TimeUnit.MILLISECONDS.toNanos(20)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(0, limit.getQueued());
+        assertEquals(1, limit.rejectedCount());
+    }
+}
@@ -0,0 +1,189 @@
+package com.designpattern.flyweight.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ConnectionBag 소유권/대기자 인계 테스트
+ */
+class ConnectionBagTests {
+    private static final int ROUNDS = 20_000;
+    private static final int RACE_ROUNDS = 200;
+
+    // 반납 CAS 직전에 잠깐 멈춰서 "대기자 0 확인 → 상태 변경" 사이에 대기자가 끼어들 틈을 넓힘
+    private static final class SlowReleaseConnection extends MySQLConnection {
+        SlowReleaseConnection() {
+            super("localhost", 3306);
+        }
+
+        @Override
+        public boolean compareAndSetState(int expect, int update) {
+            if (expect == STATE_IN_USE && update == STATE_NOT_IN_USE) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            }
+            return super.compareAndSetState(expect, update);
+        }
+    }
+
+    @Test
+    void borrowAndRequite() throws InterruptedException {
+        AtomicInteger shortages = new AtomicInteger();
+        ConnectionBag bag = new ConnectionBag(waiting -> shortages.incrementAndGet());
+        DatabaseConnection connection = new MySQLConnection("localhost", 3306);
+        ConnectionBag.Entry entry = bag.add(connection);
+
+        assertSame(connection, bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertEquals(DatabaseConnection.STATE_IN_USE, connection.getState());
+        assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertEquals(1, shortages.get());
+
+        assertTrue(bag.requite(connection, entry, System.nanoTime()));
+        assertFalse(bag.requite(connection, entry, System.nanoTime()), "두 번째 반납은 무시");
+        assertEquals(DatabaseConnection.STATE_NOT_IN_USE, connection.getState());
+        assertSame(connection, bag.borrow(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void handsOffToWaiter() throws Exception {
+        ConnectionBag bag = new ConnectionBag(waiting -> { });
+        DatabaseConnection connection = new MySQLConnection("localhost", 3306);
+        ConnectionBag.Entry entry = bag.add(connection);
+        assertSame(connection, bag.borrow(0, TimeUnit.MILLISECONDS));
+
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<DatabaseConnection> borrowed = waiter.submit(() -> bag.borrow(5, TimeUnit.SECONDS));
+            while (bag.getWaiters() == 0) {
+                Thread.onSpinWait();
+            }
+            bag.requite(connection, entry, System.nanoTime());
+            assertSame(connection, borrowed.get(5, TimeUnit.SECONDS));
+            assertEquals(DatabaseConnection.STATE_IN_USE, connection.getState());
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    /**
+     * 대기자가 등록하는 순간과 반납이 겹쳐도 대기자가 시간 초과까지 잠들지 않아야 함
+     * (반납 쪽이 대기자 0을 본 직후 대기자가 등록하고 공유 목록을 훑는 경우)
+     */
+    @Test
+    void requiteRacingWithNewWaiterIsNotLost() throws Exception {
+        ConnectionBag bag = new ConnectionBag(waiting -> { });
+        DatabaseConnection connection = new SlowReleaseConnection();
+        ConnectionBag.Entry entry = bag.add(connection);
+
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < RACE_ROUNDS; round++) {
+                assertSame(connection, bag.borrow(0, TimeUnit.MILLISECONDS));
+                Future<DatabaseConnection> borrowed = waiter.submit(() -> bag.borrow(1, TimeUnit.SECONDS));
+                bag.requite(connection, entry, System.nanoTime());
+                assertSame(connection, borrowed.get(5, TimeUnit.SECONDS), "반납된 연결을 대기자가 놓침 (round " + round + ")");
+                assertTrue(bag.requite(connection, entry, System.nanoTime()));
+            }
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    /**
+     * 대기자로 세어졌지만 아직 poll에 들어가지 않은 스레드가 있어도 반납은 바로 끝나야 하고,
+     * 그 스레드는 나중에 공유 목록을 다시 훑어 연결을 가져가야 함
+     */
+    @Test
+    void requiteDoesNotSpinOnWaiterThatIsNotPolling() throws Exception {
+        CountDownLatch inShortage = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ConnectionBag bag = new ConnectionBag(waiting -> {
+            inShortage.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        DatabaseConnection connection = new MySQLConnection("localhost", 3306);
+        ConnectionBag.Entry entry = bag.add(connection);
+        assertSame(connection, bag.borrow(0, TimeUnit.MILLISECONDS));
+
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<DatabaseConnection> borrowed = waiter.submit(() -> bag.borrow(5, TimeUnit.SECONDS));
+            inShortage.await();
+
+            long start = System.nanoTime();
+            assertTrue(bag.requite(connection, entry, System.nanoTime()));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500), "반납이 대기자를 기다리며 돎");
+            assertEquals(DatabaseConnection.STATE_NOT_IN_USE, connection.getState());
+
+            resume.countDown();
+            assertSame(connection, borrowed.get(5, TimeUnit.SECONDS));
+        } finally {
+            resume.countDown();
+            waiter.shutdownNow();
+        }
+    }
+
+    @Test
+    void connectionHasOneOwnerAtATime() throws Exception {
+        ConnectionBag bag = new ConnectionBag(waiting -> { });
+        List<ConnectionBag.Entry> entries = new ArrayList<>();
+        List<DatabaseConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            DatabaseConnection connection = new MySQLConnection("localhost", 3306 + i);
+            connections.add(connection);
+            entries.add(bag.add(connection));
+        }
+        ConcurrentHashMap<DatabaseConnection, Thread> owners = new ConcurrentHashMap<>();
+        AtomicInteger violations = new AtomicInteger();
+        AtomicInteger timeouts = new AtomicInteger();
+
+        int threads = 8;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(workers.submit(() -> {
+                for (int i = 0; i < ROUNDS / threads; i++) {
+                    DatabaseConnection connection = bag.borrow(1, TimeUnit.SECONDS);
+                    if (connection == null) {
+                        timeouts.incrementAndGet();
+                        continue;
+                    }
+                    if (owners.putIfAbsent(connection, Thread.currentThread()) != null) {
+                        violations.incrementAndGet();
+                    }
+                    owners.remove(connection);
+                    bag.requite(connection, entries.get(connections.indexOf(connection)), System.nanoTime());
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : done) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        assertEquals(0, violations.get(), "같은 연결을 두 스레드가 동시에 빌림");
+        assertEquals(0, timeouts.get(), "연결 2개를 8개 스레드가 돌려 쓰는데 시간 초과");
+    }
+}
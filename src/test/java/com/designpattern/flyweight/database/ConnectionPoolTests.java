@@ -0,0 +1,75 @@
+package com.designpattern.flyweight.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * ConnectionPool 전체 해제/반납 테스트
+ */
+class ConnectionPoolTests {
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionPoolProperties properties = new ConnectionPoolProperties();
+        properties.setMinimumIdle(2);
+        properties.setMaximumPoolSize(4);
+        properties.setConnectionTimeout(Duration.ofSeconds(2));
+        pool = new ConnectionPool(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void closeAllNeverHandsOutClosedConnections() {
+        DatabaseConnection borrowed = pool.getConnection();
+        List<DatabaseConnection> closed = new ArrayList<>();
+        closed.add(borrowed);
+        DatabaseConnection idle = pool.getConnection();
+        closed.add(idle);
+        pool.returnConnection(idle);
+
+        pool.closeAllConnections();
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(DatabaseConnection.STATE_REMOVED, borrowed.getState());
+        assertEquals(DatabaseConnection.STATE_REMOVED, idle.getState());
+
+        // 끊긴 연결을 나중에 반납해도 무시되고 사용 중 수가 음수가 되지 않음
+        pool.returnConnection(borrowed);
+        assertEquals(0, pool.getActiveConnections());
+
+        for (int i = 0; i < 4; i++) {
+            DatabaseConnection connection = pool.awaitConnection();
+            assertNotNull(connection);
+            assertFalse(closed.contains(connection), "해제한 연결이 다시 빌려짐");
+        }
+        assertEquals(4, pool.getActiveConnections());
+    }
+
+    @Test
+    void returnAfterShutdownDoesNotThrow() throws InterruptedException {
+        ConnectionPoolProperties properties = new ConnectionPoolProperties();
+        properties.setMinimumIdle(1);
+        properties.setMaxLifetime(Duration.ofMillis(50));
+        ConnectionPool shortLived = new ConnectionPool(properties);
+        DatabaseConnection connection = shortLived.getConnection(1, TimeUnit.SECONDS);
+        // 사용 중에 수명이 다해 반납될 때 닫히는 연결
+        Thread.sleep(200);
+        shortLived.shutdown();
+        shortLived.returnConnection(connection);
+        assertEquals(0, shortLived.getActiveConnections());
+    }
+}
@@ -0,0 +1,134 @@
+package com.designpattern.flyweight.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QueryResultCache 정규화/테이블 추출/무효화 테스트
+ */
+class QueryResultCacheTests {
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+    private static final long MAXIMUM_BYTES = 1 << 20;
+
+    @Test
+    void normalizeCollapsesWhitespaceAndCase() {
+        assertEquals("select * from users where id=?",
+            QueryResultCache.normalize("  SELECT *\n  FROM Users\tWHERE id = ? ;"));
+        assertEquals("select a,b from t where f(x)>1",
+            QueryResultCache.normalize("select a , b from t where f( x ) > 1"));
+    }
+
+    @Test
+    void normalizeKeepsStringLiterals() {
+        assertEquals("select * from t where name='Kim  Lee'",
+            QueryResultCache.normalize("SELECT * FROM t WHERE name = 'Kim  Lee'"));
+        assertEquals("select * from t where name='it''s A'",
+            QueryResultCache.normalize("select * from T where NAME = 'it''s A'"));
+    }
+
+    @Test
+    void extractTablesFromJoinsListsAndWrites() {
+        assertEquals(Set.of("orders", "users"), QueryResultCache.extractTables(
+            QueryResultCache.normalize("SELECT * FROM app.orders o JOIN \"users\" u ON o.user_id = u.id")));
+        assertEquals(Set.of("a", "b", "c"), QueryResultCache.extractTables(
+            QueryResultCache.normalize("select * from a, b x, c where a.id = b.id")));
+        assertEquals(Set.of("users"), QueryResultCache.extractTables(
+            QueryResultCache.normalize("UPDATE users SET name = 'from nowhere' WHERE id = 1")));
+        assertEquals(Set.of("audit"), QueryResultCache.extractTables(
+            QueryResultCache.normalize("insert into audit values (1)")));
+        assertTrue(QueryResultCache.extractTables(QueryResultCache.normalize("select 1")).isEmpty());
+    }
+
+    @Test
+    void sameQueryWithDifferentSpacingSharesEntry() {
+        QueryResultCache cache = new QueryResultCache(TTL, MAXIMUM_BYTES);
+        QueryResultCache.Query first = QueryResultCache.parse("SELECT * FROM users WHERE id = ?", List.of(1));
+        cache.put(first, cache.version(first), "kim", 0);
+
+        assertEquals("kim", cache.getIfPresent(QueryResultCache.parse("select *  from USERS where id=?", List.of(1))));
+        assertNull(cache.getIfPresent(QueryResultCache.parse("select * from users where id = ?", List.of(2))));
+    }
+
+    @Test
+    void onlyReadsWithKnownTablesAreCacheable() {
+        assertTrue(QueryResultCache.parse("select * from users", List.of()).isCacheable());
+        assertFalse(QueryResultCache.parse("select * from users for update", List.of()).isCacheable());
+        assertFalse(QueryResultCache.parse("select 1", List.of()).isCacheable());
+        assertFalse(QueryResultCache.parse("delete from users", List.of()).isCacheable());
+        assertTrue(QueryResultCache.parse("delete from users", List.of()).isInvalidating());
+    }
+
+    @Test
+    void writeInvalidatesOnlyDependentEntries() {
+        QueryResultCache cache = new QueryResultCache(TTL, MAXIMUM_BYTES);
+        QueryResultCache.Query users = QueryResultCache.parse("select * from users", List.of());
+        QueryResultCache.Query orders = QueryResultCache.parse("select * from orders", List.of());
+        cache.put(users, cache.version(users), "u", 0);
+        cache.put(orders, cache.version(orders), "o", 0);
+
+        cache.invalidate(QueryResultCache.parse("update users set name='x'", List.of()));
+        assertNull(cache.getIfPresent(users));
+        assertEquals("o", cache.getIfPresent(orders));
+
+        // 테이블을 알 수 없는 쓰기는 전부 지움
+        cache.invalidate(QueryResultCache.parse("call refresh_all()", List.of()));
+        assertNull(cache.getIfPresent(orders));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getRetainedBytes());
+    }
+
+    @Test
+    void readStartedBeforeWriteIsNotStored() {
+        QueryResultCache cache = new QueryResultCache(TTL, MAXIMUM_BYTES);
+        QueryResultCache.Query read = QueryResultCache.parse("select * from users", List.of());
+        long version = cache.version(read);
+
+        // 읽기가 실행되는 사이 쓰기가 끝남 → 옛 결과는 저장되면 안 됨
+        cache.invalidate(QueryResultCache.parse("delete from users", List.of()));
+        cache.put(read, version, "stale", 0);
+        assertNull(cache.getIfPresent(read));
+
+        cache.put(read, cache.version(read), "fresh", 0);
+        assertEquals("fresh", cache.getIfPresent(read));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaximumBytes() {
+        QueryResultCache probe = new QueryResultCache(TTL, MAXIMUM_BYTES);
+        QueryResultCache.Query a = QueryResultCache.parse("select * from a", List.of());
+        probe.put(a, probe.version(a), "result", 0);
+        long entryBytes = probe.getRetainedBytes();
+
+        QueryResultCache cache = new QueryResultCache(TTL, 2 * entryBytes);
+        QueryResultCache.Query b = QueryResultCache.parse("select * from b", List.of());
+        QueryResultCache.Query c = QueryResultCache.parse("select * from c", List.of());
+        cache.put(a, cache.version(a), "result", 0);
+        cache.put(b, cache.version(b), "result", 0);
+        cache.getIfPresent(a);
+        cache.put(c, cache.version(c), "result", 0);
+
+        assertEquals("result", cache.getIfPresent(a));
+        assertNull(cache.getIfPresent(b));
+        assertEquals("result", cache.getIfPresent(c));
+        assertEquals(1, cache.stats().evictionCount());
+        assertTrue(cache.getRetainedBytes() <= 2 * entryBytes);
+    }
+
+    @Test
+    void expiresAfterTtl() throws InterruptedException {
+        QueryResultCache cache = new QueryResultCache(TimeUnit.MILLISECONDS.toNanos(5), MAXIMUM_BYTES);
+        QueryResultCache.Query read = QueryResultCache.parse("select * from users", List.of());
+        cache.put(read, cache.version(read), "kim", 0);
+        Thread.sleep(20);
+        assertNull(cache.getIfPresent(read));
+        assertEquals(0, cache.getRetainedBytes());
+    }
+}
@@ -0,0 +1,139 @@
+package com.designpattern.flyweight.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReplicaRoutingDataSource 복제본 선택/제외 테스트 (H2 메모리 DB로 주 DB/복제본 흉내)
+ */
+class ReplicaRoutingDataSourceTests {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private ReplicaRoutingDataSource routing;
+    private List<String> replicaUrls;
+
+    @AfterEach
+    void tearDown() {
+        if (routing != null) {
+            routing.shutdown();
+        }
+    }
+
+    @Test
+    void readsGoToReplicaWithFewestOutstandingRequests() throws SQLException {
+        routing = routing(2, Duration.ofMinutes(1));
+        ReplicaRoutingDataSource.Endpoint first = routing.getReplicas().get(0);
+        ReplicaRoutingDataSource.Endpoint second = routing.getReplicas().get(1);
+
+        Connection held = routing.getReadOnlyConnection();
+        ReplicaRoutingDataSource.Endpoint busy = (first.getPool().getOutstandingRequests() == 1) ? first : second;
+        ReplicaRoutingDataSource.Endpoint idle = (busy == first) ? second : first;
+
+        // 처리 중인 요청이 없는 쪽으로 감 (돌아가는 순서와 관계없이)
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = routing.getReadOnlyConnection()) {
+                assertEquals(1, idle.getPool().getOutstandingRequests());
+            }
+        }
+        assertEquals(1, busy.routedCount());
+        assertEquals(3, idle.routedCount());
+
+        held.close();
+        assertEquals(0, busy.getPool().getOutstandingRequests());
+
+        // 쓰기는 주 DB
+        try (Connection connection = routing.getConnection("UPDATE products SET name = 'x' WHERE id = 1")) {
+            assertEquals(1, routing.getPrimary().getPool().getOutstandingRequests());
+        }
+        assertEquals(1, routing.getPrimary().routedCount());
+    }
+
+    @Test
+    void failedReplicaIsEjectedAndReadsFallBackToPrimary() throws Exception {
+        routing = routing(2, Duration.ofMillis(50));
+        ReplicaRoutingDataSource.Endpoint first = routing.getReplicas().get(0);
+        ReplicaRoutingDataSource.Endpoint second = routing.getReplicas().get(1);
+
+        shutdownDatabase(replicaUrls.get(0));
+        awaitEjected(first);
+        assertTrue(second.isHealthy());
+
+        long routedToFirst = first.routedCount();
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = routing.getReadOnlyConnection()) {
+                assertTrue(connection.isValid(1));
+            }
+        }
+        assertEquals(routedToFirst, first.routedCount(), "제외된 복제본으로 읽기를 보냄");
+
+        // 건강한 복제본이 없으면 주 DB
+        shutdownDatabase(replicaUrls.get(1));
+        awaitEjected(second);
+        long routedToPrimary = routing.getPrimary().routedCount();
+        try (Connection connection = routing.getReadOnlyConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+        assertEquals(routedToPrimary + 1, routing.getPrimary().routedCount());
+        assertTrue(routing.getPrimary().isHealthy());
+    }
+
+    private ReplicaRoutingDataSource routing(int replicas, Duration healthCheckPeriod) throws SQLException {
+        String name = "routing-test-" + SEQUENCE.incrementAndGet();
+        String primary = createDatabase(name + "-primary");
+        replicaUrls = new ArrayList<>();
+        for (int i = 1; i <= replicas; i++) {
+            replicaUrls.add(createDatabase(name + "-replica" + i));
+        }
+
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+        properties.setPrimary(primary);
+        properties.setReplicas(replicaUrls);
+        properties.setHealthCheckPeriod(healthCheckPeriod);
+        properties.setFailureThreshold(1);
+
+        DetailedPoolProperties template = new DetailedPoolProperties();
+        template.setMinimumIdle(1);
+        template.setMaximumPoolSize(2);
+        template.setConnectionTimeout(Duration.ofSeconds(1));
+        return new ReplicaRoutingDataSource(properties, template);
+    }
+
+    // IFEXISTS=TRUE: SHUTDOWN한 DB를 다시 열려고 하면 새로 만들지 않고 실패하도록
+    private static String createDatabase(String name) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(64))");
+        }
+        return url + ";IFEXISTS=TRUE";
+    }
+
+    private static void shutdownDatabase(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    private static void awaitEjected(ReplicaRoutingDataSource.Endpoint endpoint) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (endpoint.isHealthy() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(endpoint.isHealthy(), endpoint.getName() + "이(가) 라우팅에서 제외되지 않음");
+    }
+}
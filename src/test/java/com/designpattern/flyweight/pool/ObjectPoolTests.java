@@ -0,0 +1,194 @@
+package com.designpattern.flyweight.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ObjectPool 용량 상한/반납/종료 테스트
+ */
+class ObjectPoolTests {
+    private static final int CAPACITY = 4;
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 2_000;
+
+    // 만들고 되돌리고 버린 횟수와 마지막으로 만든 스레드를 기록하는 팩토리 (failReset이 켜지면 되돌리기 실패)
+    private static final class CountingFactory implements PooledObjectFactory<StringBuilder> {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger destroyed = new AtomicInteger();
+        volatile boolean failReset;
+        volatile Thread lastCreator;
+
+        @Override
+        public StringBuilder create() {
+            created.incrementAndGet();
+            lastCreator = Thread.currentThread();
+            return new StringBuilder();
+        }
+
+        @Override
+        public void reset(StringBuilder object) {
+            if (failReset) {
+                throw new IllegalStateException("reset 실패");
+            }
+            object.setLength(0);
+        }
+
+        @Override
+        public void destroy(StringBuilder object) {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    @Test
+    void neverCreatesMoreThanCapacity() throws Exception {
+        CountingFactory factory = new CountingFactory();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(factory, CAPACITY);
+        Set<StringBuilder> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ROUNDS; i++) {
+                        StringBuilder object = pool.borrowObject(5, TimeUnit.SECONDS);
+                        assertNotNull(object);
+                        assertTrue(inUse.add(object), "같은 객체가 두 스레드에 동시에 빌려짐");
+                        maxInUse.accumulateAndGet(inUse.size(), Math::max);
+                        inUse.remove(object);
+                        pool.returnObject(object);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(factory.created.get() <= CAPACITY, "생성 수: " + factory.created.get());
+        assertTrue(maxInUse.get() <= CAPACITY);
+        assertEquals(0, pool.getBorrowed());
+        assertEquals((long) THREADS * ROUNDS, pool.borrowCount());
+    }
+
+    @Test
+    void timesOutWhenExhausted() {
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(new CountingFactory(), 1);
+        assertNotNull(pool.borrowObject(0, TimeUnit.MILLISECONDS));
+        assertNull(pool.borrowObject(10, TimeUnit.MILLISECONDS));
+        assertEquals(1, pool.timeoutCount());
+    }
+
+    @Test
+    void ignoresDoubleAndForeignReturns() {
+        CountingFactory factory = new CountingFactory();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(factory, 2);
+        StringBuilder object = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+
+        pool.returnObject(object);
+        pool.returnObject(object);
+        pool.returnObject(new StringBuilder());
+        assertEquals(0, pool.getBorrowed());
+        assertEquals(1, pool.getTotal());
+
+        // 두 번 반납했어도 쉬는 객체는 하나뿐: 두 번 빌리면 두 번째는 새로 만듦
+        StringBuilder first = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        StringBuilder second = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        assertSame(object, first);
+        assertNotSame(first, second);
+        assertEquals(2, factory.created.get());
+    }
+
+    @Test
+    void resetsOnReturn() {
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(new CountingFactory(), 1);
+        StringBuilder object = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        object.append("used");
+        pool.returnObject(object);
+        assertEquals(0, pool.borrowObject(0, TimeUnit.MILLISECONDS).length());
+    }
+
+    @Test
+    void resetFailureDestroysAndReplacesForWaiter() throws Exception {
+        CountingFactory factory = new CountingFactory();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(factory, 1);
+        StringBuilder broken = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<StringBuilder> waiter = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            return pool.borrowObject(5, TimeUnit.SECONDS);
+        });
+        started.await();
+        Thread.sleep(50);
+        factory.failReset = true;
+        pool.returnObject(broken);
+
+        StringBuilder replacement = waiter.get(5, TimeUnit.SECONDS);
+        assertNotNull(replacement);
+        assertNotSame(broken, replacement);
+        assertNotSame(Thread.currentThread(), factory.lastCreator, "반납하는 스레드가 대신 만듦");
+        assertEquals(1, factory.destroyed.get());
+        assertEquals(1, pool.getTotal());
+        assertEquals(1, pool.getBorrowed());
+    }
+
+    @Test
+    void resetFailureWithoutWaiterLeavesRoomForNextBorrower() {
+        CountingFactory factory = new CountingFactory();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(factory, 1);
+        StringBuilder broken = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        factory.failReset = true;
+        pool.returnObject(broken);
+        assertEquals(1, factory.created.get(), "기다리는 스레드가 없으면 반납할 때 만들지 않음");
+        assertEquals(0, pool.getTotal());
+
+        factory.failReset = false;
+        StringBuilder next = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        assertNotNull(next);
+        assertNotSame(broken, next);
+        assertEquals(1, pool.getTotal());
+        pool.returnObject(next);
+        assertSame(next, pool.borrowObject(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void closeDestroysIdleNowAndBorrowedOnReturn() {
+        CountingFactory factory = new CountingFactory();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(factory, 2);
+        StringBuilder borrowed = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        StringBuilder idle = pool.borrowObject(0, TimeUnit.MILLISECONDS);
+        pool.returnObject(idle);
+
+        pool.close();
+        assertEquals(1, factory.destroyed.get());
+        assertThrows(IllegalStateException.class, () -> pool.borrowObject(0, TimeUnit.MILLISECONDS));
+
+        pool.returnObject(borrowed);
+        assertEquals(2, factory.destroyed.get());
+        assertEquals(0, pool.getTotal());
+        assertEquals(0, pool.getBorrowed());
+    }
+}